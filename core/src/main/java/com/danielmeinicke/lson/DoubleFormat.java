@@ -0,0 +1,601 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats doubles and floats straight into byte buffers with the shortest decimal that parses
+ * back to the same value, using Raffaello Giulietti's Schubfach algorithm. The notation is the
+ * same one {@link Double#toString(double)} uses: plain for magnitudes in [10^-3, 10^7) and
+ * computerized scientific notation otherwise, always with at least one fractional digit.
+ * <p>
+ * Unlike {@link Double#toString(double)} on Java 8, which can print more digits than needed,
+ * the output always has the fewest digits, choosing the closest one to the exact value when
+ * there are several.
+ */
+final class DoubleFormat {
+
+    // Static initializers
+
+    /**
+     * The largest amount of bytes a double is formatted into, such as
+     * {@code -2.2250738585072014E-308}.
+     */
+    static final int MAXIMUM_LENGTH = 24;
+
+    // Doubles
+    private static final int DOUBLE_PRECISION = 53;
+    private static final int DOUBLE_MINIMUM_EXPONENT = -1074;
+    private static final long DOUBLE_MINIMUM_SIGNIFICAND = 1L << (DOUBLE_PRECISION - 1);
+    private static final long DOUBLE_TINY_SIGNIFICAND = 3;
+    private static final int DOUBLE_DIGITS = 17;
+
+    // Floats
+    private static final int FLOAT_PRECISION = 24;
+    private static final int FLOAT_MINIMUM_EXPONENT = -149;
+    private static final int FLOAT_MINIMUM_SIGNIFICAND = 1 << (FLOAT_PRECISION - 1);
+    private static final int FLOAT_TINY_SIGNIFICAND = 8;
+    private static final int FLOAT_DIGITS = 9;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    private static final byte @NotNull [] ZERO = "0.0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte @NotNull [] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+    private static final byte @NotNull [] INFINITY = "Infinity".getBytes(StandardCharsets.US_ASCII);
+
+    // The powers of ten up to the amount of digits of a double
+    private static final long @NotNull [] POWERS = new long[DOUBLE_DIGITS + 1];
+
+    /*
+     * The 126-bit approximations of the powers of ten from 10^-K_MIN down to 10^-K_MAX. Each
+     * one is floor(10^-k * 2^-r) + 1 for the only r that places it in [2^125, 2^126), split
+     * into the higher and the lower 63 bits at even and odd indexes.
+     */
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long @NotNull [] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        POWERS[0] = 1;
+        for (int row = 1; row < POWERS.length; row++) {
+            POWERS[row] = POWERS[row - 1] * 10;
+        }
+
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            @NotNull BigInteger g;
+
+            if (k <= 0) {
+                @NotNull BigInteger power = BigInteger.TEN.pow(-k);
+                int shift = power.bitLength() - 126;
+
+                g = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                @NotNull BigInteger power = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power);
+            }
+
+            g = g.add(BigInteger.ONE);
+
+            G[(k - K_MIN) << 1] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) << 1 | 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    /**
+     * Retrieves the amount of bytes the double is formatted into, including the sign. The
+     * shortest decimal is searched as when writing, but its length is computed from the
+     * amount of digits and the exponent instead of formatting it.
+     */
+    static int length(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int sign = (int) (bits >>> 63);
+
+        if (Double.isNaN(value)) {
+            return NAN.length;
+        } else if (Double.isInfinite(value)) {
+            return sign + INFINITY.length;
+        }
+
+        return sign + magnitude(null, 0, bits);
+    }
+    /**
+     * Retrieves the amount of bytes the float is formatted into, including the sign, as
+     * {@link #length(double)} does.
+     */
+    static int length(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = bits >>> 31;
+
+        if (Float.isNaN(value)) {
+            return NAN.length;
+        } else if (Float.isInfinite(value)) {
+            return sign + INFINITY.length;
+        }
+
+        return sign + magnitude(null, 0, bits);
+    }
+
+    static @NotNull String toString(double value) {
+        byte @NotNull [] bytes = new byte[MAXIMUM_LENGTH];
+        return new String(bytes, 0, write(bytes, 0, value), StandardCharsets.US_ASCII);
+    }
+    static @NotNull String toString(float value) {
+        byte @NotNull [] bytes = new byte[MAXIMUM_LENGTH];
+        return new String(bytes, 0, write(bytes, 0, value), StandardCharsets.US_ASCII);
+    }
+
+    // Doubles
+
+    /**
+     * Writes the double into the buffer, which must have room for {@link #MAXIMUM_LENGTH}
+     * bytes from the given position. Not-a-number and the infinities are written as
+     * {@link Double#toString(double)} does.
+     *
+     * @return the position after the last written byte
+     */
+    static int write(byte @NotNull [] buffer, int position, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+
+        if (Double.isNaN(value)) {
+            return copy(buffer, position, NAN);
+        } else if (bits < 0) {
+            buffer[position++] = '-';
+        }
+
+        if (Double.isInfinite(value)) {
+            return copy(buffer, position, INFINITY);
+        }
+
+        return magnitude(buffer, position, bits);
+    }
+
+    /**
+     * Writes the magnitude of the finite double, or only measures it if the buffer is null.
+     *
+     * @return the position after the last byte written or measured
+     */
+    private static int magnitude(byte @Nullable [] buffer, int position, long bits) {
+        long fraction = bits & (DOUBLE_MINIMUM_SIGNIFICAND - 1);
+        int exponent = (int) (bits >>> (DOUBLE_PRECISION - 1)) & 0x7FF;
+
+        if (exponent != 0) {
+            // Normal values, the binary exponent negated
+            int shift = -DOUBLE_MINIMUM_EXPONENT + 1 - exponent;
+            long significand = DOUBLE_MINIMUM_SIGNIFICAND | fraction;
+
+            // Integers below 2^53 are already their shortest decimal
+            if (0 < shift && shift < DOUBLE_PRECISION) {
+                long integer = significand >> shift;
+
+                if (integer << shift == significand) {
+                    return digits(buffer, position, integer, 0);
+                }
+            }
+
+            return decimal(buffer, position, -shift, significand, 0);
+        } else if (fraction != 0) {
+            // Subnormal values
+            if (fraction < DOUBLE_TINY_SIGNIFICAND) {
+                return decimal(buffer, position, DOUBLE_MINIMUM_EXPONENT, 10 * fraction, -1);
+            }
+
+            return decimal(buffer, position, DOUBLE_MINIMUM_EXPONENT, fraction, 0);
+        }
+
+        return buffer == null ? position + ZERO.length : copy(buffer, position, ZERO);
+    }
+
+    /**
+     * Finds the shortest decimal inside the rounding interval of {@code c * 2^q}, where the
+     * interval bounds are computed with a single 126-bit approximation of a power of ten.
+     */
+    private static int decimal(byte @Nullable [] buffer, int position, int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        if (c != DOUBLE_MINIMUM_SIGNIFICAND || q == DOUBLE_MINIMUM_EXPONENT) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // The interval below a power of two is half as wide
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        long g1 = G[(k - K_MIN) << 1];
+        long g0 = G[(k - K_MIN) << 1 | 1];
+
+        long vb = roundOdd(g1, g0, cb << h);
+        long vbl = roundOdd(g1, g0, cbl << h);
+        long vbr = roundOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+
+        if (s >= 100) {
+            // s / 10, multiplied by the inverse of ten
+            long sp10 = 10 * FastDoubleParser.unsignedMultiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                return digits(buffer, position, upin ? sp10 : tp10, k);
+            }
+        }
+
+        long t = s + 1;
+
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            return digits(buffer, position, uin ? s : t, k + dk);
+        }
+
+        // Both candidates are inside the interval, the closest one wins, ties to even
+        long cmp = vb - (s + t << 1);
+        return digits(buffer, position, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+    private static long roundOdd(long g1, long g0, long cp) {
+        long x1 = FastDoubleParser.unsignedMultiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = FastDoubleParser.unsignedMultiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Writes {@code f * 10^e}, splitting the 17 digits of {@code f} into the most significant
+     * one and two blocks of eight, which are extracted left to right with int arithmetic.
+     * If the buffer is null, the length is only {@link #measure(long, int) measured}.
+     */
+    private static int digits(byte @Nullable [] buffer, int position, long f, int e) {
+        if (buffer == null) return position + measure(f, e);
+
+        int length = floorLog10Pow2(64 - Long.numberOfLeadingZeros(f));
+        if (f >= POWERS[length]) length++;
+
+        f *= POWERS[DOUBLE_DIGITS - length];
+        e += length;
+
+        long hm = FastDoubleParser.unsignedMultiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) {
+            // Plain notation without leading zeros
+            buffer[position++] = (byte) ('0' + h);
+
+            int y = block(m);
+            int row = 1;
+
+            for (; row < e; row++) {
+                int t = 10 * y;
+                buffer[position++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            buffer[position++] = '.';
+
+            for (; row <= 8; row++) {
+                int t = 10 * y;
+                buffer[position++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            if (l != 0) position = eight(buffer, position, l);
+            return trim(buffer, position);
+        } else if (-3 < e && e <= 0) {
+            // Plain notation with leading zeros
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+
+            for (; e < 0; e++) {
+                buffer[position++] = '0';
+            }
+
+            buffer[position++] = (byte) ('0' + h);
+            position = eight(buffer, position, m);
+
+            if (l != 0) position = eight(buffer, position, l);
+            return trim(buffer, position);
+        }
+
+        // Computerized scientific notation
+        buffer[position++] = (byte) ('0' + h);
+        buffer[position++] = '.';
+        position = eight(buffer, position, m);
+
+        if (l != 0) position = eight(buffer, position, l);
+        position = trim(buffer, position);
+
+        return exponent(buffer, position, e - 1);
+    }
+
+    // Floats
+
+    /**
+     * Writes the float into the buffer, which must have room for {@link #MAXIMUM_LENGTH}
+     * bytes from the given position. Not-a-number and the infinities are written as
+     * {@link Float#toString(float)} does.
+     *
+     * @return the position after the last written byte
+     */
+    static int write(byte @NotNull [] buffer, int position, float value) {
+        int bits = Float.floatToRawIntBits(value);
+
+        if (Float.isNaN(value)) {
+            return copy(buffer, position, NAN);
+        } else if (bits < 0) {
+            buffer[position++] = '-';
+        }
+
+        if (Float.isInfinite(value)) {
+            return copy(buffer, position, INFINITY);
+        }
+
+        return magnitude(buffer, position, bits);
+    }
+
+    /**
+     * Writes the magnitude of the finite float, or only measures it if the buffer is null.
+     *
+     * @return the position after the last byte written or measured
+     */
+    private static int magnitude(byte @Nullable [] buffer, int position, int bits) {
+        int fraction = bits & (FLOAT_MINIMUM_SIGNIFICAND - 1);
+        int exponent = (bits >>> (FLOAT_PRECISION - 1)) & 0xFF;
+
+        if (exponent != 0) {
+            int shift = -FLOAT_MINIMUM_EXPONENT + 1 - exponent;
+            int significand = FLOAT_MINIMUM_SIGNIFICAND | fraction;
+
+            if (0 < shift && shift < FLOAT_PRECISION) {
+                int integer = significand >> shift;
+
+                if (integer << shift == significand) {
+                    return digits(buffer, position, integer, 0);
+                }
+            }
+
+            return decimal(buffer, position, -shift, significand, 0);
+        } else if (fraction != 0) {
+            if (fraction < FLOAT_TINY_SIGNIFICAND) {
+                return decimal(buffer, position, FLOAT_MINIMUM_EXPONENT, 10 * fraction, -1);
+            }
+
+            return decimal(buffer, position, FLOAT_MINIMUM_EXPONENT, fraction, 0);
+        }
+
+        return buffer == null ? position + ZERO.length : copy(buffer, position, ZERO);
+    }
+
+    /**
+     * The float counterpart of {@link #decimal(byte[], int, int, long, int)}, which only needs
+     * the higher 63 bits of the power of ten approximation.
+     */
+    private static int decimal(byte @Nullable [] buffer, int position, int q, int c, int dk) {
+        int out = c & 0x1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        if (c != FLOAT_MINIMUM_SIGNIFICAND || q == FLOAT_MINIMUM_EXPONENT) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+
+        int h = q + floorLog2Pow10(-k) + 33;
+        long g = G[(k - K_MIN) << 1] + 1;
+
+        int vb = roundOdd(g, cb << h);
+        int vbl = roundOdd(g, cbl << h);
+        int vbr = roundOdd(g, cbr << h);
+
+        int s = vb >> 2;
+
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                return digits(buffer, position, upin ? sp10 : tp10, k);
+            }
+        }
+
+        int t = s + 1;
+
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            return digits(buffer, position, uin ? s : t, k + dk);
+        }
+
+        int cmp = vb - (s + t << 1);
+        return digits(buffer, position, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+    private static int roundOdd(long g, long cp) {
+        long x1 = FastDoubleParser.unsignedMultiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /**
+     * Writes {@code f * 10^e}, splitting the 9 digits of {@code f} into the most significant
+     * one and a block of eight.
+     */
+    private static int digits(byte @Nullable [] buffer, int position, int f, int e) {
+        if (buffer == null) return position + measure(f, e);
+
+        int length = floorLog10Pow2(32 - Integer.numberOfLeadingZeros(f));
+        if (f >= POWERS[length]) length++;
+
+        f *= (int) POWERS[FLOAT_DIGITS - length];
+        e += length;
+
+        int h = (int) (f * 1_441_151_881L >>> 57);
+        int l = f - 100_000_000 * h;
+
+        if (0 < e && e <= 7) {
+            buffer[position++] = (byte) ('0' + h);
+
+            int y = block(l);
+            int row = 1;
+
+            for (; row < e; row++) {
+                int t = 10 * y;
+                buffer[position++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            buffer[position++] = '.';
+
+            for (; row <= 8; row++) {
+                int t = 10 * y;
+                buffer[position++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+
+            return trim(buffer, position);
+        } else if (-3 < e && e <= 0) {
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+
+            for (; e < 0; e++) {
+                buffer[position++] = '0';
+            }
+
+            buffer[position++] = (byte) ('0' + h);
+            return trim(buffer, eight(buffer, position, l));
+        }
+
+        buffer[position++] = (byte) ('0' + h);
+        buffer[position++] = '.';
+        position = trim(buffer, eight(buffer, position, l));
+
+        return exponent(buffer, position, e - 1);
+    }
+
+    // Digits
+
+    /**
+     * Retrieves the amount of bytes {@code f * 10^e} is written into, in the same notation
+     * {@link #digits(byte[], int, long, int)} chooses, from its significant digits and exponent.
+     */
+    private static int measure(long f, int e) {
+        // The trailing zeros are trimmed from the output
+        for (; f % 10 == 0; f /= 10) e++;
+
+        int length = floorLog10Pow2(64 - Long.numberOfLeadingZeros(f));
+        if (f >= POWERS[length]) length++;
+
+        e += length;
+
+        if (0 < e && e <= 7) {
+            return e + 1 + Math.max(length - e, 1);
+        } else if (-3 < e && e <= 0) {
+            return 2 - e + length;
+        }
+
+        int exponent = Math.abs(e - 1);
+        return 3 + Math.max(length - 1, 1) + (e < 1 ? 1 : 0) + (exponent >= 100 ? 3 : exponent >= 10 ? 2 : 1);
+    }
+    /**
+     * Retrieves {@code floor((a + 1) * 2^28 / 10^8) - 1}, the 28-bit fixed point fraction
+     * from which the eight digits of {@code a} are extracted by multiplying by ten.
+     */
+    private static int block(int a) {
+        return (int) (FastDoubleParser.unsignedMultiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+    private static int eight(byte @NotNull [] buffer, int position, int a) {
+        int y = block(a);
+
+        for (int row = 0; row < 8; row++) {
+            int t = 10 * y;
+            buffer[position++] = (byte) ('0' + (t >>> 28));
+            y = t & MASK_28;
+        }
+
+        return position;
+    }
+
+    /**
+     * Removes the trailing zeros, but keeps the one right after the decimal point.
+     */
+    private static int trim(byte @NotNull [] buffer, int position) {
+        while (buffer[position - 1] == '0') position--;
+        if (buffer[position - 1] == '.') position++;
+
+        return position;
+    }
+    private static int exponent(byte @NotNull [] buffer, int position, int e) {
+        buffer[position++] = 'E';
+
+        if (e < 0) {
+            buffer[position++] = '-';
+            e = -e;
+        }
+
+        if (e >= 100) {
+            int hundreds = e * 1_311 >>> 17;
+            buffer[position++] = (byte) ('0' + hundreds);
+            e -= 100 * hundreds;
+        } else if (e < 10) {
+            buffer[position++] = (byte) ('0' + e);
+            return position;
+        }
+
+        int tens = e * 103 >>> 10;
+        buffer[position++] = (byte) ('0' + tens);
+        buffer[position++] = (byte) ('0' + e - 10 * tens);
+
+        return position;
+    }
+
+    private static int copy(byte @NotNull [] buffer, int position, byte @NotNull [] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    // Logarithms
+
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    // Object
+
+    private DoubleFormat() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
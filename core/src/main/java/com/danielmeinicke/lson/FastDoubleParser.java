@@ -0,0 +1,406 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts decimal numbers into the closest {@code double} or {@code float}, reading their
+ * digits straight from the input without building a {@link String}.
+ * <p>
+ * The numbers with up to 19 significant digits, which are almost all of them, are converted
+ * by the Clinger fast path when both the digits and the power of ten are exact doubles, and
+ * by the Eisel-Lemire algorithm otherwise, which multiplies the digits by a truncated 128 bits
+ * approximation of the power of five and only needs the exact arithmetic of
+ * {@link Double#parseDouble(String)} in the rare cases where that approximation can't decide
+ * the rounding.
+ */
+final class FastDoubleParser {
+
+    // Static initializers
+
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+
+    private static final double @NotNull [] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float @NotNull [] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /**
+     * The 128 most significant bits of each power of five from 5^-342 to 5^308, normalized to
+     * have their highest bit set, as two longs each: the high bits followed by the low ones.
+     * The negative powers are rounded up.
+     */
+    private static final long @NotNull [] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+
+    static {
+        @NotNull BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+        for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+            @NotNull BigInteger value;
+
+            if (q < 0) {
+                @NotNull BigInteger power = BigInteger.valueOf(5).pow(-q);
+                int z = power.subtract(BigInteger.ONE).bitLength();
+
+                if (q >= -27) {
+                    value = BigInteger.ONE.shiftLeft(z + 127).divide(power).add(BigInteger.ONE);
+                } else {
+                    value = BigInteger.ONE.shiftLeft(2 * z + 128).divide(power).add(BigInteger.ONE);
+                    value = value.shiftRight(Math.max(value.bitLength() - 128, 0));
+                }
+            } else {
+                value = BigInteger.valueOf(5).pow(q);
+                value = value.bitLength() <= 128 ? value.shiftLeft(128 - value.bitLength()) : value.shiftRight(value.bitLength() - 128);
+            }
+
+            int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+            POWERS_OF_FIVE[index] = value.shiftRight(64).longValue();
+            POWERS_OF_FIVE[index + 1] = value.and(mask).longValue();
+        }
+    }
+
+    /**
+     * Parses a json number, which must follow the json number grammar, from its UTF-8 bytes.
+     *
+     * @param bytes the array containing the number
+     * @param start the index of the first number byte
+     * @param end the index after the last number byte
+     * @return the closest double to the number
+     */
+    static double parseDouble(byte @NotNull [] bytes, int start, int end) {
+        @NotNull Decimal decimal = new Decimal();
+
+        if (decimal.read(bytes, start, end)) {
+            long bits = toDouble(decimal);
+            if (bits != -1) return Double.longBitsToDouble(bits);
+        }
+
+        return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+    /**
+     * Parses a json number, which must follow the json number grammar, from its UTF-8 bytes.
+     *
+     * @param bytes the array containing the number
+     * @param start the index of the first number byte
+     * @param end the index after the last number byte
+     * @return the closest float to the number
+     */
+    static float parseFloat(byte @NotNull [] bytes, int start, int end) {
+        @NotNull Decimal decimal = new Decimal();
+
+        if (decimal.read(bytes, start, end)) {
+            int bits = toFloat(decimal);
+            if (bits != -1) return Float.intBitsToFloat(bits);
+        }
+
+        return Float.parseFloat(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Parses a decimal number from a string, accepting the same inputs as
+     * {@link Double#parseDouble(String)}. Only the plain decimal notation takes the fast path.
+     *
+     * @param string the string to parse
+     * @return the closest double to the number
+     * @throws NumberFormatException if the string isn't a valid number
+     */
+    static double parseDouble(@NotNull String string) {
+        @NotNull Decimal decimal = new Decimal();
+
+        if (decimal.read(string)) {
+            long bits = toDouble(decimal);
+            if (bits != -1) return Double.longBitsToDouble(bits);
+        }
+
+        return Double.parseDouble(string);
+    }
+    /**
+     * Parses a decimal number from a string, accepting the same inputs as
+     * {@link Float#parseFloat(String)}. Only the plain decimal notation takes the fast path.
+     *
+     * @param string the string to parse
+     * @return the closest float to the number
+     * @throws NumberFormatException if the string isn't a valid number
+     */
+    static float parseFloat(@NotNull String string) {
+        @NotNull Decimal decimal = new Decimal();
+
+        if (decimal.read(string)) {
+            int bits = toFloat(decimal);
+            if (bits != -1) return Float.intBitsToFloat(bits);
+        }
+
+        return Float.parseFloat(string);
+    }
+
+    // Conversion
+
+    /**
+     * Retrieves the bits of the double closest to the decimal, or {@code -1} if it must be
+     * computed by the exact arithmetic.
+     */
+    private static long toDouble(@NotNull Decimal decimal) {
+        long w = decimal.digits; // Unsigned, 19 digits may exceed Long.MAX_VALUE
+        int q = decimal.exponent;
+        long sign = decimal.negative ? 1L << 63 : 0;
+
+        // Clinger fast path: both the digits and the power of ten are exact doubles
+        if (q >= -22 && q <= 22 && Long.compareUnsigned(w, 1L << 53) <= 0) {
+            double value = w;
+            value = q < 0 ? value / DOUBLE_POWERS_OF_TEN[-q] : value * DOUBLE_POWERS_OF_TEN[q];
+
+            return Double.doubleToRawLongBits(value) | sign;
+        }
+
+        long bits = eiselLemire(w, q, 52, -1023, 0x7FF, -4, 23);
+        return bits == -1 ? -1 : bits | sign;
+    }
+    /**
+     * Retrieves the bits of the float closest to the decimal, or {@code -1} if it must be
+     * computed by the exact arithmetic.
+     */
+    private static int toFloat(@NotNull Decimal decimal) {
+        long w = decimal.digits; // Unsigned, 19 digits may exceed Long.MAX_VALUE
+        int q = decimal.exponent;
+        int sign = decimal.negative ? 1 << 31 : 0;
+
+        if (q >= -10 && q <= 10 && Long.compareUnsigned(w, 1L << 24) <= 0) {
+            float value = w;
+            value = q < 0 ? value / FLOAT_POWERS_OF_TEN[-q] : value * FLOAT_POWERS_OF_TEN[q];
+
+            return Float.floatToRawIntBits(value) | sign;
+        }
+
+        long bits = eiselLemire(w, q, 23, -127, 0xFF, -17, 10);
+        return bits == -1 ? -1 : (int) bits | sign;
+    }
+
+    /**
+     * Computes the bits, without the sign, of the binary floating point number closest to
+     * {@code w * 10^q}.
+     *
+     * @return the exponent and mantissa bits, or {@code -1} if the truncated product can't
+     *         decide the rounding
+     */
+    private static long eiselLemire(long w, int q, int mantissaBits, int minimumExponent, int infinitePower, int minimumRoundToEven, int maximumRoundToEven) {
+        if (w == 0 || q < SMALLEST_POWER_OF_TEN) {
+            return 0;
+        } else if (q > LARGEST_POWER_OF_TEN) {
+            return (long) infinitePower << mantissaBits;
+        }
+
+        int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+
+        // Multiply by the power of five, computing the second half only if the first one can't
+        // decide the bits that are kept
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long precisionMask = -1L >>> (mantissaBits + 3);
+
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+
+        if ((high & precisionMask) == precisionMask) {
+            long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) high++;
+        }
+
+        if (low == -1L && (q < -27 || q > 55)) {
+            return -1;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - mantissaBits - 3;
+        long mantissa = high >>> shift;
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - leadingZeros - minimumExponent;
+
+        // Subnormal numbers
+        if (power2 <= 0) {
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+
+            power2 = mantissa < 1L << mantissaBits ? 0 : 1;
+            return ((long) power2 << mantissaBits) | (mantissa & ~(1L << mantissaBits));
+        }
+
+        // Ties are rounded to even when the number is exactly halfway
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= minimumRoundToEven && q <= maximumRoundToEven && (mantissa & 3) == 1) {
+            if (mantissa << shift == high) mantissa &= ~1L;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+
+        if (mantissa >= 2L << mantissaBits) {
+            mantissa = 1L << mantissaBits;
+            power2++;
+        }
+
+        mantissa &= ~(1L << mantissaBits);
+
+        if (power2 >= infinitePower) {
+            return (long) infinitePower << mantissaBits;
+        }
+
+        return ((long) power2 << mantissaBits) | mantissa;
+    }
+
+    /**
+     * Retrieves the 64 most significant bits of the unsigned 128 bits product of two longs.
+     */
+    static long unsignedMultiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long middle = ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+
+    // Object
+
+    private FastDoubleParser() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+    // Classes
+
+    /**
+     * A decimal number as its significant digits and power of ten.
+     */
+    private static final class Decimal {
+
+        private boolean negative;
+        private long digits;
+        private int exponent;
+
+        // Significant digits read so far, the leading zeros aren't significant
+        private int count;
+
+        private boolean digit(int digit, boolean fraction) {
+            if (digits != 0 || digit != 0) {
+                if (++count > 19) return false;
+                digits = digits * 10 + digit;
+            }
+
+            if (fraction) exponent--;
+            return true;
+        }
+
+        /**
+         * Reads a number following the json number grammar.
+         *
+         * @return {@code false} if it has more than 19 significant digits
+         */
+        boolean read(byte @NotNull [] bytes, int start, int end) {
+            int index = start;
+
+            negative = bytes[index] == '-';
+            if (negative) index++;
+
+            for (; index < end && bytes[index] >= '0' && bytes[index] <= '9'; index++) {
+                if (!digit(bytes[index] - '0', false)) return false;
+            }
+
+            if (index < end && bytes[index] == '.') {
+                for (index++; index < end && bytes[index] >= '0' && bytes[index] <= '9'; index++) {
+                    if (!digit(bytes[index] - '0', true)) return false;
+                }
+            }
+
+            if (index < end) {
+                index++; // 'e' or 'E'
+
+                boolean negativeExponent = bytes[index] == '-';
+                if (negativeExponent || bytes[index] == '+') index++;
+
+                int value = 0;
+                for (; index < end; index++) {
+                    if (value < 100_000) value = value * 10 + (bytes[index] - '0');
+                }
+
+                exponent += negativeExponent ? -value : value;
+            }
+
+            return true;
+        }
+
+        /**
+         * Reads a number in the plain decimal notation: an optional sign, digits with an
+         * optional decimal point, and an optional exponent.
+         *
+         * @return {@code false} if the string is in another notation, or has more than 19
+         *         significant digits
+         */
+        boolean read(@NotNull String string) {
+            int end = string.length();
+            int index = 0;
+
+            if (index < end && (string.charAt(index) == '-' || string.charAt(index) == '+')) {
+                negative = string.charAt(index++) == '-';
+            }
+
+            int first = index;
+            for (; index < end && string.charAt(index) >= '0' && string.charAt(index) <= '9'; index++) {
+                if (!digit(string.charAt(index) - '0', false)) return false;
+            }
+
+            boolean any = index > first;
+
+            if (index < end && string.charAt(index) == '.') {
+                int fraction = ++index;
+
+                for (; index < end && string.charAt(index) >= '0' && string.charAt(index) <= '9'; index++) {
+                    if (!digit(string.charAt(index) - '0', true)) return false;
+                }
+
+                any |= index > fraction;
+            }
+
+            if (!any) {
+                return false;
+            }
+
+            if (index < end && (string.charAt(index) == 'e' || string.charAt(index) == 'E')) {
+                index++;
+
+                boolean negativeExponent = index < end && string.charAt(index) == '-';
+                if (index < end && (string.charAt(index) == '-' || string.charAt(index) == '+')) index++;
+
+                int digits = index;
+                int value = 0;
+
+                for (; index < end && string.charAt(index) >= '0' && string.charAt(index) <= '9'; index++) {
+                    if (value < 100_000) value = value * 10 + (string.charAt(index) - '0');
+                }
+
+                if (index == digits) {
+                    return false;
+                }
+
+                exponent += negativeExponent ? -value : value;
+            }
+
+            return index == end;
+        }
+
+    }
+
+}
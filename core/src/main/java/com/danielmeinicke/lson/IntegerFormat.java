@@ -0,0 +1,122 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats integers straight into byte buffers, without building a {@link String} first, and
+ * measures their formatted length arithmetically. The digits are written two at a time, from
+ * the end, with lookup tables of the pairs from {@code 00} to {@code 99}.
+ */
+final class IntegerFormat {
+
+    // Static initializers
+
+    /**
+     * The largest amount of bytes a long is formatted into: the sign and 19 digits.
+     */
+    static final int MAXIMUM_LENGTH = 20;
+
+    private static final byte @NotNull [] TENS = new byte[100];
+    private static final byte @NotNull [] ONES = new byte[100];
+
+    // The powers of ten that fit a long
+    private static final long @NotNull [] POWERS = new long[19];
+
+    private static final byte @NotNull [] MINIMUM = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int pair = 0; pair < 100; pair++) {
+            TENS[pair] = (byte) ('0' + pair / 10);
+            ONES[pair] = (byte) ('0' + pair % 10);
+        }
+
+        POWERS[0] = 1;
+        for (int row = 1; row < POWERS.length; row++) {
+            POWERS[row] = POWERS[row - 1] * 10;
+        }
+    }
+
+    /**
+     * Retrieves the amount of bytes the integer is formatted into, including the sign.
+     */
+    static int length(long value) {
+        if (value < 0) {
+            return value == Long.MIN_VALUE ? MINIMUM.length : digits(-value) + 1;
+        }
+
+        return digits(value);
+    }
+    /**
+     * Retrieves the amount of decimal digits of a non-negative integer. The amount is
+     * estimated from the bit length, multiplying it by log10(2) ≈ 1233 / 4096, and corrected
+     * by a single comparison with the power of ten.
+     */
+    private static int digits(long value) {
+        if (value < 10) {
+            return 1;
+        }
+
+        int estimate = ((64 - Long.numberOfLeadingZeros(value)) * 1233) >>> 12;
+        return estimate + (value >= POWERS[estimate] ? 1 : 0);
+    }
+
+    /**
+     * Writes the integer into the buffer, which must have room for its {@link #length(long)
+     * length} from the given position.
+     *
+     * @return the position after the last written byte
+     */
+    static int write(byte @NotNull [] buffer, int position, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MINIMUM, 0, buffer, position, MINIMUM.length);
+                return position + MINIMUM.length;
+            }
+
+            buffer[position++] = '-';
+            value = -value;
+        }
+
+        int end = position + digits(value);
+        int index = end;
+
+        // Long divisions only while the value doesn't fit an int
+        while (value > Integer.MAX_VALUE) {
+            long quotient = value / 100;
+            int pair = (int) (value - quotient * 100);
+            value = quotient;
+
+            buffer[--index] = ONES[pair];
+            buffer[--index] = TENS[pair];
+        }
+
+        int remaining = (int) value;
+
+        while (remaining >= 100) {
+            int quotient = remaining / 100;
+            int pair = remaining - quotient * 100;
+            remaining = quotient;
+
+            buffer[--index] = ONES[pair];
+            buffer[--index] = TENS[pair];
+        }
+
+        if (remaining >= 10) {
+            buffer[--index] = ONES[remaining];
+            buffer[--index] = TENS[remaining];
+        } else {
+            buffer[--index] = (byte) ('0' + remaining);
+        }
+
+        return end;
+    }
+
+    // Object
+
+    private IntegerFormat() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
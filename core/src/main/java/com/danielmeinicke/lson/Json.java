@@ -1,11 +1,15 @@
 package com.danielmeinicke.lson;
 
+import com.danielmeinicke.lson.exception.JsonParseException;
+import com.danielmeinicke.lson.path.JsonPath;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.OutputStream;
-import java.io.Serializable;
-import java.io.Writer;
+import java.io.*;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Essa interface representa um Json.
@@ -16,6 +20,175 @@ public interface Json extends Serializable, Cloneable {
 
     // Static initializers
 
+    /**
+     * Parses a json from its textual representation.
+     *
+     * @param string the json text
+     * @return the parsed json, or {@code null} if the text is the json {@code null} literal
+     * @throws JsonParseException if the text isn't a valid json
+     */
+    static @Nullable Json parse(@NotNull String string) {
+        return parse(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a json directly from its UTF-8 encoded bytes.
+     *
+     * @param bytes the UTF-8 encoded json
+     * @return the parsed json, or {@code null} if the bytes represents the json {@code null} literal
+     * @throws JsonParseException if the bytes aren't a valid json
+     */
+    static @Nullable Json parse(byte @NotNull [] bytes) {
+        return parse(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parses a json directly from a region of an UTF-8 encoded byte array.
+     *
+     * @param bytes the array containing the UTF-8 encoded json
+     * @param offset the index of the first json byte at the array
+     * @param length the amount of json bytes
+     * @return the parsed json, or {@code null} if the bytes represents the json {@code null} literal
+     * @throws JsonParseException if the bytes aren't a valid json
+     * @throws IndexOutOfBoundsException if the region exceeds the array bounds
+     */
+    static @Nullable Json parse(byte @NotNull [] bytes, int offset, int length) {
+        try {
+            return new JsonParser(bytes, offset, length).parse();
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a json in two stages. The first stage indexes the position of every structural
+     * character of the input, and the second one is lazy: the returned objects and arrays
+     * only materialize their children when they're touched, so the parsing cost is
+     * proportional to the part of the document that is actually read.
+     * <p>
+     * The returned json keeps a reference to the byte array, which must not be modified
+     * while the json is in use. Scalar values are only validated when materialized, so a
+     * {@link JsonParseException} may also be thrown while accessing the returned json. The
+     * lazy objects and arrays aren't thread safe, even for reads.
+     *
+     * @param bytes the UTF-8 encoded json
+     * @return the parsed json, or {@code null} if the bytes represents the json {@code null} literal
+     * @throws JsonParseException if the bytes structure isn't a valid json
+     */
+    static @Nullable Json parseLazily(byte @NotNull [] bytes) {
+        return parseLazily(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parses a region of a byte array in two stages, as described at {@link #parseLazily(byte[])}.
+     *
+     * @param bytes the array containing the UTF-8 encoded json
+     * @param offset the index of the first json byte at the array
+     * @param length the amount of json bytes
+     * @return the parsed json, or {@code null} if the bytes represents the json {@code null} literal
+     * @throws JsonParseException if the bytes structure isn't a valid json
+     * @throws IndexOutOfBoundsException if the region exceeds the array bounds
+     */
+    static @Nullable Json parseLazily(byte @NotNull [] bytes, int offset, int length) {
+        return JsonTape.parse(bytes, offset, length);
+    }
+
+    /**
+     * Parses a json whose root is a large array using all the cores of the common fork join
+     * pool, as described at {@link #parseParallel(byte[], ForkJoinPool)}.
+     *
+     * @param bytes the UTF-8 encoded json
+     * @return the parsed json, or {@code null} if the bytes represents the json {@code null} literal
+     * @throws JsonParseException if the bytes aren't a valid json
+     */
+    static @Nullable Json parseParallel(byte @NotNull [] bytes) {
+        return parseParallel(bytes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses a json whose root is a large array in parallel. The input is cut at guessed
+     * element boundaries, the segments are parsed concurrently at the pool, and only the
+     * segments whose guess is proven by the previous one are stitched into the result, so it's
+     * always the same as the one of {@link #parse(byte[])}.
+     * <p>
+     * Small inputs, and inputs whose root isn't an array, are parsed sequentially.
+     *
+     * @param bytes the UTF-8 encoded json
+     * @param pool the pool that parses the segments
+     * @return the parsed json, or {@code null} if the bytes represents the json {@code null} literal
+     * @throws JsonParseException if the bytes aren't a valid json
+     */
+    static @Nullable Json parseParallel(byte @NotNull [] bytes, @NotNull ForkJoinPool pool) {
+        return ParallelArrayParser.parse(bytes, 0, bytes.length, pool);
+    }
+
+    /**
+     * Parses a json reading the UTF-8 encoded bytes of the stream until its end. The stream
+     * isn't closed by this method.
+     *
+     * @param stream the stream to read the json from
+     * @return the parsed json, or {@code null} if the stream contains the json {@code null} literal
+     * @throws JsonParseException if the stream content isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the stream
+     */
+    static @Nullable Json parse(@NotNull InputStream stream) throws IOException {
+        return new JsonParser(stream).parse();
+    }
+
+    /**
+     * Parses a json reading the UTF-8 encoded bytes of a blocking channel until its end. The
+     * channel isn't closed by this method.
+     *
+     * @param channel the channel to read the json from
+     * @return the parsed json, or {@code null} if the channel contains the json {@code null} literal
+     * @throws JsonParseException if the channel content isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the channel
+     */
+    static @Nullable Json parse(@NotNull ReadableByteChannel channel) throws IOException {
+        return new JsonParser(channel).parse();
+    }
+
+    /**
+     * Parses a json building only the values that the given paths can reach. The values
+     * selected by a path are fully built, the objects and arrays on the way to them only
+     * contain the children that lead to a selection, and every other value is skipped without
+     * being materialized, so the cost of the parsing is mostly the one of scanning the input.
+     * <p>
+     * The arrays keep the indexes of their elements, the skipped elements before a kept one
+     * are replaced by {@code null}, so evaluating the paths against the returned json gives
+     * the same results as evaluating them against the whole document. Filters can't be
+     * decided while scanning, so the values they're applied to are kept entirely.
+     *
+     * @param bytes the UTF-8 encoded json
+     * @param projections the paths of the values to keep
+     * @return the projected json, or {@code null} if the root is the json {@code null} literal
+     *         or a value that isn't reachable by the paths
+     * @throws JsonParseException if the bytes aren't a valid json
+     */
+    static @Nullable Json parse(byte @NotNull [] bytes, @NotNull JsonPath @NotNull ... projections) {
+        try {
+            return JsonProjection.parse(new JsonParser(bytes, 0, bytes.length), projections);
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a json from the UTF-8 encoded bytes of the stream building only the values that
+     * the given paths can reach, as described at {@link #parse(byte[], JsonPath...)}. The
+     * stream isn't closed by this method.
+     *
+     * @param stream the stream to read the json from
+     * @param projections the paths of the values to keep
+     * @return the projected json, or {@code null} if the root is the json {@code null} literal
+     *         or a value that isn't reachable by the paths
+     * @throws JsonParseException if the stream content isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the stream
+     */
+    static @Nullable Json parse(@NotNull InputStream stream, @NotNull JsonPath @NotNull ... projections) throws IOException {
+        return JsonProjection.parse(new JsonParser(stream), projections);
+    }
+
     // Object
 
     boolean isObject();
@@ -56,6 +229,37 @@ public interface Json extends Serializable, Cloneable {
     void write(@NotNull Writer writer) throws IOException;
     void write(@NotNull OutputStream stream) throws IOException;
 
+    /**
+     * Writes this json as UTF-8 to a blocking channel, without closing it. The bytes are
+     * written from pooled direct buffers, with gathering writes if the channel is a
+     * {@link java.nio.channels.GatheringByteChannel}, such as the file and socket channels.
+     *
+     * @throws IllegalArgumentException if the channel is a non-blocking selectable channel
+     */
+    default void write(@NotNull WritableByteChannel channel) throws IOException {
+        JsonWriter.write(this, channel);
+    }
+
+    /**
+     * Writes this json laid out by the given format, without closing the writer.
+     */
+    default void write(@NotNull Writer writer, @NotNull JsonFormat format) throws IOException {
+        JsonWriter.write(this, writer, format);
+    }
+    /**
+     * Writes this json laid out by the given format as UTF-8, without closing the stream.
+     */
+    default void write(@NotNull OutputStream stream, @NotNull JsonFormat format) throws IOException {
+        JsonWriter.write(this, stream, format);
+    }
+    /**
+     * Writes this json laid out by the given format as UTF-8 to a blocking channel, without
+     * closing it.
+     */
+    default void write(@NotNull WritableByteChannel channel, @NotNull JsonFormat format) throws IOException {
+        JsonWriter.write(this, channel, format);
+    }
+
     // Cloneable
 
     @NotNull Json clone();
@@ -65,4 +269,12 @@ public interface Json extends Serializable, Cloneable {
     @Override
     @NotNull String toString();
 
+    /**
+     * Retrieves the textual representation of this json laid out by the given format, such as
+     * {@link JsonFormat#PRETTY}.
+     */
+    default @NotNull String toString(@NotNull JsonFormat format) {
+        return JsonWriter.toString(this, format);
+    }
+
 }
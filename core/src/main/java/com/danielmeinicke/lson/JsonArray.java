@@ -5,19 +5,30 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 
 // todo: not add the same instance at #add
 public interface JsonArray extends Json, Queryable, List<@Nullable Json> {
 
     // Static initializers
 
+    /**
+     * Creates an array with a copy of the elements.
+     */
     static @NotNull JsonArray create(@NotNull List<Json> elements) {
         return new JsonArrayImpl(elements);
     }
     static @NotNull JsonArray create() {
-        return new JsonArrayImpl(new LinkedList<>());
+        return new JsonArrayImpl();
+    }
+    /**
+     * Creates an empty array with room for the given amount of elements before growing.
+     *
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    static @NotNull JsonArray create(int capacity) {
+        return new JsonArrayImpl(capacity);
     }
 
     // Object
@@ -31,4 +42,72 @@ public interface JsonArray extends Json, Queryable, List<@Nullable Json> {
 
     @NotNull JsonArray deepClone();
 
+    // Primitives
+
+    /**
+     * Retrieves the elements converted by {@link Json#getAsInteger()}. The arrays whose
+     * elements are kept as primitives are copied without creating the elements.
+     *
+     * @throws NullPointerException if an element is the json {@code null}
+     * @throws UnsupportedOperationException if an element can't be converted
+     */
+    default int @NotNull [] toIntArray() {
+        int[] array = new int[size()];
+        int index = 0;
+
+        for (@Nullable Json json : this) {
+            array[index++] = Objects.requireNonNull(json, "the array contains null elements").getAsInteger();
+        }
+
+        return array;
+    }
+    /**
+     * Retrieves the elements converted by {@link Json#getAsLong()}.
+     *
+     * @throws NullPointerException if an element is the json {@code null}
+     * @throws UnsupportedOperationException if an element can't be converted
+     */
+    default long @NotNull [] toLongArray() {
+        long[] array = new long[size()];
+        int index = 0;
+
+        for (@Nullable Json json : this) {
+            array[index++] = Objects.requireNonNull(json, "the array contains null elements").getAsLong();
+        }
+
+        return array;
+    }
+    /**
+     * Retrieves the elements converted by {@link Json#getAsDouble()}.
+     *
+     * @throws NullPointerException if an element is the json {@code null}
+     * @throws UnsupportedOperationException if an element can't be converted
+     */
+    default double @NotNull [] toDoubleArray() {
+        double[] array = new double[size()];
+        int index = 0;
+
+        for (@Nullable Json json : this) {
+            array[index++] = Objects.requireNonNull(json, "the array contains null elements").getAsDouble();
+        }
+
+        return array;
+    }
+    /**
+     * Retrieves the elements converted by {@link Json#getAsBoolean()}.
+     *
+     * @throws NullPointerException if an element is the json {@code null}
+     * @throws UnsupportedOperationException if an element can't be converted
+     */
+    default boolean @NotNull [] toBooleanArray() {
+        boolean[] array = new boolean[size()];
+        int index = 0;
+
+        for (@Nullable Json json : this) {
+            array[index++] = Objects.requireNonNull(json, "the array contains null elements").getAsBoolean();
+        }
+
+        return array;
+    }
+
 }
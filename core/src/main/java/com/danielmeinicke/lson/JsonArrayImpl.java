@@ -5,19 +5,394 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.lang.reflect.Array;
 import java.util.*;
-import java.util.stream.Collectors;
-
-final class JsonArrayImpl implements JsonArray {
+import java.util.function.Predicate;
+
+/**
+ * The json array that keeps its elements at a growable array, with constant time random
+ * access and bulk copies at the insertions and removals of ranges.
+ * <p>
+ * While all the elements are numbers of one kind or booleans, as the ones the parser creates,
+ * they are kept at a primitive array instead: an {@code int[]} for the integers of up to 32
+ * bits, a {@code long[]} once larger integers are added, a {@code double[]} or a
+ * {@code boolean[]}. The elements are created on demand when read, and the writer and the
+ * bulk accessors such as {@link #toDoubleArray()} read the primitive array directly. The
+ * integers are created as the narrowest type that represents them, so only the integers
+ * that already are of their narrowest type are kept as primitives. Adding any other element
+ * moves the elements to a {@link Json} array, until the array is emptied.
+ */
+final class JsonArrayImpl extends JsonContainer implements JsonArray {
+
+    // Static initializers
+
+    private static final int MINIMUM_CAPACITY = 8;
+    private static final Json @NotNull [] NO_ELEMENTS = new Json[0];
+
+    // The kinds of storage, which are also the kinds of the elements kept as primitives
+    private static final int REFERENCES = 0;
+    private static final int INTEGERS = 1;
+    private static final int LONGS = 2;
+    private static final int DOUBLES = 3;
+    private static final int BOOLEANS = 4;
+
+    /**
+     * Retrieves the primitive kind the json is kept as, or {@link #REFERENCES} if it must be
+     * kept as it is.
+     */
+    private static int kind(@Nullable Json json) {
+        if (json instanceof JsonByteImpl) {
+            return INTEGERS;
+        } else if (json instanceof JsonShortImpl) {
+            long value = json.getAsShort();
+            return value < Byte.MIN_VALUE || value > Byte.MAX_VALUE ? INTEGERS : REFERENCES;
+        } else if (json instanceof JsonIntegerImpl) {
+            long value = json.getAsInteger();
+            return value < Short.MIN_VALUE || value > Short.MAX_VALUE ? INTEGERS : REFERENCES;
+        } else if (json instanceof JsonLongImpl) {
+            long value = json.getAsLong();
+            return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? LONGS : REFERENCES;
+        } else if (json instanceof JsonDoubleImpl) {
+            return DOUBLES;
+        } else if (json instanceof JsonBooleanImpl) {
+            return BOOLEANS;
+        } else {
+            return REFERENCES;
+        }
+    }
 
     // Object
 
-    private final @NotNull List<Json> elements;
+    // The references, or the primitive array of the other kinds
+    private @Nullable Json @NotNull [] elements = NO_ELEMENTS;
+    private @Nullable Object primitives;
+
+    private int kind;
+    private int size;
+
+    // The amount of structural modifications, which invalidate the iterators and sections
+    private transient int modifications;
+
+    public JsonArrayImpl() {
+    }
+    public JsonArrayImpl(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("the capacity cannot be negative");
+        }
+
+        if (capacity > 0) this.elements = new Json[capacity];
+    }
+    public JsonArrayImpl(@NotNull Collection<? extends @Nullable Json> elements) {
+        this(elements.size());
+        addAll(elements);
+    }
+    private JsonArrayImpl(@NotNull JsonArrayImpl array) {
+        this.kind = array.kind;
+        this.size = array.size;
+
+        if (kind == REFERENCES) {
+            this.elements = Arrays.copyOf(array.elements, size);
+
+            for (int index = 0; index < size; index++) {
+                attach(elements[index]);
+            }
+        } else {
+            this.primitives = resize(array.primitives, size);
+        }
+    }
+
+    private void readObject(@NotNull ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        for (int index = 0; kind == REFERENCES && index < size; index++) {
+            attach(elements[index]);
+        }
+    }
+
+    // Storage
+
+    /**
+     * Retrieves the capacity of the storage.
+     */
+    private int capacity() {
+        switch (kind) {
+            case INTEGERS:
+                return ((int[]) primitives).length;
+            case LONGS:
+                return ((long[]) primitives).length;
+            case DOUBLES:
+                return ((double[]) primitives).length;
+            case BOOLEANS:
+                return ((boolean[]) primitives).length;
+            default:
+                return elements.length;
+        }
+    }
+    private static @NotNull Object resize(@NotNull Object primitives, int capacity) {
+        if (primitives instanceof int[]) {
+            return Arrays.copyOf((int[]) primitives, capacity);
+        } else if (primitives instanceof long[]) {
+            return Arrays.copyOf((long[]) primitives, capacity);
+        } else if (primitives instanceof double[]) {
+            return Arrays.copyOf((double[]) primitives, capacity);
+        } else {
+            return Arrays.copyOf((boolean[]) primitives, capacity);
+        }
+    }
+
+    /**
+     * Makes room for the given amount of elements, growing the storage by half if it's full.
+     */
+    private void ensure(int capacity) {
+        int current = capacity();
+
+        if (capacity > current) {
+            int grown = Math.max(Math.max(capacity, current + (current >> 1)), MINIMUM_CAPACITY);
+
+            if (kind == REFERENCES) elements = Arrays.copyOf(elements, grown);
+            else primitives = resize(primitives, grown);
+        }
+    }
+    private void check(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Prepares the storage to keep a json of the given kind, moving the elements to a wider
+     * primitive array or to references if the current storage can't keep it.
+     *
+     * @return whether the json is kept as a primitive
+     */
+    private boolean accept(int kind) {
+        if (kind == REFERENCES || this.kind == REFERENCES && size > 0) {
+            if (this.kind != REFERENCES) inflate();
+            return false;
+        } else if (size == 0 && this.kind != kind) {
+            // An empty array keeps the first kind added, with the capacity it already has
+            int capacity = Math.max(capacity(), MINIMUM_CAPACITY);
+
+            if (kind == INTEGERS) primitives = new int[capacity];
+            else if (kind == LONGS) primitives = new long[capacity];
+            else if (kind == DOUBLES) primitives = new double[capacity];
+            else primitives = new boolean[capacity];
+
+            this.elements = NO_ELEMENTS;
+            this.kind = kind;
+
+            return true;
+        } else if (this.kind == kind || this.kind == LONGS && kind == INTEGERS) {
+            return true;
+        } else if (this.kind == INTEGERS && kind == LONGS) {
+            @NotNull int[] integers = (int[]) primitives;
+            @NotNull long[] longs = new long[integers.length];
+
+            for (int index = 0; index < size; index++) {
+                longs[index] = integers[index];
+            }
+
+            this.primitives = longs;
+            this.kind = LONGS;
+
+            return true;
+        }
+
+        inflate();
+        return false;
+    }
+    /**
+     * Moves the elements from the primitive array to references, for good.
+     */
+    private void inflate() {
+        @Nullable Json @NotNull [] elements = new Json[Math.max(capacity(), MINIMUM_CAPACITY)];
+
+        for (int index = 0; index < size; index++) {
+            elements[index] = element(index);
+        }
 
-    public JsonArrayImpl(@NotNull List<Json> elements) {
         this.elements = elements;
+        this.primitives = null;
+        this.kind = REFERENCES;
+    }
+
+    /**
+     * Creates the element at the index, unless it's kept as a reference.
+     */
+    private @Nullable Json element(int index) {
+        switch (kind) {
+            case INTEGERS:
+                return NumberClassifier.narrowest(((int[]) primitives)[index]);
+            case LONGS:
+                return NumberClassifier.narrowest(((long[]) primitives)[index]);
+            case DOUBLES:
+                return new JsonDoubleImpl(((double[]) primitives)[index]);
+            case BOOLEANS:
+                return new JsonBooleanImpl(((boolean[]) primitives)[index]);
+            default:
+                return elements[index];
+        }
+    }
+    /**
+     * Stores the json at the index, which must be kept by the current storage.
+     */
+    private void store(int index, @Nullable Json json) {
+        switch (kind) {
+            case INTEGERS:
+                //noinspection DataFlowIssue
+                ((int[]) primitives)[index] = json.getAsInteger();
+                break;
+            case LONGS:
+                //noinspection DataFlowIssue
+                ((long[]) primitives)[index] = json.getAsLong();
+                break;
+            case DOUBLES:
+                //noinspection DataFlowIssue
+                ((double[]) primitives)[index] = json.getAsDouble();
+                break;
+            case BOOLEANS:
+                //noinspection DataFlowIssue
+                ((boolean[]) primitives)[index] = json.getAsBoolean();
+                break;
+            default:
+                elements[index] = json;
+        }
+    }
+    private @NotNull Object storage() {
+        return kind == REFERENCES ? elements : Objects.requireNonNull(primitives);
+    }
+
+    /**
+     * Removes the elements between the indexes, with a single shift of the following ones.
+     */
+    private void removeRange(int from, int to) {
+        if (from == to) {
+            return;
+        }
+
+        @NotNull Object storage = storage();
+        System.arraycopy(storage, to, storage, from, size - to);
+
+        if (kind == REFERENCES) {
+            for (int index = from; index < to; index++) {
+                detach(elements[index]);
+            }
+
+            Arrays.fill(elements, size - (to - from), size, null);
+        }
+
+        size -= to - from;
+        modifications++;
+        changed();
+    }
+
+    // Primitives
+
+    /**
+     * Appends an integer created as its narrowest type, without creating it if it's kept as
+     * a primitive.
+     */
+    void addLong(long value) {
+        if (!accept(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? LONGS : INTEGERS)) {
+            add(NumberClassifier.narrowest(value));
+            return;
+        }
+
+        ensure(size + 1);
+
+        if (kind == INTEGERS) ((int[]) primitives)[size++] = (int) value;
+        else ((long[]) primitives)[size++] = value;
+
+        modifications++;
+        changed();
+    }
+    /**
+     * Appends a double, without creating it if it's kept as a primitive.
+     */
+    void addDouble(double value) {
+        if (!accept(DOUBLES)) {
+            add(new JsonDoubleImpl(value));
+            return;
+        }
+
+        ensure(size + 1);
+        ((double[]) primitives)[size++] = value;
+
+        modifications++;
+        changed();
+    }
+    /**
+     * Appends a boolean, without creating it if it's kept as a primitive.
+     */
+    void addBoolean(boolean value) {
+        if (!accept(BOOLEANS)) {
+            add(new JsonBooleanImpl(value));
+            return;
+        }
+
+        ensure(size + 1);
+        ((boolean[]) primitives)[size++] = value;
+
+        modifications++;
+        changed();
+    }
+
+    /**
+     * Retrieves the primitive array the elements are kept at, whose first {@link #size()}
+     * values are the elements, or null if they're kept as references. It must only be read.
+     */
+    @Nullable Object primitives() {
+        return primitives;
+    }
+
+    @Override
+    public int @NotNull [] toIntArray() {
+        if (kind == INTEGERS) {
+            return Arrays.copyOf((int[]) primitives, size);
+        }
+
+        return JsonArray.super.toIntArray();
+    }
+    @Override
+    public long @NotNull [] toLongArray() {
+        if (kind == INTEGERS || kind == LONGS) {
+            @NotNull long[] array = new long[size];
+
+            for (int index = 0; index < size; index++) {
+                array[index] = kind == INTEGERS ? ((int[]) primitives)[index] : ((long[]) primitives)[index];
+            }
+
+            return array;
+        }
+
+        return JsonArray.super.toLongArray();
+    }
+    @Override
+    public double @NotNull [] toDoubleArray() {
+        if (kind == DOUBLES) {
+            return Arrays.copyOf((double[]) primitives, size);
+        } else if (kind == INTEGERS || kind == LONGS) {
+            @NotNull double[] array = new double[size];
+
+            for (int index = 0; index < size; index++) {
+                array[index] = kind == INTEGERS ? ((int[]) primitives)[index] : ((long[]) primitives)[index];
+            }
+
+            return array;
+        }
+
+        return JsonArray.super.toDoubleArray();
+    }
+    @Override
+    public boolean @NotNull [] toBooleanArray() {
+        if (kind == BOOLEANS) {
+            return Arrays.copyOf((boolean[]) primitives, size);
+        }
+
+        return JsonArray.super.toBooleanArray();
     }
 
     // Verifications
@@ -102,50 +477,71 @@ final class JsonArrayImpl implements JsonArray {
     // Getters
 
     @Override
-    public long footprint() {
-        return stream().mapToLong(json -> json == null ? 4 : json.footprint()).sum();
+    long measure() {
+        long footprint = 2 + Math.max(size - 1, 0);
+
+        for (int index = 0; index < size; index++) {
+            switch (kind) {
+                case INTEGERS:
+                    footprint += IntegerFormat.length(((int[]) primitives)[index]);
+                    break;
+                case LONGS:
+                    footprint += IntegerFormat.length(((long[]) primitives)[index]);
+                    break;
+                case DOUBLES:
+                    footprint += DoubleFormat.length(((double[]) primitives)[index]);
+                    break;
+                case BOOLEANS:
+                    footprint += ((boolean[]) primitives)[index] ? 4 : 5;
+                    break;
+                default:
+                    @Nullable Json json = elements[index];
+                    footprint += json == null ? 4 : json.footprint();
+            }
+        }
+
+        return footprint;
     }
 
     // Writers
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write("[");
-        for (@Nullable Json json : this) {
-            writer.write(json != null ? json.toString() : "null");
-        }
-        writer.write("]");
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write('[');
-        for (@Nullable Json json : this) {
-            stream.write((json != null ? json.toString() : "null").getBytes());
-        }
-        stream.write(']');
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
 
     @Override
     public @NotNull Json clone() {
-        return new JsonArrayImpl(elements);
+        return new JsonArrayImpl(this);
     }
     @Override
     public @NotNull JsonArray deepClone() {
-        // Generate elements list
-        @NotNull List<Json> elements = this.elements.stream().map((json) -> {
+        @NotNull JsonArrayImpl clone = new JsonArrayImpl(this);
+        if (kind != REFERENCES) return clone;
+
+        for (int index = 0; index < size; index++) {
+            @Nullable Json json = elements[index];
+
             if (json instanceof JsonArray) {
-                return ((JsonArray) json).deepClone();
+                json = ((JsonArray) json).deepClone();
             } else if (json instanceof JsonObject) {
-                return ((JsonObject) json).deepClone();
-            } else {
-                return json.clone();
+                json = ((JsonObject) json).deepClone();
+            } else if (json != null) {
+                json = json.clone();
             }
-        }).collect(Collectors.toList());
 
-        // Generate new instance
-        return new JsonArrayImpl(elements);
+            clone.detach(clone.elements[index]);
+            clone.attach(json);
+            clone.elements[index] = json;
+        }
+
+        return clone;
     }
 
     // Query
@@ -167,111 +563,271 @@ final class JsonArrayImpl implements JsonArray {
 
     @Override
     public int size() {
-        return elements.size();
+        return size;
     }
     @Override
     public boolean isEmpty() {
-        return elements.isEmpty();
+        return size == 0;
     }
 
     @Override
     public boolean contains(@Nullable Object o) {
-        return elements.contains(o);
+        return indexOf(o) >= 0;
     }
 
     @Override
     public @NotNull Iterator<@Nullable Json> iterator() {
-        return elements.iterator();
+        return new Elements(0);
     }
 
     @Override
     public @NotNull Object @NotNull [] toArray() {
-        return elements.toArray();
+        return toArray(new Object[size]);
     }
     @Override
+    @SuppressWarnings("unchecked")
     public @NotNull <T> T @NotNull [] toArray(@NotNull T @NotNull [] a) {
-        return elements.toArray(a);
+        if (a.length < size) {
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+
+        if (kind == REFERENCES) {
+            System.arraycopy(elements, 0, a, 0, size);
+        } else {
+            for (int index = 0; index < size; index++) a[index] = (T) element(index);
+        }
+
+        if (a.length > size) a[size] = null;
+        return a;
     }
 
     @Override
     public boolean add(@Nullable Json json) {
-        return elements.add(json);
+        boolean primitive = accept(kind(json));
+
+        ensure(size + 1);
+        store(size++, json);
+        modifications++;
+
+        if (!primitive) attach(json);
+        changed();
+
+        return true;
     }
     @Override
     public boolean remove(@Nullable Object o) {
-        return elements.remove(o);
+        int index = indexOf(o);
+
+        if (index < 0) {
+            return false;
+        }
+
+        remove(index);
+        return true;
     }
 
     @Override
     public boolean containsAll(@NotNull Collection<?> c) {
-        return new HashSet<>(elements).containsAll(c);
+        return new HashSet<>(this).containsAll(c);
     }
     @Override
     public boolean retainAll(@NotNull Collection<?> c) {
-        return elements.retainAll(c);
+        return removeIf(json -> !c.contains(json));
     }
 
     @Override
     public boolean addAll(@NotNull Collection<? extends @Nullable Json> c) {
-        return elements.addAll(c);
+        return addAll(size, c);
     }
-
     @Override
     public boolean addAll(int index, @NotNull Collection<? extends @Nullable Json> c) {
-        return elements.addAll(index, c);
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+
+        // The own arrays are copied straight from their storage
+        @Nullable Object @NotNull [] added = c instanceof JsonArrayImpl && ((JsonArrayImpl) c).kind == REFERENCES ? ((JsonArrayImpl) c).elements : c.toArray();
+        int count = c instanceof JsonArrayImpl ? ((JsonArrayImpl) c).size : added.length;
+
+        if (count == 0) {
+            return false;
+        }
+
+        // The elements of a single kind are kept as primitives
+        int batch = kind((Json) added[0]);
+        for (int offset = 1; offset < count && batch != REFERENCES; offset++) {
+            int other = kind((Json) added[offset]);
+
+            if (other == batch) continue;
+            batch = (batch == INTEGERS && other == LONGS) || (batch == LONGS && other == INTEGERS) ? LONGS : REFERENCES;
+        }
+
+        boolean primitive = accept(batch);
+        ensure(size + count);
+
+        @NotNull Object storage = storage();
+        System.arraycopy(storage, index, storage, index + count, size - index);
+
+        if (!primitive) {
+            System.arraycopy(added, 0, elements, index, count);
+        } else {
+            for (int offset = 0; offset < count; offset++) store(index + offset, (Json) added[offset]);
+        }
+
+        size += count;
+        modifications++;
+
+        if (!primitive) {
+            for (int offset = index; offset < index + count; offset++) {
+                attach(elements[offset]);
+            }
+        }
+
+        changed();
+        return true;
     }
 
     @Override
     public boolean removeAll(@NotNull Collection<?> c) {
-        return elements.removeAll(c);
+        return removeIf(c::contains);
+    }
+    /**
+     * Removes the matching elements with a single pass that moves the kept ones.
+     */
+    @Override
+    public boolean removeIf(@NotNull Predicate<? super @Nullable Json> filter) {
+        @NotNull Object storage = storage();
+        int kept = 0;
+
+        for (int index = 0; index < size; index++) {
+            @Nullable Json json = element(index);
+
+            if (!filter.test(json)) {
+                System.arraycopy(storage, index, storage, kept++, 1);
+            } else if (kind == REFERENCES) {
+                detach(json);
+            }
+        }
+
+        if (kept == size) {
+            return false;
+        }
+
+        if (kind == REFERENCES) Arrays.fill(elements, kept, size, null);
+        size = kept;
+        modifications++;
+
+        changed();
+        return true;
     }
 
     @Override
     public void clear() {
-        elements.clear();
+        removeRange(0, size);
     }
 
     @Override
     public @Nullable Json get(int index) {
-        return elements.get(index);
+        check(index, size);
+        return element(index);
     }
 
     @Override
     public @Nullable Json set(int index, @Nullable Json element) {
-        return elements.set(index, element);
+        check(index, size);
+
+        @Nullable Json previous = element(index);
+        boolean primitive = accept(kind(element));
+
+        store(index, element);
+
+        if (!primitive) {
+            detach(previous);
+            attach(element);
+        }
+
+        changed();
+        return previous;
     }
 
     @Override
     public void add(int index, @Nullable Json element) {
-        elements.add(index, element);
+        check(index, size + 1);
+
+        boolean primitive = accept(kind(element));
+        ensure(size + 1);
+
+        @NotNull Object storage = storage();
+        System.arraycopy(storage, index, storage, index + 1, size - index);
+        store(index, element);
+
+        size++;
+        modifications++;
+
+        if (!primitive) attach(element);
+        changed();
     }
 
     @Override
     public @Nullable Json remove(int index) {
-        return elements.remove(index);
+        check(index, size);
+
+        @Nullable Json previous = element(index);
+        removeRange(index, index + 1);
+
+        return previous;
     }
 
     @Override
     public int indexOf(@Nullable Object o) {
-        return elements.indexOf(o);
+        for (int index = 0; index < size; index++) {
+            if (Objects.equals(element(index), o)) return index;
+        }
+
+        return -1;
     }
     @Override
     public int lastIndexOf(@Nullable Object o) {
-        return elements.lastIndexOf(o);
+        for (int index = size - 1; index >= 0; index--) {
+            if (Objects.equals(element(index), o)) return index;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void sort(@Nullable Comparator<? super @Nullable Json> comparator) {
+        if (kind == REFERENCES) {
+            Arrays.sort(elements, 0, size, comparator);
+        } else {
+            // The sorted elements are stored back into the same primitive array
+            @Nullable Json @NotNull [] sorted = toArray(new Json[size]);
+            Arrays.sort(sorted, comparator);
+
+            for (int index = 0; index < size; index++) store(index, sorted[index]);
+        }
+
+        modifications++;
+        changed();
     }
 
     @Override
     public @NotNull ListIterator<@Nullable Json> listIterator() {
-        return elements.listIterator();
+        return new Elements(0);
     }
     @Override
     public @NotNull ListIterator<@Nullable Json> listIterator(int index) {
-        return elements.listIterator(index);
+        check(index, size + 1);
+        return new Elements(index);
     }
 
     @Override
     public @NotNull List<@Nullable Json> subList(int fromIndex, int toIndex) {
-        return elements.subList(fromIndex, toIndex);
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("range " + fromIndex + " to " + toIndex + " out of bounds for size " + size);
+        }
+
+        return new Section(fromIndex, toIndex - fromIndex);
     }
 
     // Implementations
@@ -287,19 +843,174 @@ final class JsonArrayImpl implements JsonArray {
     }
     @Override
     public int hashCode() {
-        return Objects.hash(elements);
+        int hash = 1;
+
+        for (int index = 0; index < size; index++) {
+            hash = 31 * hash + Objects.hashCode(element(index));
+        }
+
+        return 31 + hash;
     }
 
     @Override
     public @NotNull String toString() {
-        @NotNull StringBuilder builder = new StringBuilder("[");
+        return JsonWriter.toString(this);
+    }
+
+    // Classes
+
+    /**
+     * An iterator over the elements that keeps the owners and the caches up to date on
+     * modifications.
+     */
+    private final class Elements implements ListIterator<@Nullable Json> {
+
+        private int cursor;
+        private int last = -1;
+        private int expected = modifications;
+
+        private Elements(int cursor) {
+            this.cursor = cursor;
+        }
+
+        private void verify() {
+            if (expected != modifications) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+        @Override
+        public @Nullable Json next() {
+            verify();
+            if (cursor >= size) throw new NoSuchElementException();
+
+            return element(last = cursor++);
+        }
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+        @Override
+        public @Nullable Json previous() {
+            verify();
+            if (cursor <= 0) throw new NoSuchElementException();
+
+            return element(last = --cursor);
+        }
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            verify();
+
+            JsonArrayImpl.this.remove(last);
+
+            cursor = last;
+            last = -1;
+            expected = modifications;
+        }
+        @Override
+        public void set(@Nullable Json json) {
+            if (last < 0) throw new IllegalStateException();
+            verify();
+
+            JsonArrayImpl.this.set(last, json);
+        }
+        @Override
+        public void add(@Nullable Json json) {
+            verify();
+
+            JsonArrayImpl.this.add(cursor++, json);
+
+            last = -1;
+            expected = modifications;
+        }
+
+    }
+
+    /**
+     * A view of a range of the elements, whose modifications are applied to this array.
+     */
+    private final class Section extends AbstractList<@Nullable Json> {
+
+        private final int offset;
+        private int size;
+        private int expected = modifications;
+
+        private Section(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        private void verify() {
+            if (expected != modifications) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        private void modified(int difference) {
+            size += difference;
+            expected = modifications;
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            verify();
+            return size;
+        }
+        @Override
+        public @Nullable Json get(int index) {
+            verify();
+            check(index, size);
+
+            return element(offset + index);
+        }
+
+        @Override
+        public @Nullable Json set(int index, @Nullable Json element) {
+            verify();
+            check(index, size);
+
+            return JsonArrayImpl.this.set(offset + index, element);
+        }
+        @Override
+        public void add(int index, @Nullable Json element) {
+            verify();
+            check(index, size + 1);
+
+            JsonArrayImpl.this.add(offset + index, element);
+            modified(1);
+        }
+        @Override
+        public @Nullable Json remove(int index) {
+            verify();
+            check(index, size);
+
+            @Nullable Json previous = JsonArrayImpl.this.remove(offset + index);
+            modified(-1);
+
+            return previous;
+        }
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            verify();
 
-        for (@Nullable Json json : this) {
-            builder.append(json);
+            JsonArrayImpl.this.removeRange(offset + fromIndex, offset + toIndex);
+            modified(fromIndex - toIndex);
         }
 
-        builder.append("]");
-        return builder.toString();
     }
 
 }
@@ -114,11 +114,11 @@ final class JsonBooleanImpl implements JsonBoolean {
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write(b == 0 ? "false" : "true");
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write(toString().getBytes());
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
@@ -107,18 +107,18 @@ final class JsonByteImpl implements JsonByte {
 
     @Override
     public long footprint() {
-        return toString().length();
+        return IntegerFormat.length(b);
     }
 
     // Writers
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write(b);
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write(b);
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
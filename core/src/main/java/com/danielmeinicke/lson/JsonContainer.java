@@ -0,0 +1,213 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The base of the json objects and arrays, which caches the values computed over their whole
+ * subtree: the {@link #footprint() footprint} and, when written with
+ * {@link JsonFormat#RETAINING}, the bytes written by the {@link JsonWriter}, which are spliced
+ * into the output while the container is unchanged.
+ * <p>
+ * Every container knows the containers it's an element of, once per occurrence, so a
+ * modification marks the modified container as dirty, dropping its caches, and is propagated
+ * up to the roots. The owners are only weakly referenced, so a container shared by many
+ * short-lived containers doesn't keep them alive. The propagation stops at the first
+ * container that is already dirty: a container is only marked as clean after all the
+ * containers below it were measured or written, so the ones above a dirty container are dirty
+ * too.
+ * <p>
+ * Only the containers of this library are tracked; the modifications of other
+ * {@link JsonObject} or {@link JsonArray} implementations inserted into them aren't noticed.
+ */
+abstract class JsonContainer {
+
+    // Static initializers
+
+    /**
+     * The smallest amount of bytes kept, below which writing the container again is as fast
+     * as copying its bytes.
+     */
+    static final int MINIMUM_CACHED = 64;
+    /**
+     * The largest amount of bytes kept. Each byte of the document is kept by every cached
+     * container above it, so the limit bounds the memory spent in deep trees.
+     */
+    static final int MAXIMUM_CACHED = 8 * 1024;
+
+    // Object
+
+    // The container this one is an element of, and the other ones, with repetitions, only
+    // allocated for shared containers. The owners collected without removing this container
+    // are left until they're pruned.
+    private transient @Nullable Owner owner;
+    private transient Owner @Nullable [] owners;
+    private transient int owned;
+
+    // The footprint plus one, or zero if it isn't measured since the last modification,
+    // which is also the value of the transient field after a deserialization
+    private transient long footprint;
+
+    // The bytes last written by a retaining format, only kept for the sizes at which splicing
+    // them pays off. They are volatile because writing the same tree from several threads is
+    // allowed.
+    private transient volatile byte @Nullable [] bytes;
+
+    // The caches are only valid while clean, and the transient field starts as dirty
+    private transient boolean clean;
+
+    /**
+     * Measures the exact amount of UTF-8 bytes of this container written as json, which is
+     * cached until the next modification.
+     */
+    abstract long measure();
+
+    // Getters
+
+    public final long footprint() {
+        long footprint = this.footprint;
+
+        if (footprint == 0) {
+            byte @Nullable [] bytes = this.bytes;
+
+            footprint = this.footprint = (bytes != null ? bytes.length : measure()) + 1;
+            clean();
+        }
+
+        return footprint - 1;
+    }
+
+    // Bytes
+
+    /**
+     * Retrieves the bytes last written if the container didn't change since then.
+     */
+    final byte @Nullable [] cached() {
+        return bytes;
+    }
+    /**
+     * Marks this container as clean after all the containers below it were written, keeping
+     * the range of the buffer with its bytes if it has a cached size.
+     *
+     * @param buffer the buffer with the written bytes, or null if they aren't retained or
+     *               weren't kept whole
+     */
+    final void written(byte @Nullable [] buffer, int start, int end) {
+        int length = end - start;
+
+        if (buffer != null && length >= MINIMUM_CACHED && length <= MAXIMUM_CACHED) {
+            bytes = Arrays.copyOfRange(buffer, start, end);
+        }
+
+        clean();
+    }
+    /**
+     * Marks this container as clean, which requires all the containers below it to be clean.
+     */
+    void clean() {
+        clean = true;
+    }
+
+    // Modifications
+
+    /**
+     * Marks this container and the containers above it as dirty, dropping their caches.
+     */
+    final void changed() {
+        if (!clean) {
+            return;
+        }
+
+        clean = false;
+        footprint = 0;
+        bytes = null;
+
+        @Nullable JsonContainer first = owner != null ? owner.get() : null;
+        if (first != null) first.changed();
+
+        Owner @Nullable [] owners = this.owners;
+
+        for (int index = 0; index < owned; index++) {
+            @Nullable JsonContainer owner = owners[index].get();
+            if (owner != null) owner.changed();
+        }
+    }
+
+    /**
+     * Registers this container as an owner of the json, which was inserted into it.
+     */
+    final void attach(@Nullable Json json) {
+        if (json instanceof JsonContainer) {
+            @NotNull JsonContainer container = (JsonContainer) json;
+
+            if (container.owner == null || container.owner.get() == null) {
+                container.owner = new Owner(this);
+                return;
+            } else if (container.owners == null) {
+                container.owners = new Owner[2];
+            } else if (container.owned == container.owners.length && container.prune() > container.owned / 2) {
+                // Only grows while most of the owners are alive, the pruning stays amortized
+                container.owners = Arrays.copyOf(container.owners, container.owned * 2);
+            }
+
+            container.owners[container.owned++] = new Owner(this);
+        }
+    }
+    /**
+     * Unregisters one occurrence of this container as an owner of the json, which was removed
+     * from it.
+     */
+    final void detach(@Nullable Json json) {
+        if (json instanceof JsonContainer) {
+            @NotNull JsonContainer container = (JsonContainer) json;
+            Owner @Nullable [] owners = container.owners;
+
+            if (container.owner != null && container.owner.get() == this) {
+                // The last of the other owners takes the place of the first one
+                container.owner = container.owned > 0 ? owners[--container.owned] : null;
+                if (owners != null) owners[container.owned] = null;
+
+                return;
+            }
+
+            for (int index = container.owned - 1; index >= 0; index--) {
+                if (owners[index].get() == this) {
+                    owners[index] = owners[--container.owned];
+                    owners[container.owned] = null;
+
+                    break;
+                }
+            }
+        }
+    }
+    /**
+     * Removes the owners that were collected, keeping the order of the others.
+     *
+     * @return the amount of owners left
+     */
+    private int prune() {
+        Owner @Nullable [] owners = this.owners;
+        int left = 0;
+
+        for (int index = 0; index < owned; index++) {
+            if (owners[index].get() != null) {
+                owners[left++] = owners[index];
+            }
+        }
+
+        Arrays.fill(owners, left, owned, null);
+        return owned = left;
+    }
+
+    // Classes
+
+    private static final class Owner extends WeakReference<JsonContainer> {
+        private Owner(@NotNull JsonContainer owner) {
+            super(owner);
+        }
+    }
+
+}
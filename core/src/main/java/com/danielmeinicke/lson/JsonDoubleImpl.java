@@ -23,7 +23,7 @@ final class JsonDoubleImpl implements JsonDouble {
 
     @Override
     public @NotNull String getAsString() {
-        return String.valueOf(d);
+        return DoubleFormat.toString(d);
     }
     @Override
     public boolean getAsBoolean() {
@@ -108,18 +108,18 @@ final class JsonDoubleImpl implements JsonDouble {
 
     @Override
     public long footprint() {
-        return toString().length();
+        return DoubleFormat.length(d);
     }
 
     // Writers
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write(toString());
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write(toString().getBytes());
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
@@ -155,7 +155,7 @@ final class JsonDoubleImpl implements JsonDouble {
 
     @Override
     public @NotNull String toString() {
-        return String.valueOf(d);
+        return DoubleFormat.toString(d);
     }
 
 }
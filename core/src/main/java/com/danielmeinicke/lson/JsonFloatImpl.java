@@ -22,7 +22,7 @@ final class JsonFloatImpl implements JsonFloat {
 
     @Override
     public @NotNull String getAsString() {
-        return String.valueOf(f);
+        return DoubleFormat.toString(f);
     }
     @Override
     public boolean getAsBoolean() {
@@ -107,18 +107,18 @@ final class JsonFloatImpl implements JsonFloat {
 
     @Override
     public long footprint() {
-        return toString().length();
+        return DoubleFormat.length(f);
     }
 
     // Writers
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write(toString());
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write(toString().getBytes());
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
@@ -154,7 +154,7 @@ final class JsonFloatImpl implements JsonFloat {
 
     @Override
     public @NotNull String toString() {
-        return String.valueOf(f);
+        return DoubleFormat.toString(f);
     }
 
 }
@@ -0,0 +1,240 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The layout of the json text written by a {@link JsonWriter}: the compact one, without any
+ * whitespace, or a pretty one, with each member and element at its own line, indented by its
+ * depth.
+ * <p>
+ * The formats are immutable and hold their indentation already encoded, the line separator
+ * followed by the indentation of the first levels, so the writer copies a prefix of those
+ * bytes instead of building the indentation of each line.
+ *
+ * <pre>{@code
+ * JsonFormat format = JsonFormat.builder().indent(1, '\t').lineSeparator("\r\n").build();
+ * String text = json.toString(format);
+ * }</pre>
+ */
+public final class JsonFormat {
+
+    // Static initializers
+
+    /**
+     * The format without any whitespace, used by {@link Json#toString()}.
+     */
+    public static final @NotNull JsonFormat COMPACT = new JsonFormat("", 0, ' ', false, false);
+    /**
+     * The compact format that also makes the objects and arrays of this library keep the
+     * bytes they're written into, which are spliced into the next outputs while they aren't
+     * modified. It pays off when a large tree is written many times with small changes in
+     * between, at the cost of keeping a copy of the written bytes.
+     */
+    public static final @NotNull JsonFormat RETAINING = new JsonFormat("", 0, ' ', false, true);
+    /**
+     * The pretty format with two spaces of indentation, {@code \n} line separators and a space
+     * after each colon.
+     */
+    public static final @NotNull JsonFormat PRETTY = new JsonFormat("\n", 2, ' ', true, false);
+
+    // The levels whose indentation is encoded by the format, the deeper ones are encoded by
+    // the writers
+    private static final int LEVELS = 16;
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    // Object
+
+    private final @NotNull String lineSeparator;
+    private final int indentWidth;
+    private final char indentCharacter;
+    private final boolean spaceAfterColon;
+    private final boolean retainBytes;
+
+    private final byte @NotNull [] indentation;
+
+    private JsonFormat(@NotNull String lineSeparator, int indentWidth, char indentCharacter, boolean spaceAfterColon, boolean retainBytes) {
+        this.lineSeparator = lineSeparator;
+        this.indentWidth = indentWidth;
+        this.indentCharacter = indentCharacter;
+        this.spaceAfterColon = spaceAfterColon;
+        this.retainBytes = retainBytes;
+
+        this.indentation = encode(LEVELS);
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the characters that end each line, or an empty string if the values aren't
+     * written at their own lines.
+     */
+    public @NotNull String getLineSeparator() {
+        return lineSeparator;
+    }
+    /**
+     * Retrieves the amount of indentation characters of each depth level.
+     */
+    public int getIndentWidth() {
+        return indentWidth;
+    }
+    /**
+     * Retrieves the indentation character, a space or a tab.
+     */
+    public char getIndentCharacter() {
+        return indentCharacter;
+    }
+    public boolean hasSpaceAfterColon() {
+        return spaceAfterColon;
+    }
+
+    /**
+     * Checks whether the format writes the members and elements at their own lines.
+     */
+    public boolean isPretty() {
+        return !lineSeparator.isEmpty();
+    }
+    /**
+     * Checks whether the format doesn't write any whitespace.
+     */
+    boolean isCompact() {
+        return !isPretty() && !spaceAfterColon;
+    }
+    /**
+     * Checks whether the objects and arrays written keep their bytes, as {@link #RETAINING}.
+     */
+    public boolean isRetainingBytes() {
+        return retainBytes;
+    }
+
+    // Indentation
+
+    /**
+     * Encodes the line separator followed by the indentation of the given level.
+     *
+     * @return an array whose prefixes are the separator and the indentations of the levels
+     * up to the given one
+     */
+    byte @NotNull [] indentation(int level) {
+        return level <= LEVELS ? indentation : encode(level);
+    }
+    private byte @NotNull [] encode(int level) {
+        byte @NotNull [] separator = lineSeparator.getBytes(StandardCharsets.US_ASCII);
+        byte @NotNull [] bytes = Arrays.copyOf(separator, separator.length + indentWidth * level);
+        Arrays.fill(bytes, separator.length, bytes.length, (byte) indentCharacter);
+
+        return bytes;
+    }
+    /**
+     * Retrieves the amount of bytes of the line separator and the indentation of the level.
+     */
+    int indentationLength(int level) {
+        return lineSeparator.length() + indentWidth * level;
+    }
+
+    // Implementations
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof JsonFormat)) return false;
+        @NotNull JsonFormat that = (JsonFormat) object;
+        return indentWidth == that.indentWidth && indentCharacter == that.indentCharacter && spaceAfterColon == that.spaceAfterColon && retainBytes == that.retainBytes && lineSeparator.equals(that.lineSeparator);
+    }
+    @Override
+    public int hashCode() {
+        return (((lineSeparator.hashCode() * 31 + indentWidth) * 31 + indentCharacter) * 31 + (spaceAfterColon ? 1 : 0)) * 31 + (retainBytes ? 1 : 0);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "JsonFormat{" +
+                "lineSeparator=" + lineSeparator.replace("\r", "\\r").replace("\n", "\\n") +
+                ", indentWidth=" + indentWidth +
+                ", indentCharacter=" + (indentCharacter == '\t' ? "\\t" : "' '") +
+                ", spaceAfterColon=" + spaceAfterColon +
+                ", retainBytes=" + retainBytes +
+                '}';
+    }
+
+    // Classes
+
+    /**
+     * Builds pretty formats, starting from the settings of {@link #PRETTY}.
+     */
+    public static final class Builder {
+
+        // Object
+
+        private @NotNull String lineSeparator = PRETTY.lineSeparator;
+        private int indentWidth = PRETTY.indentWidth;
+        private char indentCharacter = PRETTY.indentCharacter;
+        private boolean spaceAfterColon = PRETTY.spaceAfterColon;
+
+        private Builder() {
+        }
+
+        // Settings
+
+        /**
+         * Indents each level with the given amount of spaces.
+         */
+        @Contract(value = "_->this")
+        public @NotNull Builder indent(int width) {
+            return indent(width, ' ');
+        }
+        /**
+         * Indents each level with the given amount of characters, which must be spaces or tabs.
+         *
+         * @throws IllegalArgumentException if the width is negative or the character isn't a
+         * space nor a tab
+         */
+        @Contract(value = "_,_->this")
+        public @NotNull Builder indent(int width, char character) {
+            if (width < 0) {
+                throw new IllegalArgumentException("the indent width cannot be negative");
+            } else if (character != ' ' && character != '\t') {
+                throw new IllegalArgumentException("the indent character must be a space or a tab");
+            }
+
+            this.indentWidth = width;
+            this.indentCharacter = character;
+
+            return this;
+        }
+        /**
+         * Ends the lines with the given separator, which must be {@code \n}, {@code \r\n} or
+         * {@code \r}.
+         *
+         * @throws IllegalArgumentException if the separator isn't a line separator
+         */
+        @Contract(value = "_->this")
+        public @NotNull Builder lineSeparator(@NotNull String separator) {
+            if (!separator.equals("\n") && !separator.equals("\r\n") && !separator.equals("\r")) {
+                throw new IllegalArgumentException("the line separator must be \\n, \\r\\n or \\r");
+            }
+
+            this.lineSeparator = separator;
+            return this;
+        }
+        @Contract(value = "_->this")
+        public @NotNull Builder spaceAfterColon(boolean space) {
+            this.spaceAfterColon = space;
+            return this;
+        }
+
+        // Builder
+
+        public @NotNull JsonFormat build() {
+            return new JsonFormat(lineSeparator, indentWidth, indentCharacter, spaceAfterColon, false);
+        }
+
+    }
+
+}
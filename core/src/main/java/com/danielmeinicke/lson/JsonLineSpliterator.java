@@ -0,0 +1,255 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the lines of a json lines (NDJSON) input, parsing each non-blank line as
+ * a json value. The input is split at the newline closest to the middle of the remaining
+ * range, so the halves can be parsed concurrently, and the lines of each half keep their
+ * input order.
+ */
+final class JsonLineSpliterator implements Spliterator<@Nullable Json> {
+
+    // Static initializers
+
+    // Ranges smaller than that aren't worth splitting
+    private static final long MINIMUM_SPLIT = 64 * 1024;
+
+    // Object
+
+    private final @NotNull Source source;
+    private long position;
+    private final long end;
+
+    JsonLineSpliterator(@NotNull Source source, long position, long end) {
+        this.source = source;
+        this.position = position;
+        this.end = end;
+    }
+
+    // Spliterator
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super @Nullable Json> action) {
+        while (position < end) {
+            long start = position;
+            long newline = source.newline(start, end);
+
+            position = newline + 1;
+
+            if (!source.isBlank(start, newline)) {
+                action.accept(source.parse(start, newline));
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public @Nullable Spliterator<@Nullable Json> trySplit() {
+        if (end - position < MINIMUM_SPLIT) {
+            return null;
+        }
+
+        long split = source.newline(position + (end - position) / 2, end) + 1;
+        if (split >= end) {
+            return null;
+        }
+
+        @NotNull JsonLineSpliterator prefix = new JsonLineSpliterator(source, position, split);
+        position = split;
+
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+    @Override
+    public int characteristics() {
+        return ORDERED | IMMUTABLE;
+    }
+
+    // Classes
+
+    /**
+     * A fork join task that parses the lines of a spliterator, splitting it recursively and
+     * delivering the values to the consumer in no particular order.
+     */
+    static final class Task extends RecursiveAction {
+
+        private final @NotNull Spliterator<@Nullable Json> spliterator;
+        private final @NotNull Consumer<? super @Nullable Json> consumer;
+
+        Task(@NotNull Spliterator<@Nullable Json> spliterator, @NotNull Consumer<? super @Nullable Json> consumer) {
+            this.spliterator = spliterator;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            @Nullable Spliterator<@Nullable Json> prefix = spliterator.trySplit();
+
+            if (prefix != null) {
+                invokeAll(new Task(prefix, consumer), new Task(spliterator, consumer));
+            } else {
+                spliterator.forEachRemaining(consumer);
+            }
+        }
+
+    }
+
+    /**
+     * The bytes of a json lines input, addressed by {@code long} indexes.
+     */
+    static abstract class Source {
+
+        abstract long size();
+        abstract byte get(long index);
+
+        /**
+         * Parses the json at the given range of the input.
+         */
+        abstract @Nullable Json parse(long start, long end);
+
+        /**
+         * Retrieves the index of the first line feed at the range, or the range end if there's
+         * none.
+         */
+        long newline(long start, long end) {
+            for (long index = start; index < end; index++) {
+                if (get(index) == '\n') return index;
+            }
+
+            return end;
+        }
+        boolean isBlank(long start, long end) {
+            for (long index = start; index < end; index++) {
+                byte b = get(index);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return false;
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * A source over a region of a byte array, whose lines are parsed straight from the array.
+     */
+    static final class ArraySource extends Source {
+
+        private final byte @NotNull [] bytes;
+        private final int offset;
+        private final int length;
+
+        ArraySource(byte @NotNull [] bytes, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > bytes.length) {
+                throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " out of bounds for " + bytes.length + " bytes");
+            }
+
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        long size() {
+            return length;
+        }
+        @Override
+        byte get(long index) {
+            return bytes[offset + (int) index];
+        }
+
+        @Override
+        long newline(long start, long end) {
+            byte[] bytes = this.bytes;
+
+            for (int index = offset + (int) start, limit = offset + (int) end; index < limit; index++) {
+                if (bytes[index] == '\n') return index - offset;
+            }
+
+            return end;
+        }
+
+        @Override
+        @Nullable Json parse(long start, long end) {
+            try {
+                return new JsonParser(bytes, offset + (int) start, (int) (end - start), start).parse();
+            } catch (@NotNull IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    /**
+     * A source over a memory mapped file, mapped in chunks since a single mapping can't
+     * address more than 2 GB. Each line is copied out of the mappings before being parsed.
+     */
+    static final class MappedSource extends Source {
+
+        private static final int CHUNK_SHIFT = 30;
+        private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+        private final @NotNull MappedByteBuffer @NotNull [] chunks;
+        private final long size;
+
+        MappedSource(@NotNull FileChannel channel) throws IOException {
+            this.size = channel.size();
+            this.chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+
+            for (int row = 0; row < chunks.length; row++) {
+                long position = (long) row << CHUNK_SHIFT;
+                chunks[row] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_MASK + 1, size - position));
+            }
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+        @Override
+        byte get(long index) {
+            return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+        }
+
+        @Override
+        @Nullable Json parse(long start, long end) {
+            byte[] line = new byte[Math.toIntExact(end - start)];
+
+            // The line may cross the boundary between two chunks
+            for (int copied = 0; copied < line.length; ) {
+                long index = start + copied;
+
+                @NotNull ByteBuffer chunk = chunks[(int) (index >>> CHUNK_SHIFT)].duplicate();
+                chunk.position((int) (index & CHUNK_MASK));
+
+                int length = Math.min(chunk.remaining(), line.length - copied);
+                chunk.get(line, copied, length);
+                copied += length;
+            }
+
+            try {
+                return new JsonParser(line, 0, line.length, start).parse();
+            } catch (@NotNull IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
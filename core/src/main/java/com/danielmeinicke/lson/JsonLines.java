@@ -0,0 +1,116 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses json lines (NDJSON) inputs, where each line contains a json value, in parallel.
+ * <p>
+ * The input is recursively split into chunks at newline boundaries, and the chunks are parsed
+ * concurrently at a {@link ForkJoinPool}. Blank lines are ignored. The values can be read as
+ * a parallel {@link Stream}, which keeps the lines order, or delivered to a consumer as soon
+ * as they're parsed, in no particular order.
+ * <p>
+ * Parsing errors are thrown as {@link JsonParseException}, with the index of the byte that
+ * caused it relative to the beginning of the input.
+ */
+public final class JsonLines {
+
+    // Static initializers
+
+    /**
+     * Creates a parallel stream of the json values at the lines of the UTF-8 encoded bytes.
+     * The stream keeps the lines order, and runs at the common fork join pool unless it's
+     * turned sequential.
+     *
+     * @param bytes the UTF-8 encoded json lines
+     * @return a parallel and ordered stream of the json values, where the json {@code null}
+     *         literals are {@code null} elements
+     */
+    public static @NotNull Stream<@Nullable Json> parse(byte @NotNull [] bytes) {
+        return parse(bytes, 0, bytes.length);
+    }
+    /**
+     * Creates a parallel stream of the json values at the lines of a region of a byte array,
+     * as described at {@link #parse(byte[])}.
+     *
+     * @param bytes the array containing the UTF-8 encoded json lines
+     * @param offset the index of the first byte at the array
+     * @param length the amount of bytes
+     * @return a parallel and ordered stream of the json values
+     * @throws IndexOutOfBoundsException if the region exceeds the array bounds
+     */
+    public static @NotNull Stream<@Nullable Json> parse(byte @NotNull [] bytes, int offset, int length) {
+        return stream(new JsonLineSpliterator.ArraySource(bytes, offset, length));
+    }
+    /**
+     * Creates a parallel stream of the json values at the lines of a file, which is memory
+     * mapped in chunks instead of being read into the heap, as described at
+     * {@link #parse(byte[])}.
+     *
+     * @param path the path of the UTF-8 encoded json lines file
+     * @return a parallel and ordered stream of the json values
+     * @throws IOException if an I/O error occurs while opening or mapping the file
+     */
+    public static @NotNull Stream<@Nullable Json> parse(@NotNull Path path) throws IOException {
+        return stream(map(path));
+    }
+
+    /**
+     * Parses the json values at the lines of the UTF-8 encoded bytes at the given pool,
+     * delivering each one to the consumer as soon as it's parsed. The consumer is called
+     * concurrently and in no particular order, and this method only returns when every line
+     * was parsed.
+     *
+     * @param bytes the UTF-8 encoded json lines
+     * @param pool the pool that parses the lines
+     * @param consumer the thread safe consumer of the json values
+     */
+    public static void parse(byte @NotNull [] bytes, @NotNull ForkJoinPool pool, @NotNull Consumer<? super @Nullable Json> consumer) {
+        parse(new JsonLineSpliterator.ArraySource(bytes, 0, bytes.length), pool, consumer);
+    }
+    /**
+     * Parses the json values at the lines of a memory mapped file at the given pool, as
+     * described at {@link #parse(byte[], ForkJoinPool, Consumer)}.
+     *
+     * @param path the path of the UTF-8 encoded json lines file
+     * @param pool the pool that parses the lines
+     * @param consumer the thread safe consumer of the json values
+     * @throws IOException if an I/O error occurs while opening or mapping the file
+     */
+    public static void parse(@NotNull Path path, @NotNull ForkJoinPool pool, @NotNull Consumer<? super @Nullable Json> consumer) throws IOException {
+        parse(map(path), pool, consumer);
+    }
+
+    // Utilities
+
+    private static @NotNull Stream<@Nullable Json> stream(@NotNull JsonLineSpliterator.Source source) {
+        return StreamSupport.stream(new JsonLineSpliterator(source, 0, source.size()), true);
+    }
+    private static void parse(@NotNull JsonLineSpliterator.Source source, @NotNull ForkJoinPool pool, @NotNull Consumer<? super @Nullable Json> consumer) {
+        pool.invoke(new JsonLineSpliterator.Task(new JsonLineSpliterator(source, 0, source.size()), consumer));
+    }
+    private static @NotNull JsonLineSpliterator.Source map(@NotNull Path path) throws IOException {
+        // The mappings remain valid after the channel is closed
+        try (@NotNull FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new JsonLineSpliterator.MappedSource(channel);
+        }
+    }
+
+    // Object
+
+    private JsonLines() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
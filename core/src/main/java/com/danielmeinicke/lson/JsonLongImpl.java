@@ -107,18 +107,18 @@ final class JsonLongImpl implements JsonLong {
 
     @Override
     public long footprint() {
-        return toString().length();
+        return IntegerFormat.length(l);
     }
 
     // Writers
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write(toString());
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write(toString().getBytes());
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
@@ -10,8 +10,26 @@ import java.util.Map;
 
 public interface JsonObject extends Json, Queryable, Map<@NotNull String, @Nullable Json> {
 
+    // Static initializers
+
+    static @NotNull JsonObject create() {
+        return new JsonObjectImpl();
+    }
+
+    // Object
+
     void sort(@NotNull Comparator<Json> comparator);
 
+    /**
+     * Extracts the values the path selects at this object. The selected values are the
+     * nodes of this object, not copies, and negative indexes and slice bounds are relative
+     * to the length of their array.
+     *
+     * @param path the path to evaluate
+     * @return an array with the selected values, in the document order
+     * @throws UnsupportedOperationException if the path has nested paths, more than one filter
+     *         in a segment or slices without a positive step
+     */
     @NotNull Json extract(@NotNull JsonPath path);
 
     @NotNull JsonObject flatten();
@@ -0,0 +1,884 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * The json object that keeps its members in insertion order at parallel arrays of keys, values
+ * and key hashes, indexed by a flat open addressing table. Unlike a {@link LinkedHashMap}, it
+ * doesn't allocate a node per member, and the lookups compare the cached hashes before
+ * touching the keys.
+ * <p>
+ * The small objects, which are most of the objects of a document, only have the keys and
+ * values arrays, sized to up to {@link #SMALL_CAPACITY} members, and their lookups scan the
+ * keys linearly, which is faster than hashing at those sizes. The hashes and the table are
+ * only built when the arrays grow past it.
+ */
+final class JsonObjectImpl extends JsonContainer implements JsonObject {
+
+    // Static initializers
+
+    /**
+     * The largest capacity whose lookups scan the keys instead of probing a table.
+     */
+    static final int SMALL_CAPACITY = 8;
+    private static final int MINIMUM_CAPACITY = 2;
+
+    private static final String @NotNull [] NO_KEYS = new String[0];
+    private static final Json @NotNull [] NO_VALUES = new Json[0];
+    private static final int @NotNull [] NO_HASHES = new int[0];
+
+    private static int hash(@NotNull String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    // Object
+
+    // The members in insertion order, at parallel arrays. The removed members are left as
+    // null keys until the arrays are compacted, which happens when they are full.
+    private @Nullable String @NotNull [] keys = NO_KEYS;
+    private @Nullable Json @NotNull [] values = NO_VALUES;
+
+    // The hashes of the keys and the open addressing table, which are empty while the arrays
+    // are small. The table is twice as large as the arrays and probed linearly, with the
+    // index of a member plus one at each used slot. The slots of removed members are kept,
+    // so the probing goes past them.
+    private int @NotNull [] hashes = NO_HASHES;
+    private int @NotNull [] table = NO_HASHES;
+
+    // The amount of used indexes of the arrays, and of members that weren't removed
+    private int end;
+    private int size;
+
+    // The amount of structural modifications, which invalidate the iterators
+    private transient int modifications;
+
+    public JsonObjectImpl() {
+    }
+    JsonObjectImpl(int capacity) {
+        if (capacity > 0) {
+            allocate(Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(capacity - 1) << 1));
+        }
+    }
+    private JsonObjectImpl(@NotNull JsonObjectImpl object) {
+        this.keys = object.keys.clone();
+        this.values = object.values.clone();
+        this.hashes = object.hashes.length == 0 ? NO_HASHES : object.hashes.clone();
+        this.table = object.table.length == 0 ? NO_HASHES : object.table.clone();
+        this.end = object.end;
+        this.size = object.size;
+
+        for (int index = 0; index < end; index++) {
+            if (keys[index] != null) attach(values[index]);
+        }
+    }
+
+    private void readObject(@NotNull ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+
+        for (int index = 0; index < end; index++) {
+            if (keys[index] != null) attach(values[index]);
+        }
+    }
+
+    // Table
+
+    /**
+     * Retrieves the index of the member with the given key, or -1 if there isn't one.
+     */
+    private int find(@Nullable Object key) {
+        if (size == 0 || !(key instanceof String)) {
+            return -1;
+        } else if (table.length == 0) {
+            for (int index = 0; index < end; index++) {
+                @Nullable String candidate = keys[index];
+                if (candidate != null && (candidate == key || candidate.equals(key))) return index;
+            }
+
+            return -1;
+        }
+
+        int hash = hash((String) key);
+        int mask = table.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+
+            if (index < 0) {
+                return -1;
+            } else if (hashes[index] == hash) {
+                @Nullable String candidate = keys[index];
+                if (candidate != null && (candidate == key || candidate.equals(key))) return index;
+            }
+        }
+    }
+    /**
+     * Appends a member whose key isn't at the table yet.
+     */
+    private void append(@NotNull String key, @Nullable Json value) {
+        if (end == keys.length) {
+            // Compacts the arrays, and doubles them unless at least half of them was removed
+            allocate(size >= keys.length >> 1 ? Math.max(MINIMUM_CAPACITY, keys.length << 1) : keys.length);
+        }
+
+        int index = end++;
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (table.length != 0) {
+            int hash = hashes[index] = hash(key);
+            place(index, hash);
+        }
+
+        size++;
+        modifications++;
+    }
+    private void place(int index, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        table[slot] = index + 1;
+    }
+    /**
+     * Moves the members, in order, to arrays of the given capacity, and rebuilds the table
+     * without the removed members if the capacity isn't small.
+     */
+    private void allocate(int capacity) {
+        @Nullable String @NotNull [] keys = new String[capacity];
+        @Nullable Json @NotNull [] values = new Json[capacity];
+        int count = 0;
+
+        for (int index = 0; index < end; index++) {
+            if (this.keys[index] != null) {
+                keys[count] = this.keys[index];
+                values[count] = this.values[index];
+                count++;
+            }
+        }
+
+        this.keys = keys;
+        this.values = values;
+        this.end = count;
+
+        index(capacity);
+        modifications++;
+    }
+    /**
+     * Hashes the keys into a new table, if the capacity isn't small.
+     */
+    private void index(int capacity) {
+        if (capacity <= SMALL_CAPACITY) {
+            hashes = NO_HASHES;
+            table = NO_HASHES;
+
+            return;
+        }
+
+        hashes = new int[capacity];
+        table = new int[capacity << 1];
+
+        for (int index = 0; index < end; index++) {
+            place(index, hashes[index] = hash(keys[index]));
+        }
+    }
+
+    /**
+     * Retrieves the amount of used indexes, some of which may be of removed members.
+     */
+    int end() {
+        return end;
+    }
+    /**
+     * Retrieves the key at the index, or null if its member was removed.
+     */
+    @Nullable String key(int index) {
+        return keys[index];
+    }
+    @Nullable Json value(int index) {
+        return values[index];
+    }
+
+    // Verifications
+
+    @Override
+    public boolean isObject() {
+        return true;
+    }
+    @Override
+    public boolean isArray() {
+        return false;
+    }
+
+    @Override
+    public boolean isPrimitive() {
+        return false;
+    }
+    @Override
+    public boolean isNumber() {
+        return false;
+    }
+    @Override
+    public boolean isString() {
+        return false;
+    }
+    @Override
+    public boolean isBoolean() {
+        return false;
+    }
+
+    // Casts
+
+    @Override
+    public @NotNull JsonObject getAsObject() {
+        return this;
+    }
+    @Override
+    public @NotNull JsonArray getAsArray() {
+        throw new UnsupportedOperationException("cannot parse a json object into a json array");
+    }
+    @Override
+    public @NotNull JsonPrimitive getAsPrimitive() {
+        throw new UnsupportedOperationException("cannot parse a json object into a json primitive");
+    }
+    @Override
+    public @NotNull JsonNumber getAsNumber() {
+        throw new UnsupportedOperationException("cannot parse a json object into a json number");
+    }
+    @Override
+    public @NotNull String getAsString() {
+        throw new UnsupportedOperationException("cannot parse a json object into a string");
+    }
+    @Override
+    public boolean getAsBoolean() {
+        throw new UnsupportedOperationException("cannot parse a json object into a boolean");
+    }
+    @Override
+    public int getAsInteger() {
+        throw new UnsupportedOperationException("cannot parse a json object into an integer");
+    }
+    @Override
+    public double getAsDouble() {
+        throw new UnsupportedOperationException("cannot parse a json object into a double");
+    }
+    @Override
+    public float getAsFloat() {
+        throw new UnsupportedOperationException("cannot parse a json object into a float");
+    }
+    @Override
+    public short getAsShort() {
+        throw new UnsupportedOperationException("cannot parse a json object into a short");
+    }
+    @Override
+    public long getAsLong() {
+        throw new UnsupportedOperationException("cannot parse a json object into a long");
+    }
+    @Override
+    public byte getAsByte() {
+        throw new UnsupportedOperationException("cannot parse a json object into a byte");
+    }
+
+    // Getters
+
+    @Override
+    long measure() {
+        long footprint = 2 + Math.max(size - 1, 0);
+
+        for (int index = 0; index < end; index++) {
+            @Nullable String key = keys[index];
+            @Nullable Json json = values[index];
+
+            if (key != null) {
+                footprint += StringEscaper.length(key) + 1 + (json == null ? 4 : json.footprint());
+            }
+        }
+
+        return footprint;
+    }
+
+    // Writers
+
+    @Override
+    public void write(@NotNull Writer writer) throws IOException {
+        JsonWriter.write(this, writer);
+    }
+    @Override
+    public void write(@NotNull OutputStream stream) throws IOException {
+        JsonWriter.write(this, stream);
+    }
+
+    // Modules
+
+    /**
+     * Sorts the members by their values, keeping the order of the equal ones.
+     */
+    @Override
+    public void sort(@NotNull Comparator<Json> comparator) {
+        @NotNull Integer[] order = new Integer[size];
+        int count = 0;
+
+        for (int index = 0; index < end; index++) {
+            if (keys[index] != null) order[count++] = index;
+        }
+
+        Arrays.sort(order, (first, second) -> comparator.compare(values[first], values[second]));
+
+        @Nullable String @NotNull [] keys = new String[this.keys.length];
+        @Nullable Json @NotNull [] values = new Json[this.keys.length];
+
+        for (int index = 0; index < count; index++) {
+            keys[index] = this.keys[order[index]];
+            values[index] = this.values[order[index]];
+        }
+
+        this.keys = keys;
+        this.values = values;
+        this.end = count;
+
+        index(keys.length);
+        modifications++;
+        changed();
+    }
+
+    @Override
+    public @NotNull Json extract(@NotNull JsonPath path) {
+        // The path is evaluated over the tree, so the selected values are the nodes themselves
+        @NotNull PathAutomaton automaton = PathAutomaton.compile(true, true, path);
+        @NotNull List<@Nullable Json> matches = new ArrayList<>();
+        automaton.select(this, automaton.getInitial(), matches);
+
+        return JsonArray.create(matches);
+    }
+
+    @Override
+    public @NotNull JsonObject flatten() {
+        @NotNull JsonObjectImpl flat = new JsonObjectImpl(size);
+        flatten(flat, null, this);
+
+        return flat;
+    }
+    private static void flatten(@NotNull JsonObject flat, @Nullable String prefix, @NotNull JsonObject object) {
+        for (@NotNull Entry<String, Json> entry : object.entrySet()) {
+            @NotNull String key = prefix == null ? entry.getKey() : prefix + "." + entry.getKey();
+            @Nullable Json json = entry.getValue();
+
+            if (json instanceof JsonObject && !((JsonObject) json).isEmpty()) {
+                flatten(flat, key, (JsonObject) json);
+            } else {
+                flat.put(key, json);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull JsonObject unflatten() {
+        @NotNull JsonObjectImpl object = new JsonObjectImpl();
+
+        for (int index = 0; index < end; index++) {
+            @Nullable String key = keys[index];
+            if (key == null) continue;
+
+            @NotNull String[] parts = key.split("\\.", -1);
+            @NotNull JsonObject current = object;
+
+            for (int row = 0; row < parts.length - 1; row++) {
+                @Nullable Json child = current.get(parts[row]);
+
+                if (child == null) {
+                    child = new JsonObjectImpl();
+                    current.put(parts[row], child);
+                } else if (!(child instanceof JsonObject)) {
+                    throw new IllegalStateException("cannot unflatten key '" + key + "' because '" + parts[row] + "' isn't a json object");
+                }
+
+                current = (JsonObject) child;
+            }
+
+            current.put(parts[parts.length - 1], values[index]);
+        }
+
+        return object;
+    }
+
+    @Override
+    public void merge(@NotNull JsonObject object) {
+        merge(object, true);
+    }
+    @Override
+    public void merge(@NotNull JsonObject object, boolean override) {
+        if (object instanceof JsonObjectImpl) {
+            // Iterates over a copy, so an object can be merged into itself or its members
+            @NotNull JsonObjectImpl source = (JsonObjectImpl) object;
+            @Nullable String @NotNull [] keys = Arrays.copyOf(source.keys, source.end);
+            @Nullable Json @NotNull [] values = Arrays.copyOf(source.values, source.end);
+
+            for (int index = 0; index < keys.length; index++) {
+                if (keys[index] != null) merge(keys[index], values[index], override);
+            }
+        } else {
+            for (@NotNull Entry<String, Json> entry : object.entrySet()) {
+                merge(entry.getKey(), entry.getValue(), override);
+            }
+        }
+    }
+    private void merge(@NotNull String key, @Nullable Json json, boolean override) {
+        int index = find(key);
+        @Nullable Json current = index >= 0 ? values[index] : null;
+
+        if (current instanceof JsonObject && json instanceof JsonObject) {
+            ((JsonObject) current).merge((JsonObject) json, override);
+        } else if (index < 0) {
+            append(key, json);
+            attach(json);
+            changed();
+        } else if (override) {
+            replace(index, json);
+        }
+    }
+
+    // Cloneable
+
+    @Override
+    public @NotNull Json clone() {
+        return new JsonObjectImpl(this);
+    }
+    @Override
+    public @NotNull JsonObject deepClone() {
+        @NotNull JsonObjectImpl clone = new JsonObjectImpl(this);
+
+        for (int index = 0; index < clone.end; index++) {
+            @Nullable Json json = clone.values[index];
+
+            if (json instanceof JsonArray) {
+                json = ((JsonArray) json).deepClone();
+            } else if (json instanceof JsonObject) {
+                json = ((JsonObject) json).deepClone();
+            } else if (json != null) {
+                json = json.clone();
+            }
+
+            clone.detach(clone.values[index]);
+            clone.attach(json);
+            clone.values[index] = json;
+        }
+
+        return clone;
+    }
+
+    // Query
+
+    @Override
+    public @Nullable Json query(@NotNull JsonPath path) {
+        return null;
+    }
+    @Override
+    public void set(@NotNull JsonPath path, @Nullable Json json) {
+
+    }
+    @Override
+    public void remove(@NotNull JsonPath path) {
+
+    }
+
+    // Map
+
+    @Override
+    public int size() {
+        return size;
+    }
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return find(key) >= 0;
+    }
+    @Override
+    public boolean containsValue(@Nullable Object value) {
+        for (int index = 0; index < end; index++) {
+            if (keys[index] != null && Objects.equals(values[index], value)) return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public @Nullable Json get(@Nullable Object key) {
+        int index = find(key);
+        return index >= 0 ? values[index] : null;
+    }
+    @Override
+    public @Nullable Json put(@NotNull String key, @Nullable Json value) {
+        int index = find(key);
+
+        if (index >= 0) {
+            return replace(index, value);
+        }
+
+        append(key, value);
+        attach(value);
+        changed();
+
+        return null;
+    }
+    private @Nullable Json replace(int index, @Nullable Json value) {
+        @Nullable Json previous = values[index];
+        values[index] = value;
+
+        detach(previous);
+        attach(value);
+        changed();
+
+        return previous;
+    }
+    @Override
+    public @Nullable Json remove(@Nullable Object key) {
+        int index = find(key);
+        return index >= 0 ? delete(index) : null;
+    }
+    /**
+     * Removes the member at the index, leaving its key as null.
+     */
+    private @Nullable Json delete(int index) {
+        @Nullable Json previous = values[index];
+
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        modifications++;
+
+        detach(previous);
+        changed();
+
+        return previous;
+    }
+
+    @Override
+    public void putAll(@NotNull Map<? extends @NotNull String, ? extends @Nullable Json> map) {
+        for (@NotNull Entry<? extends String, ? extends Json> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+    @Override
+    public void clear() {
+        for (int index = 0; index < end; index++) {
+            if (keys[index] != null) detach(values[index]);
+        }
+
+        Arrays.fill(keys, 0, end, null);
+        Arrays.fill(values, 0, end, null);
+        Arrays.fill(table, 0);
+
+        end = 0;
+        size = 0;
+        modifications++;
+
+        changed();
+    }
+
+    @Override
+    public @NotNull Set<@NotNull String> keySet() {
+        return new Keys();
+    }
+    @Override
+    public @NotNull Collection<@Nullable Json> values() {
+        return new Values();
+    }
+    @Override
+    public @NotNull Set<Entry<@NotNull String, @Nullable Json>> entrySet() {
+        return new Entries();
+    }
+
+    // Implementations
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+        if (this == object) return true;
+        if (!(object instanceof JsonObject)) return false;
+
+        @NotNull JsonObject other = (JsonObject) object;
+        if (other.size() != size) return false;
+
+        for (int index = 0; index < end; index++) {
+            @Nullable String key = keys[index];
+            @Nullable Json value = values[index];
+
+            if (key == null) {
+                continue;
+            } else if (value == null ? other.get(key) != null || !other.containsKey(key) : !value.equals(other.get(key))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+    @Override
+    public int hashCode() {
+        int hash = 0;
+
+        for (int index = 0; index < end; index++) {
+            if (keys[index] != null) hash += keys[index].hashCode() ^ Objects.hashCode(values[index]);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return JsonWriter.toString(this);
+    }
+
+    // Classes
+
+    /**
+     * The views over the members, whose modifications keep the owners and the caches up to
+     * date.
+     */
+    private final class Entries extends AbstractSet<Entry<@NotNull String, @Nullable Json>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+        @Override
+        public boolean contains(@Nullable Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+
+            @NotNull Entry<?, ?> entry = (Entry<?, ?>) o;
+            int index = find(entry.getKey());
+
+            return index >= 0 && Objects.equals(values[index], entry.getValue());
+        }
+        @Override
+        public boolean remove(@Nullable Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+
+            JsonObjectImpl.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+        @Override
+        public void clear() {
+            JsonObjectImpl.this.clear();
+        }
+
+        @Override
+        public @NotNull Iterator<Entry<@NotNull String, @Nullable Json>> iterator() {
+            return new Members();
+        }
+
+    }
+    private final class Keys extends AbstractSet<@NotNull String> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+        @Override
+        public boolean contains(@Nullable Object o) {
+            return containsKey(o);
+        }
+        @Override
+        public boolean remove(@Nullable Object o) {
+            int index = find(o);
+
+            if (index < 0) {
+                return false;
+            }
+
+            delete(index);
+            return true;
+        }
+        @Override
+        public void clear() {
+            JsonObjectImpl.this.clear();
+        }
+
+        @Override
+        public @NotNull Iterator<@NotNull String> iterator() {
+            @NotNull Members members = new Members();
+
+            return new Iterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return members.hasNext();
+                }
+                @Override
+                public @NotNull String next() {
+                    return members.next().getKey();
+                }
+                @Override
+                public void remove() {
+                    members.remove();
+                }
+            };
+        }
+
+    }
+    private final class Values extends AbstractCollection<@Nullable Json> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+        @Override
+        public boolean contains(@Nullable Object o) {
+            return containsValue(o);
+        }
+        @Override
+        public void clear() {
+            JsonObjectImpl.this.clear();
+        }
+
+        @Override
+        public @NotNull Iterator<@Nullable Json> iterator() {
+            @NotNull Members members = new Members();
+
+            return new Iterator<Json>() {
+                @Override
+                public boolean hasNext() {
+                    return members.hasNext();
+                }
+                @Override
+                public @Nullable Json next() {
+                    return members.next().getValue();
+                }
+                @Override
+                public void remove() {
+                    members.remove();
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Iterates over the indexes of the members, in order, skipping the removed ones.
+     */
+    private final class Members implements Iterator<Entry<@NotNull String, @Nullable Json>> {
+
+        private int next = skip(0);
+        private int last = -1;
+        private int expected = modifications;
+
+        private int skip(int index) {
+            while (index < end && keys[index] == null) index++;
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+        @Override
+        public @NotNull Entry<@NotNull String, @Nullable Json> next() {
+            if (expected != modifications) {
+                throw new ConcurrentModificationException();
+            } else if (next >= end) {
+                throw new NoSuchElementException();
+            }
+
+            last = next;
+            next = skip(next + 1);
+
+            //noinspection DataFlowIssue
+            return new Member(last, keys[last]);
+        }
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            } else if (expected != modifications) {
+                throw new ConcurrentModificationException();
+            }
+
+            delete(last);
+
+            last = -1;
+            expected = modifications;
+        }
+
+    }
+    private final class Member implements Entry<@NotNull String, @Nullable Json> {
+
+        private final @NotNull String key;
+        private int index;
+
+        // The value when the member was last seen, kept after it's removed
+        private @Nullable Json value;
+
+        private Member(int index, @NotNull String key) {
+            this.index = index;
+            this.key = key;
+            this.value = values[index];
+        }
+
+        /**
+         * Retrieves the current index of the member, which moves when the arrays are
+         * compacted, or -1 if it was removed.
+         */
+        private int locate() {
+            if (index >= end || keys[index] != key) {
+                index = find(key);
+            }
+
+            return index;
+        }
+
+        @Override
+        public @NotNull String getKey() {
+            return key;
+        }
+        @Override
+        public @Nullable Json getValue() {
+            int index = locate();
+            return index >= 0 ? value = values[index] : value;
+        }
+        @Override
+        public @Nullable Json setValue(@Nullable Json value) {
+            int index = locate();
+
+            if (index < 0) {
+                throw new IllegalStateException("the member was removed from the object");
+            }
+
+            this.value = value;
+            return replace(index, value);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object object) {
+            if (!(object instanceof Entry)) return false;
+            @NotNull Entry<?, ?> entry = (Entry<?, ?>) object;
+            return key.equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return key + "=" + getValue();
+        }
+
+    }
+
+}
@@ -0,0 +1,738 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import com.danielmeinicke.lson.factory.JsonFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A single pass parser that reads UTF-8 encoded bytes and builds the {@link Json} tree
+ * directly from them, without decoding the input into a {@link String} first.
+ * <p>
+ * The parser works over a byte buffer: when reading from a {@code byte[]} the array itself
+ * is used as the buffer, and when reading from an {@link InputStream} or a
+ * {@link ReadableByteChannel} an internal buffer is filled as the parsing goes. The input
+ * streams and channels are never closed by the parser.
+ */
+final class JsonParser {
+
+    // Static initializers
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    // Object
+
+    private final @Nullable InputStream stream;
+    private final @Nullable ReadableByteChannel channel;
+
+    private byte @NotNull [] buffer;
+    private int position;
+    private int limit;
+
+    // The index of the first buffer byte relative to the beginning of the input
+    private long offset;
+
+    // Scratch used to decode strings
+    private char @NotNull [] chars = new char[128];
+
+    // The result of the last number scan
+    long integral;
+    boolean decimal;
+
+    // The canonical object keys
+    private final @NotNull JsonSymbolTable symbols = JsonFactory.getFactory().getSymbolTable();
+
+    public JsonParser(byte @NotNull [] bytes, int offset, int length) {
+        this(bytes, offset, length, 0);
+    }
+    /**
+     * Creates a parser over a region of a byte array that is part of a larger input, where
+     * the first region byte is at the given index. The errors are reported relative to the
+     * whole input.
+     */
+    JsonParser(byte @NotNull [] bytes, int offset, int length, long index) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " out of bounds for " + bytes.length + " bytes");
+        }
+
+        this.stream = null;
+        this.channel = null;
+
+        this.buffer = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+        this.offset = index - offset;
+    }
+    public JsonParser(@NotNull InputStream stream) {
+        this.stream = stream;
+        this.channel = null;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+    public JsonParser(@NotNull ReadableByteChannel channel) {
+        this.stream = null;
+        this.channel = channel;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    // Modules
+
+    /**
+     * Parses the whole input as a single json value. Only whitespaces are allowed after it.
+     *
+     * @return the parsed json, or {@code null} if the input is the json {@code null} literal
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the input
+     */
+    public @Nullable Json parse() throws IOException {
+        int b = skipWhitespaces();
+        if (b < 0) {
+            throw error("the input doesn't have any json value");
+        }
+
+        @Nullable Json json = readValue(b);
+
+        b = skipWhitespaces();
+        if (b >= 0) {
+            throw unexpected(b, "end of input");
+        }
+
+        return json;
+    }
+
+    // Values
+
+    @Nullable Json readValue(int b) throws IOException {
+        switch (b) {
+            case '{':
+                position++;
+                return readObject();
+            case '[':
+                position++;
+                return readArray();
+            case '"':
+                position++;
+                return new JsonStringImpl(readString());
+            case 't':
+                readLiteral("true");
+                return new JsonBooleanImpl(true);
+            case 'f':
+                readLiteral("false");
+                return new JsonBooleanImpl(false);
+            case 'n':
+                readLiteral("null");
+                return null;
+            default:
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    return readNumber();
+                }
+
+                throw unexpected(b, "a json value");
+        }
+    }
+
+    private @NotNull JsonObject readObject() throws IOException {
+        @NotNull JsonObjectImpl object = new JsonObjectImpl();
+
+        int b = skipWhitespaces();
+        if (b == '}') {
+            position++;
+            return object;
+        }
+
+        while (true) {
+            // Key
+            if (b != '"') {
+                throw unexpected(b, "an object key");
+            }
+
+            position++;
+            @NotNull String key = readKey();
+
+            b = skipWhitespaces();
+            if (b != ':') {
+                throw unexpected(b, "':'");
+            }
+            position++;
+
+            // Value
+            object.put(key, readValue(skipWhitespaces()));
+
+            // Separator
+            b = skipWhitespaces();
+            if (b == ',') {
+                position++;
+                b = skipWhitespaces();
+            } else if (b == '}') {
+                position++;
+                return object;
+            } else {
+                throw unexpected(b, "',' or '}'");
+            }
+        }
+    }
+    private @NotNull JsonArray readArray() throws IOException {
+        @NotNull JsonArrayImpl array = new JsonArrayImpl();
+
+        int b = skipWhitespaces();
+        if (b == ']') {
+            position++;
+            return array;
+        }
+
+        while (true) {
+            // The numbers and booleans are appended without creating them, so the arrays
+            // of a single kind are kept as primitives
+            if (b == '-' || (b >= '0' && b <= '9')) {
+                int start = scanNumber();
+
+                if (decimal) array.addDouble(readDouble(start));
+                else array.addLong(integral);
+            } else if (b == 't') {
+                readLiteral("true");
+                array.addBoolean(true);
+            } else if (b == 'f') {
+                readLiteral("false");
+                array.addBoolean(false);
+            } else {
+                array.add(readValue(b));
+            }
+
+            // Separator
+            b = skipWhitespaces();
+            if (b == ',') {
+                position++;
+                b = skipWhitespaces();
+            } else if (b == ']') {
+                position++;
+                return array;
+            } else {
+                throw unexpected(b, "',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Reads a string whose opening quote was already consumed, decoding the UTF-8 bytes and
+     * the escape sequences straight into the characters scratch.
+     */
+    @NotNull String readString() throws IOException {
+        char[] chars = this.chars;
+        int length = 0;
+
+        while (true) {
+            // Plain ASCII characters are copied at once
+            byte[] buffer = this.buffer;
+            int position = this.position;
+            int end = (int) Math.min(limit, (long) position + chars.length - length);
+
+            while (position < end) {
+                byte b = buffer[position];
+                if (b < 0x20 || b == '"' || b == '\\') break; // Non-ASCII bytes are negative
+
+                chars[length++] = (char) b;
+                position++;
+            }
+
+            this.position = position;
+
+            if (position == limit) {
+                if (!fill(position)) throw error("unterminated string");
+                continue;
+            } else if (position == end) {
+                chars = this.chars = Arrays.copyOf(chars, chars.length * 2);
+                continue;
+            }
+
+            // Special characters
+            if (chars.length - length < 2) {
+                chars = this.chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+
+            int b = buffer[position] & 0xFF;
+            this.position++;
+
+            if (b == '"') {
+                return new String(chars, 0, length);
+            } else if (b == '\\') {
+                chars[length++] = readEscape();
+            } else if (b < 0x20) {
+                this.position--;
+                throw error("unescaped control character 0x" + Integer.toHexString(b) + " inside a string");
+            } else if ((b & 0xE0) == 0xC0) {
+                int code = ((b & 0x1F) << 6) | readContinuation();
+                if (code < 0x80) throw error("overlong utf-8 sequence");
+
+                chars[length++] = (char) code;
+            } else if ((b & 0xF0) == 0xE0) {
+                int code = ((b & 0x0F) << 12) | (readContinuation() << 6) | readContinuation();
+                if (code < 0x800) throw error("overlong utf-8 sequence");
+                if (code >= 0xD800 && code <= 0xDFFF) throw error("utf-8 encoded surrogate");
+
+                chars[length++] = (char) code;
+            } else if ((b & 0xF8) == 0xF0) {
+                int code = ((b & 0x07) << 18) | (readContinuation() << 12) | (readContinuation() << 6) | readContinuation();
+                if (code < 0x10000 || code > 0x10FFFF) throw error("invalid utf-8 code point");
+
+                chars[length++] = Character.highSurrogate(code);
+                chars[length++] = Character.lowSurrogate(code);
+            } else {
+                this.position--;
+                throw error("invalid utf-8 byte 0x" + Integer.toHexString(b));
+            }
+        }
+    }
+    /**
+     * Reads an object key whose opening quote was already consumed. Keys that are entirely
+     * at the buffer and don't have escape sequences are looked up at the symbol table by
+     * their raw bytes, and only decoded when the table doesn't contain them yet.
+     */
+    @NotNull String readKey() throws IOException {
+        byte[] buffer = this.buffer;
+        int start = position;
+        int end = Math.min(limit, start + JsonSymbolTable.MAXIMUM_LENGTH + 1);
+        int hash = 0;
+
+        for (int index = start; index < end; index++) {
+            byte b = buffer[index];
+
+            if (b == '"') {
+                @Nullable String key = symbols.get(buffer, start, index, hash);
+
+                if (key != null) {
+                    position = index + 1;
+                } else {
+                    // The closing quote is at the buffer, so it isn't refilled while decoding
+                    key = readString();
+                    symbols.put(buffer, start, index, hash, key);
+                }
+
+                return key;
+            } else if (b == '\\' || (b >= 0 && b < 0x20)) {
+                break;
+            }
+
+            hash = JsonSymbolTable.hash(hash, b);
+        }
+
+        return readString();
+    }
+    private char readEscape() throws IOException {
+        int b = next();
+
+        switch (b) {
+            case '"':
+                return '"';
+            case '\\':
+                return '\\';
+            case '/':
+                return '/';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+
+                for (int row = 0; row < 4; row++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) throw error("invalid unicode escape sequence");
+
+                    code = (code << 4) | digit;
+                }
+
+                return (char) code;
+            case -1:
+                throw error("unterminated string");
+            default:
+                position--;
+                throw error("invalid escape sequence '\\" + (char) b + "'");
+        }
+    }
+    private int readContinuation() throws IOException {
+        int b = next();
+
+        if (b < 0) {
+            throw error("unterminated string");
+        } else if ((b & 0xC0) != 0x80) {
+            position--;
+            throw error("invalid utf-8 continuation byte 0x" + Integer.toHexString(b));
+        }
+
+        return b & 0x3F;
+    }
+
+    private @NotNull Json readNumber() throws IOException {
+        int start = scanNumber();
+
+        if (!decimal) {
+            return NumberClassifier.narrowest(integral);
+        }
+
+        return new JsonDoubleImpl(readDouble(start));
+    }
+
+    /**
+     * Consumes the json number at the current position, keeping all of its bytes at the
+     * buffer, between the returned index and the current position. If the number is an
+     * integer that fits a {@code long} its value is stored at {@link #integral}, otherwise
+     * the {@link #decimal} flag is set and the number must be read from its bytes.
+     *
+     * @return the buffer index of the first number byte
+     * @throws JsonParseException if the bytes doesn't follow the json number grammar
+     */
+    int scanNumber() throws IOException {
+        int start = position;
+
+        // Find the end of the number, keeping it whole at the buffer
+        while (true) {
+            if (position == limit) {
+                // The bytes before the start are discarded even if the input has ended
+                long offset = this.offset;
+                boolean filled = fill(start);
+
+                start -= (int) (this.offset - offset);
+                if (!filled) break;
+
+                continue;
+            }
+
+            byte b = buffer[position];
+            if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                position++;
+            } else {
+                break;
+            }
+        }
+
+        if (!classifyNumber(buffer, start, position)) {
+            @NotNull String digits = new String(buffer, start, Math.min(position - start, 32), StandardCharsets.ISO_8859_1);
+
+            position = start;
+            throw error("invalid number '" + digits + "'");
+        }
+
+        return start;
+    }
+    private boolean classifyNumber(byte @NotNull [] bytes, int start, int end) {
+        int index = start;
+        boolean negative = index < end && bytes[index] == '-';
+        if (negative) index++;
+
+        if (index == end) {
+            return false;
+        }
+
+        // Integer part, accumulated as a negative value to reach Long.MIN_VALUE
+        long value = 0;
+        boolean overflow = false;
+
+        if (bytes[index] == '0') {
+            index++;
+        } else if (bytes[index] >= '1' && bytes[index] <= '9') {
+            while (index < end && bytes[index] >= '0' && bytes[index] <= '9') {
+                int digit = bytes[index++] - '0';
+
+                if (value < (Long.MIN_VALUE + digit) / 10) {
+                    overflow = true;
+                } else {
+                    value = value * 10 - digit;
+                }
+            }
+        } else {
+            return false;
+        }
+
+        boolean decimal = overflow || (!negative && value == Long.MIN_VALUE);
+
+        // Fraction
+        if (index < end && bytes[index] == '.') {
+            decimal = true;
+            if (++index == end || bytes[index] < '0' || bytes[index] > '9') return false;
+
+            while (index < end && bytes[index] >= '0' && bytes[index] <= '9') index++;
+        }
+
+        // Exponent
+        if (index < end && (bytes[index] == 'e' || bytes[index] == 'E')) {
+            decimal = true;
+            if (++index < end && (bytes[index] == '-' || bytes[index] == '+')) index++;
+            if (index == end || bytes[index] < '0' || bytes[index] > '9') return false;
+
+            while (index < end && bytes[index] >= '0' && bytes[index] <= '9') index++;
+        }
+
+        // Finish
+        this.integral = negative ? value : -value;
+        this.decimal = decimal;
+
+        return index == end;
+    }
+
+    /**
+     * Reads the number scanned by {@link #scanNumber()} as a double.
+     */
+    double readDouble(int start) {
+        return FastDoubleParser.parseDouble(buffer, start, position);
+    }
+    /**
+     * Retrieves the textual representation of the number scanned by {@link #scanNumber()}.
+     */
+    @NotNull String readNumberText(int start) {
+        return new String(buffer, start, position - start, StandardCharsets.ISO_8859_1);
+    }
+
+    void readLiteral(@NotNull String literal) throws IOException {
+        int length = literal.length();
+
+        while (limit - position < length) {
+            if (!fill(position)) break;
+        }
+
+        for (int row = 0; row < length; row++) {
+            if (position + row >= limit || buffer[position + row] != literal.charAt(row)) {
+                throw error("invalid literal, expected '" + literal + "'");
+            }
+        }
+
+        position += length;
+    }
+
+    // Position
+
+    /**
+     * Retrieves the buffer index of the next byte to be read.
+     */
+    int getPosition() {
+        return position;
+    }
+    /**
+     * Moves the parser to another buffer index. Only meaningful for parsers created over a
+     * byte array, where the buffer is the array itself.
+     */
+    void seek(int position) {
+        this.position = position;
+    }
+
+    // Skipping
+
+    /**
+     * Consumes the byte at the current position, usually one already peeked by
+     * {@link #skipWhitespaces()}.
+     */
+    void consume() {
+        position++;
+    }
+
+    /**
+     * Skips the json value starting with the given byte without materializing it. The
+     * strings and containers are only scanned for their boundaries, so their content
+     * isn't validated.
+     *
+     * @param b the first byte of the value, as returned by {@link #skipWhitespaces()}
+     */
+    void skipValue(int b) throws IOException {
+        switch (b) {
+            case '{':
+            case '[':
+                position++;
+                skipContainer();
+                break;
+            case '"':
+                position++;
+                skipString();
+                break;
+            case 't':
+                readLiteral("true");
+                break;
+            case 'f':
+                readLiteral("false");
+                break;
+            case 'n':
+                readLiteral("null");
+                break;
+            default:
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    scanNumber();
+                    break;
+                }
+
+                throw unexpected(b, "a json value");
+        }
+    }
+
+    /**
+     * Skips a string whose opening quote was already consumed, without decoding it.
+     */
+    void skipString() throws IOException {
+        boolean escaped = false;
+
+        while (true) {
+            byte[] buffer = this.buffer;
+            int limit = this.limit;
+
+            for (int position = this.position; position < limit; position++) {
+                byte b = buffer[position];
+
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '"') {
+                    this.position = position + 1;
+                    return;
+                } else if (b == '\\') {
+                    escaped = true;
+                }
+            }
+
+            this.position = limit;
+            if (!fill(limit)) throw error("unterminated string");
+        }
+    }
+
+    /**
+     * Skips an object or array whose opening bracket was already consumed, counting the
+     * brackets until the matching one closes it.
+     */
+    void skipContainer() throws IOException {
+        int depth = 1;
+
+        while (true) {
+            byte[] buffer = this.buffer;
+            int limit = this.limit;
+
+            for (int position = this.position; position < limit; position++) {
+                byte b = buffer[position];
+
+                if (b == '"') {
+                    this.position = position + 1;
+                    skipString();
+
+                    // The buffer may have been refilled
+                    buffer = this.buffer;
+                    limit = this.limit;
+                    position = this.position - 1;
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    this.position = position + 1;
+                    return;
+                }
+            }
+
+            this.position = limit;
+            if (!fill(limit)) throw error("unterminated json " + (depth > 1 ? "containers" : "container"));
+        }
+    }
+
+    // Buffer
+
+    /**
+     * Skips all the json whitespaces and returns the next byte without consuming it.
+     *
+     * @return the next non whitespace byte, or -1 if the input has ended
+     */
+    int skipWhitespaces() throws IOException {
+        while (true) {
+            byte[] buffer = this.buffer;
+            int limit = this.limit;
+
+            for (int position = this.position; position < limit; position++) {
+                byte b = buffer[position];
+
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    this.position = position;
+                    return b & 0xFF;
+                }
+            }
+
+            this.position = limit;
+            if (!fill(limit)) return -1;
+        }
+    }
+
+    /**
+     * Consumes and returns the next byte of the input.
+     *
+     * @return the next byte, or -1 if the input has ended
+     */
+    int next() throws IOException {
+        if (position == limit && !fill(position)) {
+            return -1;
+        }
+
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Reads more bytes from the source into the buffer. All the bytes before the {@code keep}
+     * index are discarded, and the others are moved to the beginning of the buffer, so the
+     * callers must rebase any buffer index they hold by the {@code keep} value.
+     *
+     * @param keep the index of the first buffer byte that should be kept
+     * @return {@code true} if some bytes were read, {@code false} if the input has ended
+     */
+    private boolean fill(int keep) throws IOException {
+        if (stream == null && channel == null) {
+            return false;
+        }
+
+        // Discard the consumed bytes, or grow the buffer if every byte must be kept
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+
+            offset += keep;
+            position -= keep;
+            limit -= keep;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        // Read
+        int read;
+
+        if (stream != null) {
+            read = stream.read(buffer, limit, buffer.length - limit);
+        } else {
+            @NotNull ByteBuffer target = ByteBuffer.wrap(buffer, limit, buffer.length - limit);
+            do {
+                read = channel.read(target);
+            } while (read == 0);
+        }
+
+        if (read <= 0) {
+            return false;
+        }
+
+        limit += read;
+        return true;
+    }
+
+    // Errors
+
+    @NotNull JsonParseException error(@NotNull String message) {
+        long index = offset + position;
+        return new JsonParseException(index, message + " at index " + index);
+    }
+    @NotNull JsonParseException unexpected(int b, @NotNull String expected) {
+        if (b < 0) {
+            return error("unexpected end of input, expected " + expected);
+        } else if (b < 0x20 || b >= 0x7F) {
+            return error("unexpected byte 0x" + Integer.toHexString(b) + ", expected " + expected);
+        } else {
+            return error("unexpected character '" + (char) b + "', expected " + expected);
+        }
+    }
+
+}
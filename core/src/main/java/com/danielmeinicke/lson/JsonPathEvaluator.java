@@ -0,0 +1,118 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Evaluates json paths directly against an input, while it's scanned, without building the
+ * document tree.
+ * <p>
+ * Only the selected values, and the values a filter is validated against, are materialized;
+ * everything else is skipped at scan speed. The memory usage is bounded by the document depth
+ * and the size of those values, so documents of any size can be evaluated, and the values are
+ * delivered in the document order as soon as each one is read.
+ * <p>
+ * The paths may have names, indexes, wildcards, slices, deep scans and filters on the current
+ * element, like {@code $.events[?(@.level == 'ERROR')]}. Negative indexes and slice bounds
+ * depend on the array length, which isn't known while scanning, so they aren't supported.
+ * <p>
+ * Parsing errors are thrown as {@link JsonParseException}, possibly after some values were
+ * already delivered.
+ */
+public final class JsonPathEvaluator {
+
+    // Static initializers
+
+    /**
+     * Creates a sequential stream of the values that the path selects at the UTF-8 encoded
+     * bytes of the input stream. The input is read as the stream is consumed, and it isn't
+     * closed by this method nor by the returned stream.
+     *
+     * @param stream the stream to read the json from
+     * @param path the path to evaluate
+     * @return an ordered stream of the selected values, where the json {@code null} literals
+     *         are {@code null} elements
+     * @throws UnsupportedOperationException if the path has selectors that can't be evaluated
+     *         while scanning
+     */
+    public static @NotNull Stream<@Nullable Json> stream(@NotNull InputStream stream, @NotNull JsonPath path) {
+        return StreamSupport.stream(new JsonPathSpliterator(new JsonParser(stream), path), false);
+    }
+    /**
+     * Creates a sequential stream of the values that the path selects at the UTF-8 encoded
+     * bytes, as described at {@link #stream(InputStream, JsonPath)}.
+     *
+     * @param bytes the UTF-8 encoded json
+     * @param path the path to evaluate
+     * @return an ordered stream of the selected values
+     * @throws UnsupportedOperationException if the path has selectors that can't be evaluated
+     *         while scanning
+     */
+    public static @NotNull Stream<@Nullable Json> stream(byte @NotNull [] bytes, @NotNull JsonPath path) {
+        return StreamSupport.stream(new JsonPathSpliterator(new JsonParser(bytes, 0, bytes.length), path), false);
+    }
+
+    /**
+     * Evaluates the path at the UTF-8 encoded bytes of the input stream, delivering each
+     * selected value to the consumer as soon as it's read. The stream isn't closed by this
+     * method.
+     *
+     * @param stream the stream to read the json from
+     * @param path the path to evaluate
+     * @param consumer the consumer of the selected values
+     * @throws JsonParseException if the stream content isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the stream
+     * @throws UnsupportedOperationException if the path has selectors that can't be evaluated
+     *         while scanning
+     */
+    public static void evaluate(@NotNull InputStream stream, @NotNull JsonPath path, @NotNull Consumer<? super @Nullable Json> consumer) throws IOException {
+        evaluate(new JsonParser(stream), path, consumer);
+    }
+    /**
+     * Evaluates the path at a json file, delivering each selected value to the consumer as
+     * soon as it's read. The file is read into the parser buffer as the evaluation goes, so
+     * neither the file nor its tree is ever entirely in the heap.
+     *
+     * @param file the path of the UTF-8 encoded json file
+     * @param path the path to evaluate
+     * @param consumer the consumer of the selected values
+     * @throws JsonParseException if the file content isn't a valid json
+     * @throws IOException if an I/O error occurs while opening or reading the file
+     * @throws UnsupportedOperationException if the path has selectors that can't be evaluated
+     *         while scanning
+     */
+    public static void evaluate(@NotNull Path file, @NotNull JsonPath path, @NotNull Consumer<? super @Nullable Json> consumer) throws IOException {
+        try (@NotNull FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            evaluate(new JsonParser(channel), path, consumer);
+        }
+    }
+
+    // Utilities
+
+    private static void evaluate(@NotNull JsonParser parser, @NotNull JsonPath path, @NotNull Consumer<? super @Nullable Json> consumer) throws IOException {
+        try {
+            new JsonPathSpliterator(parser, path).forEachRemaining(consumer);
+        } catch (@NotNull UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Object
+
+    private JsonPathEvaluator() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
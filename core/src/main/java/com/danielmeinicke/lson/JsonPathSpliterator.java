@@ -0,0 +1,204 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the values that a json path selects at an input, evaluated while the
+ * input is scanned instead of against a parsed tree.
+ * <p>
+ * The containers that only lead to selections are scanned member by member, keeping just the
+ * set of the {@link PathAutomaton} steps of each open container, and the values that can't lead
+ * to any selection are skipped. Only the selected values, and the values a filter must be
+ * validated against, are materialized, and they're released once delivered. The memory usage
+ * is then bounded by the document depth and the size of those values, not by the document
+ * size.
+ * <p>
+ * The values are delivered in the document order, each one as soon as the input is read until
+ * its end.
+ */
+final class JsonPathSpliterator implements Spliterator<@Nullable Json> {
+
+    // Object
+
+    private final @NotNull JsonParser parser;
+    private final @NotNull PathAutomaton automaton;
+
+    // The open containers, from the root to the innermost one
+    private int @NotNull [] @NotNull [] states = new int[16][];
+    private boolean @NotNull [] objects = new boolean[16];
+    private int @NotNull [] members = new int[16];
+    private int depth = -1;
+
+    private boolean started;
+    private boolean ended;
+
+    // The selected values not delivered yet
+    private final @NotNull List<@Nullable Json> matches = new ArrayList<>();
+    private int delivered;
+
+    JsonPathSpliterator(@NotNull JsonParser parser, @NotNull JsonPath path) {
+        this.parser = parser;
+        this.automaton = PathAutomaton.compile(true, path);
+    }
+
+    // Spliterator
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super @Nullable Json> action) {
+        try {
+            if (delivered == matches.size()) {
+                matches.clear();
+                delivered = 0;
+
+                if (!scan()) return false;
+            }
+
+            @Nullable Json json = matches.get(delivered);
+            matches.set(delivered++, null);
+
+            action.accept(json);
+            return true;
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public @Nullable Spliterator<@Nullable Json> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    // Scanning
+
+    /**
+     * Scans the input until some values are selected or it ends.
+     *
+     * @return {@code true} if some values were selected, {@code false} if the input has ended
+     */
+    private boolean scan() throws IOException {
+        while (matches.isEmpty()) {
+            if (ended) {
+                return false;
+            } else if (depth >= 0) {
+                member();
+            } else if (!started) {
+                started = true;
+
+                int b = parser.skipWhitespaces();
+                if (b < 0) throw parser.error("the input doesn't have any json value");
+
+                value(b, automaton.getInitial());
+            } else {
+                // Only whitespaces are allowed after the root
+                int b = parser.skipWhitespaces();
+                if (b >= 0) throw parser.unexpected(b, "end of input");
+
+                ended = true;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the next member of the innermost open container, or closes it.
+     */
+    private void member() throws IOException {
+        boolean object = objects[depth];
+        int close = object ? '}' : ']';
+
+        int b = parser.skipWhitespaces();
+
+        // Separator
+        if (b == close) {
+            parser.consume();
+            depth--;
+
+            return;
+        } else if (members[depth] > 0) {
+            if (b != ',') throw parser.unexpected(b, object ? "',' or '}'" : "',' or ']'");
+
+            parser.consume();
+            b = parser.skipWhitespaces();
+        }
+
+        // Member
+        int[] children;
+
+        if (object) {
+            if (b != '"') {
+                throw parser.unexpected(b, "an object key");
+            }
+
+            parser.consume();
+            @NotNull String key = parser.readKey();
+
+            b = parser.skipWhitespaces();
+            if (b != ':') {
+                throw parser.unexpected(b, "':'");
+            }
+
+            parser.consume();
+            b = parser.skipWhitespaces();
+
+            children = automaton.key(states[depth], key);
+        } else {
+            children = automaton.index(states[depth], members[depth]);
+        }
+
+        members[depth]++;
+
+        if (children == PathAutomaton.NONE) {
+            parser.skipValue(b);
+        } else {
+            value(b, children);
+        }
+    }
+
+    /**
+     * Reads a value described by the given set: it's materialized if it must be evaluated,
+     * opened if it's a container that may lead to selections, and skipped otherwise.
+     */
+    private void value(int b, int @NotNull [] states) throws IOException {
+        if (automaton.isMaterialized(states)) {
+            automaton.select(parser.readValue(b), states, matches);
+        } else if (b == '{' || b == '[') {
+            parser.consume();
+            open(states, b == '{');
+        } else {
+            parser.skipValue(b);
+        }
+    }
+
+    private void open(int @NotNull [] states, boolean object) {
+        if (++depth == this.states.length) {
+            this.states = Arrays.copyOf(this.states, depth * 2);
+            this.objects = Arrays.copyOf(this.objects, depth * 2);
+            this.members = Arrays.copyOf(this.members, depth * 2);
+        }
+
+        this.states[depth] = states;
+        this.objects[depth] = object;
+        this.members[depth] = 0;
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Parses a json building only the parts of the tree that some json paths can reach.
+ * <p>
+ * The paths are compiled into a {@link PathAutomaton}, which is advanced by every key and
+ * index while the input is read. The values selected by a path are fully materialized, the
+ * containers on the way to them are built with only the children that lead to a selection,
+ * and every other value is skipped by the {@link JsonParser} at scan speed, without
+ * decoding its strings or numbers.
+ * <p>
+ * Containers without any selection inside aren't kept, except the root. The arrays keep the
+ * indexes of their elements: the skipped elements before a kept one are replaced by
+ * {@code null}, and the skipped elements after the last kept one are dropped.
+ * Evaluating the same paths against the projection gives the same results as evaluating them
+ * against the whole document.
+ */
+final class JsonProjection {
+
+    // Static initializers
+
+    /**
+     * Parses the whole input, keeping only the values reachable by the paths. Only
+     * whitespaces are allowed after the root.
+     *
+     * @return the projected json, or {@code null} if the root is the json {@code null}
+     *         literal or a value that isn't reachable by any path
+     * @throws JsonParseException if the input isn't a valid json
+     */
+    static @Nullable Json parse(@NotNull JsonParser parser, @NotNull JsonPath @NotNull ... paths) throws IOException {
+        int b = parser.skipWhitespaces();
+        if (b < 0) {
+            throw parser.error("the input doesn't have any json value");
+        }
+
+        @Nullable Json json = new JsonProjection(parser, PathAutomaton.compile(false, paths)).readValue(b, null);
+
+        b = parser.skipWhitespaces();
+        if (b >= 0) {
+            throw parser.unexpected(b, "end of input");
+        }
+
+        return json;
+    }
+
+    // Object
+
+    private final @NotNull JsonParser parser;
+    private final @NotNull PathAutomaton automaton;
+
+    private JsonProjection(@NotNull JsonParser parser, @NotNull PathAutomaton automaton) {
+        this.parser = parser;
+        this.automaton = automaton;
+    }
+
+    /**
+     * Reads a value described by the given set, or by the initial set if it's the root.
+     */
+    private @Nullable Json readValue(int b, int @Nullable [] states) throws IOException {
+        if (states == null) {
+            states = automaton.getInitial();
+        }
+
+        if (automaton.isAccepting(states)) {
+            return parser.readValue(b);
+        } else if (b == '{') {
+            parser.consume();
+            return readObject(states);
+        } else if (b == '[') {
+            parser.consume();
+            return readArray(states);
+        }
+
+        // Scalars can't have a selected child
+        parser.skipValue(b);
+        return null;
+    }
+
+    private @NotNull JsonObject readObject(int @NotNull [] states) throws IOException {
+        @NotNull JsonObjectImpl object = new JsonObjectImpl();
+
+        int b = parser.skipWhitespaces();
+        if (b == '}') {
+            parser.consume();
+            return object;
+        }
+
+        while (true) {
+            // Key
+            if (b != '"') {
+                throw parser.unexpected(b, "an object key");
+            }
+
+            parser.consume();
+            @NotNull String key = parser.readKey();
+
+            b = parser.skipWhitespaces();
+            if (b != ':') {
+                throw parser.unexpected(b, "':'");
+            }
+            parser.consume();
+
+            // Value
+            b = parser.skipWhitespaces();
+            int[] children = automaton.key(states, key);
+
+            if (children == PathAutomaton.NONE) {
+                parser.skipValue(b);
+            } else {
+                @Nullable Json value = readValue(b, children);
+                if (isKept(value, children)) object.put(key, value);
+            }
+
+            // Separator
+            b = parser.skipWhitespaces();
+            if (b == ',') {
+                parser.consume();
+                b = parser.skipWhitespaces();
+            } else if (b == '}') {
+                parser.consume();
+                return object;
+            } else {
+                throw parser.unexpected(b, "',' or '}'");
+            }
+        }
+    }
+    private @NotNull JsonArray readArray(int @NotNull [] states) throws IOException {
+        @NotNull JsonArray array = JsonArray.create();
+
+        int b = parser.skipWhitespaces();
+        if (b == ']') {
+            parser.consume();
+            return array;
+        }
+
+        // The skipped elements not yet replaced by nulls
+        int skipped = 0;
+
+        for (int index = 0; ; index++) {
+            int[] children = automaton.index(states, index);
+            @Nullable Json value = null;
+
+            if (children == PathAutomaton.NONE) {
+                parser.skipValue(b);
+            } else {
+                value = readValue(b, children);
+            }
+
+            if (children != PathAutomaton.NONE && isKept(value, children)) {
+                for (; skipped > 0; skipped--) array.add(null);
+                array.add(value);
+            } else {
+                skipped++;
+            }
+
+            // Separator
+            b = parser.skipWhitespaces();
+            if (b == ',') {
+                parser.consume();
+                b = parser.skipWhitespaces();
+            } else if (b == ']') {
+                parser.consume();
+                return array;
+            } else {
+                throw parser.unexpected(b, "',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Verifies if a value should be kept at its parent: either it's selected by a path, or
+     * it's a container with some selected value inside.
+     */
+    private boolean isKept(@Nullable Json value, int @NotNull [] states) {
+        if (automaton.isAccepting(states)) {
+            return true;
+        } else if (value instanceof JsonObject) {
+            return !((JsonObject) value).isEmpty();
+        } else if (value instanceof JsonArray) {
+            return !((JsonArray) value).isEmpty();
+        }
+
+        return false;
+    }
+
+}
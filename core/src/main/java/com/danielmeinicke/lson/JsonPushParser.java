@@ -0,0 +1,426 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A non-blocking parser that is pushed the UTF-8 encoded input in chunks of any size, as they
+ * arrive, instead of pulling it from a source. Every json value at the root of the input is
+ * handed to the consumer as soon as its last byte is fed, so the input may contain several
+ * values separated by whitespaces.
+ * <p>
+ * A chunk may end anywhere, even in the middle of a string, a number, an escape sequence or
+ * a multibyte character: the parser keeps its state and resumes when the next chunk is fed.
+ * Only the bytes of the token that is currently incomplete are kept between chunks, the
+ * objects and arrays are built as their children complete.
+ *
+ * <pre>{@code
+ * JsonPushParser parser = new JsonPushParser(json -> handle(json));
+ * // At each network read
+ * parser.feed(buffer);
+ * // When the connection finishes
+ * parser.endOfInput();
+ * }</pre>
+ * <p>
+ * The parser isn't thread safe, the chunks must be fed one at a time. Once it throws a
+ * {@link JsonParseException} it can't be fed anymore.
+ */
+public final class JsonPushParser {
+
+    // Static initializers
+
+    private static final int VALUE = 0;
+    private static final int FIRST_ELEMENT = 1;
+    private static final int FIRST_KEY = 2;
+    private static final int KEY = 3;
+    private static final int COLON = 4;
+    private static final int AFTER_VALUE = 5;
+    private static final int FAILED = 6;
+    private static final int ENDED = 7;
+
+    private static final int NONE = 0;
+    private static final int STRING = 1;
+    private static final int NAME = 2;
+    private static final int SCALAR = 3;
+
+    // Object
+
+    private final @NotNull Consumer<@Nullable Json> consumer;
+
+    private int state = VALUE;
+    private long index;
+
+    // Whether no value was handed to the consumer yet
+    private boolean empty = true;
+
+    // The open containers, and the pending key of each object
+    private @Nullable Json @NotNull [] containers = new Json[32];
+    private @Nullable String @NotNull [] names = new String[32];
+    private int depth;
+
+    // The bytes of the incomplete token
+    private int token = NONE;
+    private long start;
+    private byte @NotNull [] pending = new byte[64];
+    private int size;
+    private boolean escaped;
+
+    // Scratch used to copy direct buffers
+    private byte @Nullable [] scratch;
+
+    /**
+     * Creates a push parser.
+     *
+     * @param consumer the consumer that receives each json value at the root of the input,
+     *                 which is {@code null} for the json {@code null} literal
+     */
+    public JsonPushParser(@NotNull Consumer<@Nullable Json> consumer) {
+        this.consumer = consumer;
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the amount of bytes fed to this parser so far.
+     *
+     * @return the amount of bytes fed
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    // Modules
+
+    /**
+     * Feeds all the remaining bytes of the buffer to the parser, which handles every value
+     * they complete to the consumer. The buffer position is moved to its limit.
+     *
+     * @param buffer the next chunk of the input
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IllegalStateException if the input has already ended, or the parser has failed
+     */
+    public void feed(@NotNull ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            parse(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+
+            buffer.position(buffer.limit());
+            return;
+        }
+
+        // Direct buffers are copied in slices
+        if (scratch == null) {
+            scratch = new byte[8 * 1024];
+        }
+
+        while (buffer.hasRemaining()) {
+            int length = Math.min(buffer.remaining(), scratch.length);
+
+            buffer.get(scratch, 0, length);
+            parse(scratch, 0, length);
+        }
+    }
+    /**
+     * Feeds a region of a byte array to the parser, as described at {@link #feed(ByteBuffer)}.
+     *
+     * @param bytes the array containing the next chunk of the input
+     * @param offset the index of the first chunk byte at the array
+     * @param length the amount of chunk bytes
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IllegalStateException if the input has already ended, or the parser has failed
+     * @throws IndexOutOfBoundsException if the region exceeds the array bounds
+     */
+    public void feed(byte @NotNull [] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " and length " + length + " out of bounds for " + bytes.length + " bytes");
+        }
+
+        parse(bytes, offset, offset + length);
+    }
+
+    /**
+     * Signals that the whole input was fed. A number or literal at the end of the input is
+     * only completed here, since any following byte could still be part of it.
+     *
+     * @throws JsonParseException if the input ends in the middle of a json value, or doesn't
+     *         contain any
+     * @throws IllegalStateException if the input has already ended, or the parser has failed
+     */
+    public void endOfInput() {
+        verify();
+
+        try {
+            if (token == SCALAR) {
+                complete();
+            } else if (token != NONE) {
+                throw error(index, "unterminated string");
+            } else if (depth > 0) {
+                throw error(index, "unterminated json " + (depth > 1 ? "containers" : "container"));
+            }
+
+            if (empty) {
+                throw error(index, "unexpected end of input, expected a json value");
+            }
+
+            state = ENDED;
+        } catch (@NotNull JsonParseException e) {
+            state = FAILED;
+            throw e;
+        }
+    }
+
+    // Parsing
+
+    private void parse(byte @NotNull [] bytes, int from, int to) {
+        verify();
+
+        // The index of the array byte zero relative to the beginning of the input
+        long base = index - from;
+
+        try {
+            int position = from;
+
+            while (position < to) {
+                if (token != NONE) {
+                    position = resume(bytes, position, to);
+                    continue;
+                }
+
+                byte b = bytes[position];
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    read(b, base + position);
+                }
+
+                position++;
+            }
+        } catch (@NotNull JsonParseException e) {
+            state = FAILED;
+            throw e;
+        } finally {
+            index += to - from;
+        }
+    }
+
+    /**
+     * Reads a byte that is outside any token.
+     */
+    private void read(byte b, long index) {
+        switch (state) {
+            case FIRST_ELEMENT:
+                if (b == ']') close();
+                else value(b, index);
+
+                return;
+            case VALUE:
+                value(b, index);
+                return;
+            case FIRST_KEY:
+                if (b == '}') close();
+                else key(b, index);
+
+                return;
+            case KEY:
+                key(b, index);
+                return;
+            case COLON:
+                if (b != ':') throw unexpected(b, index, "':'");
+
+                state = VALUE;
+                return;
+            default:
+                boolean object = containers[depth - 1] instanceof JsonObject;
+
+                if (b == ',') {
+                    state = object ? KEY : VALUE;
+                } else if (b == (object ? '}' : ']')) {
+                    close();
+                } else {
+                    throw unexpected(b, index, object ? "',' or '}'" : "',' or ']'");
+                }
+        }
+    }
+
+    private void value(byte b, long index) {
+        if (b == '{') {
+            open(new JsonObjectImpl());
+            state = FIRST_KEY;
+        } else if (b == '[') {
+            open(JsonArray.create());
+            state = FIRST_ELEMENT;
+        } else if (b == '"') {
+            begin(STRING, b, index);
+        } else if (b == '-' || (b >= '0' && b <= '9') || b == 't' || b == 'f' || b == 'n') {
+            begin(SCALAR, b, index);
+        } else {
+            throw unexpected(b, index, "a json value");
+        }
+    }
+    private void key(byte b, long index) {
+        if (b != '"') throw unexpected(b, index, "an object key");
+        begin(NAME, b, index);
+    }
+
+    /**
+     * Continues the incomplete token with the bytes starting at the given position.
+     *
+     * @return the position of the first byte that isn't part of the token
+     */
+    private int resume(byte @NotNull [] bytes, int position, int to) {
+        int end = position;
+
+        if (token == SCALAR) {
+            while (end < to) {
+                byte b = bytes[end];
+                if ((b < 'a' || b > 'z') && (b < 'A' || b > 'Z') && (b < '0' || b > '9') && b != '-' && b != '+' && b != '.') break;
+
+                end++;
+            }
+
+            append(bytes, position, end);
+            if (end < to) complete();
+
+            return end;
+        }
+
+        // Strings end at the first unescaped quote
+        boolean escaped = this.escaped;
+
+        for (; end < to; end++) {
+            byte b = bytes[end];
+
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                append(bytes, position, end + 1);
+                complete();
+
+                return end + 1;
+            }
+        }
+
+        this.escaped = escaped;
+        append(bytes, position, end);
+
+        return end;
+    }
+
+    private void begin(int token, byte b, long index) {
+        this.token = token;
+        this.start = index;
+        this.size = 0;
+        this.escaped = false;
+
+        pending[size++] = b;
+    }
+    private void append(byte @NotNull [] bytes, int from, int to) {
+        int length = to - from;
+
+        if (size + length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, size + length));
+        }
+
+        System.arraycopy(bytes, from, pending, size, length);
+        size += length;
+    }
+
+    /**
+     * Parses the bytes of the completed token, which are validated exactly as a whole input
+     * would be.
+     */
+    private void complete() {
+        @Nullable Json json;
+
+        try {
+            json = new JsonParser(pending, 0, size, start).parse();
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int token = this.token;
+        this.token = NONE;
+
+        // Release the scratch of a large token
+        if (pending.length > 1024) {
+            pending = new byte[64];
+        }
+
+        if (token == NAME) {
+            //noinspection DataFlowIssue
+            names[depth - 1] = json.getAsString();
+            state = COLON;
+        } else {
+            value(json);
+        }
+    }
+
+    // Containers
+
+    private void open(@NotNull Json container) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+            names = Arrays.copyOf(names, depth * 2);
+        }
+
+        containers[depth++] = container;
+    }
+    private void close() {
+        @Nullable Json container = containers[--depth];
+
+        containers[depth] = null;
+        names[depth] = null;
+
+        value(container);
+    }
+
+    private void value(@Nullable Json json) {
+        if (depth == 0) {
+            state = VALUE;
+            empty = false;
+            consumer.accept(json);
+            return;
+        }
+
+        @Nullable Json container = containers[depth - 1];
+
+        if (container instanceof JsonObject) {
+            //noinspection DataFlowIssue
+            ((JsonObject) container).put(names[depth - 1], json);
+            names[depth - 1] = null;
+        } else {
+            ((JsonArray) container).add(json);
+        }
+
+        state = AFTER_VALUE;
+    }
+
+    // Errors
+
+    private void verify() {
+        if (state == FAILED) {
+            throw new IllegalStateException("the parser has already failed");
+        } else if (state == ENDED) {
+            throw new IllegalStateException("the input has already ended");
+        }
+    }
+
+    private static @NotNull JsonParseException error(long index, @NotNull String message) {
+        return new JsonParseException(index, message + " at index " + index);
+    }
+    private static @NotNull JsonParseException unexpected(byte b, long index, @NotNull String expected) {
+        if (b < 0x20) {
+            return error(index, "unexpected byte 0x" + Integer.toHexString(b & 0xFF) + ", expected " + expected);
+        } else {
+            return error(index, "unexpected character '" + (char) b + "', expected " + expected);
+        }
+    }
+
+}
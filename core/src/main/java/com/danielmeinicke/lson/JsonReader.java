@@ -0,0 +1,393 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonNumberException;
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A cursor that reads a json input token by token, straight from its UTF-8 encoded bytes.
+ * <p>
+ * Unlike {@link Json#parse(byte[])}, the reader doesn't build any {@link Json} instance unless
+ * {@link #nextValue()} is called: numbers, booleans and strings are read directly from the
+ * input buffer into primitives, and {@link #skipValue()} jumps over whole values scanning only
+ * for their boundaries. This makes the reader a good fit to read a few fields out of large
+ * documents.
+ * <p>
+ * The input may contain several json values separated by whitespaces, which are read one
+ * after the other until {@link JsonToken#END_DOCUMENT} is reached.
+ *
+ * <pre>{@code
+ * try (JsonReader reader = new JsonReader(bytes)) {
+ *     reader.beginObject();
+ *     while (reader.nextToken() == JsonToken.NAME) {
+ *         if (reader.nextName().equals("id")) {
+ *             id = reader.nextLong();
+ *         } else {
+ *             reader.skipValue();
+ *         }
+ *     }
+ * }
+ * }</pre>
+ */
+public final class JsonReader implements Closeable {
+
+    // Static initializers
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    // Object
+
+    private final @NotNull JsonParser parser;
+    private final @Nullable Closeable source;
+
+    private int @NotNull [] scopes = new int[32];
+    private int depth = 1;
+
+    private @Nullable JsonToken peeked;
+
+    public JsonReader(byte @NotNull [] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+    public JsonReader(byte @NotNull [] bytes, int offset, int length) {
+        this.parser = new JsonParser(bytes, offset, length);
+        this.source = null;
+    }
+    public JsonReader(@NotNull InputStream stream) {
+        this.parser = new JsonParser(stream);
+        this.source = stream;
+    }
+    public JsonReader(@NotNull ReadableByteChannel channel) {
+        this.parser = new JsonParser(channel);
+        this.source = channel;
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the amount of objects and arrays that are currently open.
+     *
+     * @return the current nesting depth, zero at the root level
+     */
+    public int getDepth() {
+        return depth - 1;
+    }
+
+    // Tokens
+
+    /**
+     * Retrieves the type of the next token without consuming it.
+     *
+     * @return the type of the next token
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the input
+     */
+    public @NotNull JsonToken peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int scope = scopes[depth - 1];
+        int b;
+
+        if (scope == EMPTY_ARRAY || scope == NONEMPTY_ARRAY) {
+            scopes[depth - 1] = NONEMPTY_ARRAY;
+            b = parser.skipWhitespaces();
+
+            if (b == ']') {
+                return peeked = JsonToken.END_ARRAY;
+            } else if (scope == NONEMPTY_ARRAY) {
+                if (b != ',') throw parser.unexpected(b, "',' or ']'");
+
+                parser.consume();
+                b = parser.skipWhitespaces();
+            }
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            b = parser.skipWhitespaces();
+
+            if (b == '}') {
+                return peeked = JsonToken.END_OBJECT;
+            } else if (scope == NONEMPTY_OBJECT) {
+                if (b != ',') throw parser.unexpected(b, "',' or '}'");
+
+                parser.consume();
+                b = parser.skipWhitespaces();
+            }
+
+            if (b != '"') {
+                throw parser.unexpected(b, "an object key");
+            }
+
+            scopes[depth - 1] = DANGLING_NAME;
+            return peeked = JsonToken.NAME;
+        } else if (scope == DANGLING_NAME) {
+            b = parser.skipWhitespaces();
+            if (b != ':') throw parser.unexpected(b, "':'");
+
+            parser.consume();
+            scopes[depth - 1] = NONEMPTY_OBJECT;
+            b = parser.skipWhitespaces();
+        } else {
+            scopes[depth - 1] = NONEMPTY_DOCUMENT;
+            b = parser.skipWhitespaces();
+
+            if (b < 0) {
+                if (scope == EMPTY_DOCUMENT) throw parser.error("the input doesn't have any json value");
+                return peeked = JsonToken.END_DOCUMENT;
+            }
+        }
+
+        // Value
+        switch (b) {
+            case '{':
+                return peeked = JsonToken.BEGIN_OBJECT;
+            case '[':
+                return peeked = JsonToken.BEGIN_ARRAY;
+            case '"':
+                return peeked = JsonToken.STRING;
+            case 't':
+            case 'f':
+                return peeked = JsonToken.BOOLEAN;
+            case 'n':
+                return peeked = JsonToken.NULL;
+            default:
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    return peeked = JsonToken.NUMBER;
+                }
+
+                throw parser.unexpected(b, "a json value");
+        }
+    }
+
+    /**
+     * Retrieves the type of the next token, consuming it if it's the beginning or the end of
+     * an object or array. Names and values aren't consumed, they must be read by the
+     * respective {@code next} method or skipped with {@link #skipValue()}.
+     *
+     * @return the type of the next token
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the input
+     */
+    public @NotNull JsonToken nextToken() throws IOException {
+        @NotNull JsonToken token = peek();
+
+        switch (token) {
+            case BEGIN_OBJECT:
+                push(EMPTY_OBJECT);
+                break;
+            case BEGIN_ARRAY:
+                push(EMPTY_ARRAY);
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                pop();
+                break;
+        }
+
+        return token;
+    }
+
+    /**
+     * Checks if the current object or array has another element.
+     *
+     * @return {@code true} if the next token isn't the end of an object, array or the input
+     * @throws IOException if an I/O error occurs while reading the input
+     */
+    public boolean hasNext() throws IOException {
+        @NotNull JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        pop();
+    }
+
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        pop();
+    }
+
+    // Values
+
+    public @NotNull String nextName() throws IOException {
+        expect(JsonToken.NAME);
+
+        parser.consume();
+        peeked = null;
+
+        return parser.readKey();
+    }
+    public @NotNull String nextString() throws IOException {
+        if (peek() == JsonToken.NUMBER) {
+            peeked = null;
+            return parser.readNumberText(parser.scanNumber());
+        }
+
+        expect(JsonToken.STRING);
+
+        parser.consume();
+        peeked = null;
+
+        return parser.readString();
+    }
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        peeked = null;
+
+        if (parser.skipWhitespaces() == 't') {
+            parser.readLiteral("true");
+            return true;
+        } else {
+            parser.readLiteral("false");
+            return false;
+        }
+    }
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        peeked = null;
+
+        parser.readLiteral("null");
+    }
+
+    public int nextInt() throws IOException {
+        long value = nextLong();
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new JsonNumberException("the number " + value + " doesn't fit an integer");
+        }
+
+        return (int) value;
+    }
+    public long nextLong() throws IOException {
+        expect(JsonToken.NUMBER);
+        peeked = null;
+
+        int start = parser.scanNumber();
+        if (!parser.decimal) {
+            return parser.integral;
+        }
+
+        // Decimals are accepted only if they have an exact long value, like 1.0 or 1e3
+        double value = parser.readDouble(start);
+        if (value == (long) value && value != 0x1p63) {
+            return (long) value;
+        }
+
+        throw new JsonNumberException("the number '" + parser.readNumberText(start) + "' doesn't fit a long");
+    }
+    public double nextDouble() throws IOException {
+        expect(JsonToken.NUMBER);
+        peeked = null;
+
+        int start = parser.scanNumber();
+        return parser.decimal ? parser.readDouble(start) : parser.integral;
+    }
+
+    /**
+     * Reads the next value, materializing it and all of its children as a {@link Json}.
+     *
+     * @return the next value, or {@code null} if it's the json {@code null} literal
+     * @throws IllegalStateException if the next token isn't the beginning of a value
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the input
+     */
+    public @Nullable Json nextValue() throws IOException {
+        @NotNull JsonToken token = peek();
+
+        if (token == JsonToken.NAME || token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY || token == JsonToken.END_DOCUMENT) {
+            throw new IllegalStateException("expected a value but was " + token);
+        }
+
+        peeked = null;
+        return parser.readValue(parser.skipWhitespaces());
+    }
+
+    /**
+     * Skips the next value without materializing it. If the next token is a name, the name
+     * and its value are both skipped. Skipped strings, objects and arrays are only scanned for
+     * their boundaries, so their content isn't validated.
+     *
+     * @throws IllegalStateException if the next token is the end of an object, array or the input
+     * @throws JsonParseException if the input isn't a valid json
+     * @throws IOException if an I/O error occurs while reading the input
+     */
+    public void skipValue() throws IOException {
+        @NotNull JsonToken token = peek();
+
+        if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY || token == JsonToken.END_DOCUMENT) {
+            throw new IllegalStateException("expected a value but was " + token);
+        } else if (token == JsonToken.NAME) {
+            parser.consume();
+            parser.skipString();
+
+            peeked = null;
+            peek();
+        }
+
+        peeked = null;
+        parser.skipValue(parser.skipWhitespaces());
+    }
+
+    // Scopes
+
+    private void expect(@NotNull JsonToken expected) throws IOException {
+        @NotNull JsonToken token = peek();
+
+        if (token != expected) {
+            throw new IllegalStateException("expected " + expected + " but was " + token);
+        }
+    }
+
+    private void push(int scope) {
+        parser.consume();
+        peeked = null;
+
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+
+        scopes[depth++] = scope;
+    }
+    private void pop() {
+        parser.consume();
+        peeked = null;
+
+        depth--;
+    }
+
+    // Closeable
+
+    /**
+     * Closes the stream or channel this reader was created with.
+     *
+     * @throws IOException if an I/O error occurs while closing the source
+     */
+    @Override
+    public void close() throws IOException {
+        if (source != null) {
+            source.close();
+        }
+    }
+
+}
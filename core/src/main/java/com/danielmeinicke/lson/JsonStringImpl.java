@@ -1,45 +1,25 @@
 package com.danielmeinicke.lson;
 
 import com.danielmeinicke.lson.exception.JsonNumberException;
-import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
-import java.util.function.Function;
 
 final class JsonStringImpl implements JsonString {
 
     // Object
 
     private final @NotNull String string;
-    private final int[] escapes;
 
-    public JsonStringImpl(@NotNull String string) {
-        this.string = string;
+    // The number represented by the string, classified at the first request
+    private transient @Nullable JsonNumber number;
 
-        // Look for escapes
-        @NotNull List<Integer> escapes = new ArrayList<>();
-        int index = -1;
-
-        int row = 0;
-        while ((index = string.indexOf("\"", index + 1)) != -1) {
-            escapes.add(index + row);
-            row++;
-        }
-
-        // Convert list to array
-        this.escapes = escapes.stream().mapToInt(Integer::intValue).toArray();
-    }
-    @Internal
-    private JsonStringImpl(@NotNull String string, int[] escapes) {
+    public JsonStringImpl(@NotNull String string) {
         this.string = string;
-        this.escapes = escapes;
     }
 
     // Verifications
@@ -105,30 +85,18 @@ final class JsonStringImpl implements JsonString {
     public @NotNull JsonPrimitive getAsPrimitive() {
         return this;
     }
-    @SuppressWarnings("unchecked")
     @Override
     public @NotNull JsonNumber getAsNumber() {
-        // Functions that try to convert the string into a number
-        @NotNull Function<String, JsonNumber>[] converters = new Function[] {
-                str -> new JsonByteImpl(Byte.parseByte((String) str)),
-                str -> new JsonShortImpl(Short.parseShort((String) str)),
-                str -> new JsonIntegerImpl(Integer.parseInt((String) str)),
-                str -> new JsonLongImpl(Long.parseLong((String) str)),
-                str -> new JsonDoubleImpl(Double.parseDouble((String) str)),
-                str -> new JsonFloatImpl(Float.parseFloat((String) str))
-        };
-
-        // Try to parse
-        @NotNull String string = getAsString();
-        for (@NotNull Function<String, JsonNumber> converter : converters) {
-            try {
-                return converter.apply(string);
-            } catch (NumberFormatException ignore) {
-            }
+        @Nullable JsonNumber number = this.number;
+
+        if (number == null) {
+            number = NumberClassifier.classify(string);
+            if (number == null) throw new JsonNumberException("cannot parse '" + string + "' into a valid number");
+
+            this.number = number;
         }
 
-        // Fail
-        throw new JsonNumberException("cannot parse '" + string + "' into a valid number");
+        return number;
     }
 
     // Primitives
@@ -153,11 +121,11 @@ final class JsonStringImpl implements JsonString {
     }
     @Override
     public double getAsDouble() {
-        return Double.parseDouble(getAsString());
+        return FastDoubleParser.parseDouble(getAsString());
     }
     @Override
     public float getAsFloat() {
-        return Float.parseFloat(getAsString());
+        return FastDoubleParser.parseFloat(getAsString());
     }
     @Override
     public short getAsShort() {
@@ -176,25 +144,25 @@ final class JsonStringImpl implements JsonString {
 
     @Override
     public long footprint() {
-        return string.length() + escapes.length + 2;
+        return StringEscaper.length(string);
     }
 
     // Writers
 
     @Override
     public void write(@NotNull Writer writer) throws IOException {
-        writer.write(toString());
+        JsonWriter.write(this, writer);
     }
     @Override
     public void write(@NotNull OutputStream stream) throws IOException {
-        stream.write(toString().getBytes());
+        JsonWriter.write(this, stream);
     }
 
     // Cloneable
 
     @Override
     public @NotNull Json clone() {
-        return new JsonStringImpl(string, escapes);
+        return new JsonStringImpl(string);
     }
 
     // CharSequence
@@ -227,17 +195,7 @@ final class JsonStringImpl implements JsonString {
 
     @Override
     public @NotNull String toString() {
-        if (escapes.length == 0) {
-            return "\"" + string + "\"";
-        } else {
-            @NotNull StringBuilder builder = new StringBuilder(string);
-            for (int index : escapes) {
-                builder.insert(index, "\\");
-            }
-
-            // Finish
-            return builder.toString();
-        }
+        return JsonWriter.toString(this);
     }
 
 }
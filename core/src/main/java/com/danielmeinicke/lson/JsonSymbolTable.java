@@ -0,0 +1,129 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.factory.JsonFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A bounded table of canonical object keys, used by the parsers to turn the raw bytes of a
+ * key into a {@link String} without decoding them again when the same key shows up later.
+ * Documents usually repeat a small set of keys many times, so the table saves the decoding
+ * and the allocation of most keys, and all the parsed objects share the same key instances.
+ * <p>
+ * The table works as a cache: each key hash maps to a single slot, and a new key replaces the
+ * one at its slot, so the memory usage is bounded by the capacity. Keys longer than
+ * {@link #MAXIMUM_LENGTH} bytes or with escape sequences aren't stored.
+ * <p>
+ * The table is thread safe without locks, and can be shared by any amount of parsers and
+ * documents. The parsers use the table of the {@link JsonFactory#getFactory() current
+ * factory}.
+ */
+public final class JsonSymbolTable {
+
+    // Static initializers
+
+    /**
+     * The maximum length, in bytes, of the keys stored at the table.
+     */
+    public static final int MAXIMUM_LENGTH = 64;
+
+    static int hash(int hash, byte b) {
+        return (hash ^ b) * 0x01000193;
+    }
+
+    // Object
+
+    // The entries are immutable, so they're safely published even without synchronization
+    private final @Nullable Entry @NotNull [] entries;
+
+    /**
+     * Creates a symbol table with 4096 slots.
+     */
+    public JsonSymbolTable() {
+        this(4096);
+    }
+    /**
+     * Creates a symbol table with at least the given amount of slots. The capacity is
+     * rounded up to a power of two.
+     *
+     * @param capacity the minimum amount of keys the table can hold
+     * @throws IllegalArgumentException if the capacity isn't positive
+     */
+    public JsonSymbolTable(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid symbol table capacity " + capacity);
+        }
+
+        this.entries = new Entry[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the amount of slots of this table.
+     *
+     * @return the table capacity
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    // Modules
+
+    /**
+     * Removes every key from this table.
+     */
+    public void clear() {
+        Arrays.fill(entries, null);
+    }
+
+    /**
+     * Retrieves the canonical key of the raw bytes between the given indexes.
+     *
+     * @param hash the hash of the bytes, computed by {@link #hash(int, byte)} starting at zero
+     * @return the key, or {@code null} if the table doesn't contain it
+     */
+    @Nullable String get(byte @NotNull [] bytes, int start, int end, int hash) {
+        @Nullable Entry entry = entries[index(hash)];
+        if (entry == null || entry.hash != hash || entry.bytes.length != end - start) {
+            return null;
+        }
+
+        byte[] stored = entry.bytes;
+        for (int row = 0; row < stored.length; row++) {
+            if (stored[row] != bytes[start + row]) return null;
+        }
+
+        return entry.string;
+    }
+    /**
+     * Stores the decoded key of the raw bytes between the given indexes, replacing the key at
+     * its slot.
+     */
+    void put(byte @NotNull [] bytes, int start, int end, int hash, @NotNull String string) {
+        entries[index(hash)] = new Entry(Arrays.copyOfRange(bytes, start, end), string, hash);
+    }
+
+    private int index(int hash) {
+        return (hash ^ (hash >>> 16)) & (entries.length - 1);
+    }
+
+    // Classes
+
+    private static final class Entry {
+
+        private final byte @NotNull [] bytes;
+        private final @NotNull String string;
+        private final int hash;
+
+        private Entry(byte @NotNull [] bytes, @NotNull String string, int hash) {
+            this.bytes = bytes;
+            this.string = string;
+            this.hash = hash;
+        }
+
+    }
+
+}
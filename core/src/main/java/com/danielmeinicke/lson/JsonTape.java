@@ -0,0 +1,368 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The structural index of a json document, used by the two stages parsing.
+ * <p>
+ * The first stage scans the whole input once and records, at the tape, the index of every
+ * structural character outside strings ({@code { } [ ] : ,}) and of every opening quote. Each
+ * opening bracket also records the tape index of its matching closing bracket, so whole
+ * containers can be jumped over.
+ * <p>
+ * The second stage is lazy: {@link LazyJsonObject} and {@link LazyJsonArray} walk the tape to
+ * find their children, and only materialize them when they're touched. Scalar values are only
+ * validated when they're materialized, so a {@link JsonParseException} may be thrown when a
+ * lazy view is accessed.
+ * <p>
+ * Lazy views share the tape and its parser, so they aren't thread safe, even for reads.
+ */
+final class JsonTape {
+
+    // Static initializers
+
+    private static final long EVEN_BITS = 0x5555555555555555L;
+
+    /**
+     * Computes the prefix xor of a mask: each bit of the result is the xor of all the bits at
+     * or before it, turning the quotes mask into the mask of the bits inside strings.
+     */
+    private static long prefixXor(long mask) {
+        mask ^= mask << 1;
+        mask ^= mask << 2;
+        mask ^= mask << 4;
+        mask ^= mask << 8;
+        mask ^= mask << 16;
+        mask ^= mask << 32;
+
+        return mask;
+    }
+
+    /**
+     * Parses a json in two stages, returning lazy views for the objects and arrays.
+     */
+    static @Nullable Json parse(byte @NotNull [] bytes, int offset, int length) {
+        @NotNull JsonParser parser = new JsonParser(bytes, offset, length);
+
+        try {
+            // Scalars at the root doesn't take any advantage of the tape
+            int b = parser.skipWhitespaces();
+            if (b != '{' && b != '[') {
+                return parser.parse();
+            }
+
+            @NotNull JsonTape tape = new JsonTape(bytes, parser);
+            tape.index(parser.getPosition(), offset + length);
+
+            return tape.container(0);
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Object
+
+    private final byte @NotNull [] bytes;
+    private final @NotNull JsonParser parser;
+
+    // The structural character indexes, and the matching closing entry of each opening bracket
+    private int @NotNull [] tape = new int[64];
+    private int @NotNull [] matches = new int[64];
+    private int size;
+
+    private JsonTape(byte @NotNull [] bytes, @NotNull JsonParser parser) {
+        this.bytes = bytes;
+        this.parser = parser;
+    }
+
+    // Stage one
+
+    /**
+     * Indexes the input in blocks of 64 bytes. The {@link StructuralScanner} classifies each
+     * block into bitmasks, which are combined without branches into the mask of the structural
+     * characters outside strings plus the opening quotes; only the set bits of that mask are
+     * visited one by one.
+     */
+    private void index(int start, int end) {
+        @NotNull StructuralScanner scanner = StructuralScanners.create();
+
+        int[] stack = new int[32];
+        int depth = 0;
+
+        // The states carried from one block to the next
+        long prevEscaped = 0;
+        long prevInString = 0;
+
+        blocks:
+        for (int block = start; block < end; block += 64) {
+            // The last block is copied into a scratch block padded with whitespaces
+            if (end - block >= 64) {
+                scanner.classify(bytes, block);
+            } else {
+                byte[] padding = new byte[64];
+                Arrays.fill(padding, (byte) ' ');
+                System.arraycopy(bytes, block, padding, 0, end - block);
+
+                scanner.classify(padding, 0);
+            }
+
+            // Characters escaped by an odd sequence of backslashes
+            long backslashes = scanner.backslashes & ~prevEscaped;
+            long followsEscape = backslashes << 1 | prevEscaped;
+            long odd = backslashes & ~EVEN_BITS & ~followsEscape;
+            long sequences = odd + backslashes;
+
+            prevEscaped = Long.compareUnsigned(sequences, odd) < 0 ? 1 : 0;
+            long escaped = (EVEN_BITS ^ (sequences << 1)) & followsEscape;
+
+            // Bits inside strings, including the opening quotes but not the closing ones
+            long quotes = scanner.quotes & ~escaped;
+            long inString = prefixXor(quotes) ^ prevInString;
+            prevInString = inString >> 63;
+
+            long structurals = (scanner.operators & ~inString) | (quotes & inString);
+
+            for (; structurals != 0; structurals &= structurals - 1) {
+                int position = block + Long.numberOfTrailingZeros(structurals);
+                byte b = bytes[position];
+
+                if (b == '{' || b == '[') {
+                    if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+
+                    stack[depth++] = size;
+                    record(position);
+                } else if (b == '}' || b == ']') {
+                    if (depth == 0) throw error(position, "unexpected closing bracket '" + (char) b + "'");
+
+                    int open = stack[--depth];
+                    if (bytes[tape[open]] != (b == '}' ? '{' : '[')) {
+                        throw error(position, "unexpected closing bracket '" + (char) b + "'");
+                    }
+
+                    matches[open] = size;
+                    record(position);
+
+                    // Only whitespaces are allowed after the root
+                    if (depth == 0) {
+                        for (position++; position < end; position++) {
+                            b = bytes[position];
+                            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') throw error(position, "unexpected character after the json value");
+                        }
+
+                        break blocks;
+                    }
+                } else {
+                    record(position);
+                }
+            }
+        }
+
+        if (depth > 0) {
+            if (prevInString != 0) throw error(end, "unterminated string");
+            throw error(end, "unterminated json " + (depth > 1 ? "containers" : "container"));
+        }
+    }
+    private int skipString(int position, int end) {
+        for (; position < end; position++) {
+            byte b = bytes[position];
+
+            if (b == '"') {
+                return position;
+            } else if (b == '\\') {
+                position++;
+            }
+        }
+
+        throw error(end, "unterminated string");
+    }
+    private void record(int position) {
+        if (size == tape.length) {
+            tape = Arrays.copyOf(tape, size * 2);
+            matches = Arrays.copyOf(matches, size * 2);
+        }
+
+        tape[size++] = position;
+    }
+
+    // Stage two
+
+    /**
+     * Retrieves the tape indexes of the keys of the object opened at the given entry.
+     */
+    int @NotNull [] members(int open) {
+        int close = matches[open];
+        if (skipWhitespaces(tape[open] + 1) == tape[close]) return new int[0];
+
+        int[] members = new int[8];
+        int count = 0;
+
+        for (int entry = open + 1; ; entry++) {
+            // Key, right after the opening bracket or the comma
+            if (bytes[tape[entry]] != '"' || skipWhitespaces(tape[entry - 1] + 1) != tape[entry]) {
+                throw error(skipWhitespaces(tape[entry - 1] + 1), "expected an object key");
+            }
+
+            // Colon, right after the key
+            int colon = skipWhitespaces(skipString(tape[entry] + 1, tape[close]) + 1);
+            if (bytes[tape[entry + 1]] != ':' || tape[entry + 1] != colon) {
+                throw error(colon, "expected ':'");
+            }
+
+            if (count == members.length) members = Arrays.copyOf(members, count * 2);
+            members[count++] = entry;
+
+            // Value
+            entry = next(entry + 1);
+
+            if (entry == close) {
+                return Arrays.copyOf(members, count);
+            } else if (bytes[tape[entry]] != ',') {
+                throw error(tape[entry], "expected ',' or '}'");
+            }
+        }
+    }
+
+    /**
+     * Retrieves the tape indexes of the separators ({@code [} or {@code ,}) that precedes each
+     * element of the array opened at the given entry.
+     */
+    int @NotNull [] elements(int open) {
+        int close = matches[open];
+        if (skipWhitespaces(tape[open] + 1) == tape[close]) return new int[0];
+
+        int[] elements = new int[8];
+        int count = 0;
+
+        for (int entry = open; ; ) {
+            if (count == elements.length) elements = Arrays.copyOf(elements, count * 2);
+            elements[count++] = entry;
+
+            entry = next(entry);
+
+            if (entry == close) {
+                return Arrays.copyOf(elements, count);
+            } else if (bytes[tape[entry]] != ',') {
+                throw error(tape[entry], "expected ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Retrieves the tape entry that follows the value placed after the given separator. The
+     * separator is always followed by another entry, since it's inside a container.
+     */
+    private int next(int separator) {
+        int start = skipWhitespaces(tape[separator] + 1);
+        int entry = separator + 1;
+
+        if (tape[entry] != start) {
+            return entry; // Scalars aren't recorded at the tape
+        }
+
+        byte b = bytes[start];
+
+        if (b == '"') {
+            return entry + 1;
+        } else if (b == '{' || b == '[') {
+            return matches[entry] + 1;
+        }
+
+        throw error(start, "expected a json value");
+    }
+
+    /**
+     * Creates the lazy view of the object or array opened at the given entry.
+     */
+    @NotNull Json container(int open) {
+        return bytes[tape[open]] == '{' ? new LazyJsonObject(this, open) : new LazyJsonArray(this, open);
+    }
+
+    /**
+     * Materializes the value placed after the given separator entry. Objects and arrays are
+     * returned as lazy views, the scalars are fully parsed.
+     */
+    @Nullable Json materialize(int separator) {
+        int start = skipWhitespaces(tape[separator] + 1);
+        byte b = bytes[start];
+
+        if (b == '{' || b == '[') {
+            return container(separator + 1);
+        }
+
+        try {
+            parser.seek(start);
+            @Nullable Json json = parser.readValue(b);
+
+            // The value must be followed by the next structural character
+            parser.skipWhitespaces();
+            if (parser.getPosition() != tape[next(separator)]) {
+                throw parser.error("unexpected character after the json value");
+            }
+
+            return json;
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the key whose opening quote is at the given entry.
+     */
+    @NotNull String key(int entry) {
+        try {
+            parser.seek(tape[entry] + 1);
+            return parser.readKey();
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * Compares the key whose opening quote is at the given entry to the UTF-8 bytes of a
+     * string, decoding it only if it contains escape sequences.
+     */
+    boolean keyEquals(int entry, byte @NotNull [] key) {
+        int start = tape[entry] + 1;
+        int end = skipString(start, bytes.length);
+
+        if (end - start == key.length) {
+            for (int row = 0; row < key.length; row++) {
+                if (bytes[start + row] != key[row]) return false;
+            }
+
+            return true;
+        } else if (end - start > key.length) {
+            for (int position = start; position < end; position++) {
+                if (bytes[position] == '\\') {
+                    return key(entry).equals(new String(key, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // Utilities
+
+    private int skipWhitespaces(int position) {
+        while (position < bytes.length) {
+            byte b = bytes[position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') break;
+
+            position++;
+        }
+
+        return position;
+    }
+    private @NotNull JsonParseException error(int position, @NotNull String message) {
+        parser.seek(position);
+        return parser.error(message);
+    }
+
+}
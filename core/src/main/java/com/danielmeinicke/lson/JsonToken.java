@@ -0,0 +1,38 @@
+package com.danielmeinicke.lson;
+
+/**
+ * Represents the type of a token read by a {@link JsonReader}.
+ */
+public enum JsonToken {
+
+    /** The opening curly brace of a json object. */
+    BEGIN_OBJECT,
+
+    /** The closing curly brace of a json object. */
+    END_OBJECT,
+
+    /** The opening square bracket of a json array. */
+    BEGIN_ARRAY,
+
+    /** The closing square bracket of a json array. */
+    END_ARRAY,
+
+    /** The key of a json object member. */
+    NAME,
+
+    /** A json string value. */
+    STRING,
+
+    /** A json number value. */
+    NUMBER,
+
+    /** A json {@code true} or {@code false} literal. */
+    BOOLEAN,
+
+    /** A json {@code null} literal. */
+    NULL,
+
+    /** The end of the input. */
+    END_DOCUMENT,
+
+}
@@ -0,0 +1,906 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A generator that writes json values token by token, straight into a reusable buffer of UTF-8
+ * encoded bytes that is flushed to the target when full.
+ * <p>
+ * Unlike {@link Json#toString()}, the writer doesn't build any intermediate {@link String}:
+ * {@link #value(Json)} walks the tree and encodes each value directly into the buffer, and the
+ * other methods write single tokens, so documents can be generated without building a tree at
+ * all. Every {@code write} method of the {@link Json} implementations goes through it.
+ * <p>
+ * Written with {@link JsonFormat#RETAINING}, the objects and arrays of this library keep the
+ * bytes they were written into, and while they aren't modified those bytes are copied instead
+ * of walking them again by the compact formats, so writing a large tree after a small change
+ * only encodes the path to the change.
+ * <p>
+ * The output is laid out by a {@link JsonFormat}, compact by default. The pretty formats copy
+ * the indentation of each line from bytes encoded by the format, and always walk the whole
+ * tree, since the kept bytes are compact.
+ * <p>
+ * Writing to a channel, the drained bytes are copied into direct buffers, the first of which
+ * is pooled per thread, and they're written together with a single gathering write once they
+ * are all full, so the channel gets native memory and fewer system calls than through an
+ * {@link OutputStream}.
+ * <p>
+ * Several values may be written at the root level, one per line, as in the json lines format.
+ *
+ * <pre>{@code
+ * try (JsonWriter writer = new JsonWriter(stream)) {
+ *     writer.beginObject();
+ *     writer.name("id").value(id);
+ *     writer.name("tags").value(tags);
+ *     writer.endObject();
+ * }
+ * }</pre>
+ */
+public final class JsonWriter implements Flushable, Closeable {
+
+    // Static initializers
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final byte @NotNull [] TRUE = "true".getBytes();
+    private static final byte @NotNull [] FALSE = "false".getBytes();
+    private static final byte @NotNull [] NULL = "null".getBytes();
+
+    // The buffer of the released writers, which is always full, so every write reaches the
+    // drain and fails there instead of writing into a buffer now used by another writer
+    private static final byte @NotNull [] RELEASED = new byte[0];
+
+    // A buffer per thread, reused by the writers that are created and released by the
+    // json write methods
+    private static final @NotNull ThreadLocal<byte @Nullable []> BUFFERS = new ThreadLocal<>();
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int SEGMENTS_COUNT = 8;
+
+    // The direct buffers of each thread, allocated as the writers to channels fill them. Only
+    // the first one is kept after the writer is released, so each thread holds at most one
+    // segment while idle, and the others are freed with the writer.
+    private static final @NotNull ThreadLocal<ByteBuffer @Nullable []> SEGMENTS = new ThreadLocal<>();
+
+    static void write(@Nullable Json json, @NotNull OutputStream stream) throws IOException {
+        write(json, stream, JsonFormat.COMPACT);
+    }
+    static void write(@Nullable Json json, @NotNull Writer target) throws IOException {
+        write(json, target, JsonFormat.COMPACT);
+    }
+    static @NotNull String toString(@Nullable Json json) {
+        return toString(json, JsonFormat.COMPACT);
+    }
+    static byte @NotNull [] toByteArray(@Nullable Json json) {
+        return toByteArray(json, JsonFormat.COMPACT);
+    }
+
+    static void write(@Nullable Json json, @NotNull WritableByteChannel channel) throws IOException {
+        write(json, channel, JsonFormat.COMPACT);
+    }
+
+    /**
+     * Writes a json to the stream, without closing it.
+     */
+    static void write(@Nullable Json json, @NotNull OutputStream stream, @NotNull JsonFormat format) throws IOException {
+        @NotNull JsonWriter writer = new JsonWriter(stream, null, null, format);
+
+        try {
+            writer.value(json);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+    /**
+     * Writes a json to the character writer, without closing it.
+     */
+    static void write(@Nullable Json json, @NotNull Writer target, @NotNull JsonFormat format) throws IOException {
+        @NotNull JsonWriter writer = new JsonWriter(null, target, null, format);
+
+        try {
+            writer.value(json);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+    /**
+     * Writes a json to the blocking channel, without closing it.
+     */
+    static void write(@Nullable Json json, @NotNull WritableByteChannel channel, @NotNull JsonFormat format) throws IOException {
+        @NotNull JsonWriter writer = new JsonWriter(null, null, channel, format);
+
+        try {
+            writer.value(json);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+    /**
+     * Retrieves the textual representation of a json.
+     */
+    static @NotNull String toString(@Nullable Json json, @NotNull JsonFormat format) {
+        return new String(toByteArray(json, format), StandardCharsets.UTF_8);
+    }
+    /**
+     * Retrieves the UTF-8 encoded json. The compact json is written in place into an array
+     * allocated once, with its exact {@link Json#footprint() footprint}, which the other
+     * formats grow.
+     */
+    static byte @NotNull [] toByteArray(@Nullable Json json, @NotNull JsonFormat format) {
+        long footprint = json == null ? NULL.length : json.footprint();
+        @NotNull JsonWriter writer = new JsonWriter(new byte[(int) Math.min(footprint, Integer.MAX_VALUE - 8)], format);
+
+        try {
+            writer.value(json);
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] buffer = writer.buffer;
+        return writer.position == buffer.length ? buffer : Arrays.copyOf(buffer, writer.position);
+    }
+
+    // Object
+
+    private final @Nullable OutputStream stream;
+    private final @Nullable Writer writer;
+    private final @Nullable WritableByteChannel channel;
+
+    private final @NotNull JsonFormat format;
+    private final boolean compact;
+    private final boolean retain;
+
+    // The line separator followed by the indentation of the deepest levels written so far
+    private byte @NotNull [] indentation;
+
+    private byte @NotNull [] buffer;
+    private int position;
+
+    // Scratch used to decode the buffer when writing to a character writer
+    private char @Nullable [] chars;
+
+    // The amount of times the buffer was written to the target
+    private int drains;
+
+    // The direct buffers the drained bytes are copied into when writing to a channel, and the
+    // index of the one being filled
+    private ByteBuffer @Nullable [] segments;
+    private int segment;
+
+    private int @NotNull [] scopes = new int[32];
+    private int depth = 1;
+
+    private boolean released;
+
+    public JsonWriter(@NotNull OutputStream stream) {
+        this(stream, null, null, JsonFormat.COMPACT);
+    }
+    public JsonWriter(@NotNull Writer writer) {
+        this(null, writer, null, JsonFormat.COMPACT);
+    }
+    /**
+     * Creates a writer to a channel, which must be in blocking mode.
+     *
+     * @throws IllegalArgumentException if the channel is a non-blocking selectable channel
+     */
+    public JsonWriter(@NotNull WritableByteChannel channel) {
+        this(null, null, channel, JsonFormat.COMPACT);
+    }
+    public JsonWriter(@NotNull OutputStream stream, @NotNull JsonFormat format) {
+        this(stream, null, null, format);
+    }
+    public JsonWriter(@NotNull Writer writer, @NotNull JsonFormat format) {
+        this(null, writer, null, format);
+    }
+    public JsonWriter(@NotNull WritableByteChannel channel, @NotNull JsonFormat format) {
+        this(null, null, channel, format);
+    }
+    /**
+     * Creates a writer without a target, whose buffer is the output and grows when full.
+     */
+    private JsonWriter(byte @NotNull [] buffer, @NotNull JsonFormat format) {
+        this.stream = null;
+        this.writer = null;
+        this.channel = null;
+        this.buffer = buffer;
+
+        this.format = format;
+        this.compact = format.isCompact();
+        this.retain = format.isRetainingBytes();
+        this.indentation = format.indentation(0);
+    }
+    private JsonWriter(@Nullable OutputStream stream, @Nullable Writer writer, @Nullable WritableByteChannel channel, @NotNull JsonFormat format) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException("the channel must be in blocking mode");
+        }
+
+        this.stream = stream;
+        this.writer = writer;
+        this.channel = channel;
+
+        this.format = format;
+        this.compact = format.isCompact();
+        this.retain = format.isRetainingBytes();
+        this.indentation = format.indentation(0);
+
+        @Nullable byte[] buffer = BUFFERS.get();
+
+        if (buffer != null) {
+            BUFFERS.set(null);
+            this.buffer = buffer;
+        } else {
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+
+        if (channel != null) {
+            @Nullable ByteBuffer[] segments = SEGMENTS.get();
+
+            if (segments != null) {
+                SEGMENTS.set(null);
+                this.segments = segments;
+            } else {
+                this.segments = new ByteBuffer[SEGMENTS_COUNT];
+            }
+        }
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the amount of objects and arrays that are currently open.
+     *
+     * @return the current nesting depth, zero at the root level
+     */
+    public int getDepth() {
+        return depth - 1;
+    }
+    public @NotNull JsonFormat getFormat() {
+        return format;
+    }
+
+    // Tokens
+
+    public @NotNull JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        write((byte) '{');
+
+        return this;
+    }
+    public @NotNull JsonWriter endObject() throws IOException {
+        if (pop(EMPTY_OBJECT, NONEMPTY_OBJECT, "an object") == NONEMPTY_OBJECT) {
+            indent(depth - 1);
+        }
+
+        write((byte) '}');
+
+        return this;
+    }
+
+    public @NotNull JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        write((byte) '[');
+
+        return this;
+    }
+    public @NotNull JsonWriter endArray() throws IOException {
+        if (pop(EMPTY_ARRAY, NONEMPTY_ARRAY, "an array") == NONEMPTY_ARRAY) {
+            indent(depth - 1);
+        }
+
+        write((byte) ']');
+
+        return this;
+    }
+
+    /**
+     * Writes the name of the next object member.
+     *
+     * @throws IllegalStateException if the writer isn't inside an object expecting a name
+     */
+    public @NotNull JsonWriter name(@NotNull String name) throws IOException {
+        int scope = scopes[depth - 1];
+
+        if (scope == NONEMPTY_OBJECT) {
+            write((byte) ',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("a name can only be written inside an object, before each value");
+        }
+
+        scopes[depth - 1] = DANGLING_NAME;
+
+        indent(depth - 1);
+        writeName(name);
+
+        return this;
+    }
+
+    // Values
+
+    /**
+     * Writes a json and all of its children.
+     *
+     * @param json the json, or {@code null} to write the json {@code null} literal
+     */
+    public @NotNull JsonWriter value(@Nullable Json json) throws IOException {
+        beforeValue();
+        writeJson(json, depth - 1);
+
+        return this;
+    }
+    public @NotNull JsonWriter value(@Nullable String string) throws IOException {
+        beforeValue();
+
+        if (string == null) write(NULL);
+        else writeString(string);
+
+        return this;
+    }
+    public @NotNull JsonWriter value(boolean b) throws IOException {
+        beforeValue();
+        write(b ? TRUE : FALSE);
+
+        return this;
+    }
+    public @NotNull JsonWriter value(long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+
+        return this;
+    }
+    public @NotNull JsonWriter value(double value) throws IOException {
+        beforeValue();
+        writeDouble(value);
+
+        return this;
+    }
+    public @NotNull JsonWriter nullValue() throws IOException {
+        beforeValue();
+        write(NULL);
+
+        return this;
+    }
+
+    // Encoding
+
+    /**
+     * Writes a json whose closing bracket, if it's an object or an array, is indented by the
+     * given level.
+     */
+    private void writeJson(@Nullable Json json, int level) throws IOException {
+        if (json == null) {
+            write(NULL);
+        } else if (json instanceof JsonContainer) {
+            writeContainer((JsonContainer) json, level);
+        } else if (json instanceof JsonObject) {
+            writeObject((JsonObject) json, level);
+        } else if (json instanceof JsonArray) {
+            writeArray((JsonArray) json, level);
+        } else if (json instanceof JsonString) {
+            writeString(json.getAsString());
+        } else if (json instanceof JsonByte || json instanceof JsonShort || json instanceof JsonInteger || json instanceof JsonLong) {
+            writeLong(json.getAsLong());
+        } else if (json instanceof JsonFloat) {
+            writeFloat(json.getAsFloat());
+        } else if (json instanceof JsonDouble) {
+            writeDouble(json.getAsDouble());
+        } else if (json instanceof JsonBoolean) {
+            write(json.getAsBoolean() ? TRUE : FALSE);
+        } else {
+            // Unknown implementations write their own representation
+            writeText(json.toString());
+        }
+    }
+
+    /**
+     * Writes an own object or array. In the compact formats, the bytes it kept are spliced if
+     * it didn't change since then, and the retaining format keeps the bytes written now
+     * otherwise.
+     */
+    private void writeContainer(@NotNull JsonContainer container, int level) throws IOException {
+        if (!compact) {
+            if (container instanceof JsonObject) {
+                writeObject((JsonObject) container, level);
+            } else {
+                writeArray((JsonArray) container, level);
+            }
+
+            container.written(null, 0, 0);
+            return;
+        }
+
+        byte @Nullable [] cached = container.cached();
+
+        if (cached != null) {
+            write(cached);
+            return;
+        }
+
+        int start = position;
+        int drains = this.drains;
+
+        if (container instanceof JsonObject) {
+            writeObject((JsonObject) container, level);
+        } else {
+            writeArray((JsonArray) container, level);
+        }
+
+        // The bytes are only kept if they're still whole at the buffer
+        container.written(retain && drains == this.drains ? buffer : null, start, position);
+    }
+    private void writeObject(@NotNull JsonObject object, int level) throws IOException {
+        write((byte) '{');
+        boolean first = true;
+
+        if (object instanceof JsonObjectImpl) {
+            // The own objects are read straight from their arrays, without the views
+            @NotNull JsonObjectImpl own = (JsonObjectImpl) object;
+
+            for (int index = 0; index < own.end(); index++) {
+                @Nullable String key = own.key(index);
+                if (key == null) continue;
+
+                writeMember(first, key, own.value(index), level + 1);
+                first = false;
+            }
+        } else {
+            for (@NotNull Map.Entry<String, Json> entry : object.entrySet()) {
+                writeMember(first, entry.getKey(), entry.getValue(), level + 1);
+                first = false;
+            }
+        }
+
+        if (!first) indent(level);
+        write((byte) '}');
+    }
+    private void writeMember(boolean first, @NotNull String key, @Nullable Json json, int level) throws IOException {
+        if (!first) write((byte) ',');
+
+        indent(level);
+        writeName(key);
+        writeJson(json, level);
+    }
+    private void writeArray(@NotNull JsonArray array, int level) throws IOException {
+        write((byte) '[');
+
+        int size = array.size();
+
+        @Nullable Object primitives = array instanceof JsonArrayImpl ? ((JsonArrayImpl) array).primitives() : null;
+
+        if (primitives != null) {
+            // The primitive arrays are written without creating their elements
+            for (int index = 0; index < size; index++) {
+                if (index > 0) write((byte) ',');
+                indent(level + 1);
+
+                if (primitives instanceof int[]) writeLong(((int[]) primitives)[index]);
+                else if (primitives instanceof long[]) writeLong(((long[]) primitives)[index]);
+                else if (primitives instanceof double[]) writeDouble(((double[]) primitives)[index]);
+                else write(((boolean[]) primitives)[index] ? TRUE : FALSE);
+            }
+        } else if (array instanceof JsonArrayImpl) {
+            // The own arrays are read by index, without an iterator
+            for (int index = 0; index < size; index++) {
+                writeElement(index == 0, array.get(index), level + 1);
+            }
+        } else {
+            boolean first = true;
+
+            for (@Nullable Json element : array) {
+                writeElement(first, element, level + 1);
+                first = false;
+            }
+        }
+
+        if (size > 0) indent(level);
+        write((byte) ']');
+    }
+
+    private void writeElement(boolean first, @Nullable Json json, int level) throws IOException {
+        if (!first) write((byte) ',');
+
+        indent(level);
+        writeJson(json, level);
+    }
+    private void writeName(@NotNull String name) throws IOException {
+        writeString(name);
+
+        if (format.hasSpaceAfterColon()) {
+            ensure(2);
+            buffer[position++] = ':';
+            buffer[position++] = ' ';
+        } else {
+            write((byte) ':');
+        }
+    }
+    /**
+     * Starts a new line indented by the given level, if the format is pretty.
+     */
+    private void indent(int level) throws IOException {
+        if (!format.isPretty()) {
+            return;
+        }
+
+        int length = format.indentationLength(level);
+
+        if (length > indentation.length) {
+            indentation = format.indentation(level * 2);
+        }
+
+        ensure(length);
+        System.arraycopy(indentation, 0, buffer, position, length);
+        position += length;
+    }
+
+    private void writeLong(long value) throws IOException {
+        ensure(IntegerFormat.MAXIMUM_LENGTH);
+        position = IntegerFormat.write(buffer, position, value);
+    }
+    private void writeFloat(float value) throws IOException {
+        ensure(DoubleFormat.MAXIMUM_LENGTH);
+        position = DoubleFormat.write(buffer, position, value);
+    }
+    private void writeDouble(double value) throws IOException {
+        ensure(DoubleFormat.MAXIMUM_LENGTH);
+        position = DoubleFormat.write(buffer, position, value);
+    }
+
+    /**
+     * Writes a quoted string, escaping the characters {@link StringEscaper} requires and
+     * encoding the other ones as UTF-8.
+     */
+    private void writeString(@NotNull String string) throws IOException {
+        write((byte) '"');
+        writeCharacters(string, true);
+        write((byte) '"');
+    }
+    /**
+     * Writes a text as UTF-8, without quotes nor escapes.
+     */
+    private void writeText(@NotNull String string) throws IOException {
+        writeCharacters(string, false);
+    }
+    @SuppressWarnings("deprecation")
+    private void writeCharacters(@NotNull String string, boolean escape) throws IOException {
+        int length = string.length();
+        int index = 0;
+
+        while (index < length) {
+            // Bulk copy of the clean ASCII run, whose characters are their own bytes
+            int clean = StringEscaper.scan(string, index, length, escape);
+
+            while (index < clean) {
+                if (position == buffer.length) ensure(1);
+
+                int end = Math.min(clean, index + buffer.length - position);
+                string.getBytes(index, end, buffer, position);
+
+                position += end - index;
+                index = end;
+            }
+
+            if (index == length) {
+                break;
+            } else if (buffer.length - position < StringEscaper.CHARACTER_SIZE) {
+                ensure(StringEscaper.CHARACTER_SIZE);
+            }
+
+            char c = string.charAt(index++);
+
+            if (escape && StringEscaper.isEscaped(c)) {
+                position = StringEscaper.escape(buffer, position, c);
+            } else if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && index < length && Character.isLowSurrogate(string.charAt(index))) {
+                int code = Character.toCodePoint(c, string.charAt(index++));
+
+                buffer[position++] = (byte) (0xF0 | (code >> 18));
+                buffer[position++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (code & 0x3F));
+            } else if (Character.isSurrogate(c) && escape) {
+                // Unpaired surrogates can't be encoded as UTF-8
+                position = StringEscaper.escape(buffer, position, c);
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    // Buffer
+
+    private void write(byte b) throws IOException {
+        if (position == buffer.length) ensure(1);
+        buffer[position++] = b;
+    }
+    private void write(byte @NotNull [] bytes) throws IOException {
+        ensure(bytes.length);
+
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Makes room for the given amount of bytes at the buffer, draining it or growing it if the
+     * bytes don't fit even when it's empty. A character is never split between two drains.
+     */
+    private void ensure(int length) throws IOException {
+        if (buffer.length - position >= length) {
+            return;
+        } else if (stream == null && writer == null && channel == null) {
+            buffer = Arrays.copyOf(buffer, Math.max(position + length, buffer.length * 2));
+            return;
+        }
+
+        drain();
+
+        if (buffer.length < length) {
+            buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+        }
+    }
+
+    /**
+     * Writes the buffer content to the target, without flushing it.
+     */
+    private void drain() throws IOException {
+        if (released) {
+            throw new IllegalStateException("this writer is closed");
+        }
+
+        if (stream == null && writer == null && channel == null) {
+            // Without a target, the buffer is the output
+            return;
+        } else if (stream != null) {
+            stream.write(buffer, 0, position);
+        } else if (channel != null) {
+            copy();
+        } else {
+            // The buffer only holds complete UTF-8 sequences, written by this writer
+            if (chars == null || chars.length < buffer.length) {
+                chars = new char[buffer.length];
+            }
+
+            char[] chars = this.chars;
+            int length = 0;
+
+            for (int index = 0; index < position; ) {
+                int b = buffer[index] & 0xFF;
+
+                if (b < 0x80) {
+                    chars[length++] = (char) b;
+                    index++;
+                } else if (b < 0xE0) {
+                    chars[length++] = (char) (((b & 0x1F) << 6) | (buffer[index + 1] & 0x3F));
+                    index += 2;
+                } else if (b < 0xF0) {
+                    chars[length++] = (char) (((b & 0x0F) << 12) | ((buffer[index + 1] & 0x3F) << 6) | (buffer[index + 2] & 0x3F));
+                    index += 3;
+                } else {
+                    int code = ((b & 0x07) << 18) | ((buffer[index + 1] & 0x3F) << 12) | ((buffer[index + 2] & 0x3F) << 6) | (buffer[index + 3] & 0x3F);
+
+                    chars[length++] = Character.highSurrogate(code);
+                    chars[length++] = Character.lowSurrogate(code);
+                    index += 4;
+                }
+            }
+
+            writer.write(chars, 0, length);
+        }
+
+        drains++;
+        position = 0;
+    }
+
+    // Segments
+
+    /**
+     * Copies the buffer content into the segments, gathering them into the channel whenever
+     * they are all full.
+     */
+    private void copy() throws IOException {
+        ByteBuffer @NotNull [] segments = this.segments;
+
+        for (int offset = 0; offset < position; ) {
+            @Nullable ByteBuffer current = segments[segment];
+
+            if (current == null) {
+                current = segments[segment] = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+            } else if (!current.hasRemaining()) {
+                if (++segment == segments.length) {
+                    gather();
+                }
+
+                continue;
+            }
+
+            int length = Math.min(current.remaining(), position - offset);
+            current.put(buffer, offset, length);
+            offset += length;
+        }
+    }
+    /**
+     * Writes the filled segments to the channel, with a single gathering write if the channel
+     * supports it, and clears them to be filled again.
+     */
+    private void gather() throws IOException {
+        ByteBuffer @NotNull [] segments = this.segments;
+        int count = Math.min(segment + 1, segments.length);
+
+        while (count > 0 && (segments[count - 1] == null || segments[count - 1].position() == 0)) {
+            count--;
+        }
+
+        for (int index = 0; index < count; index++) {
+            segments[index].flip();
+        }
+
+        if (channel instanceof GatheringByteChannel) {
+            @NotNull GatheringByteChannel gathering = (GatheringByteChannel) channel;
+
+            for (int index = 0; index < count; ) {
+                gathering.write(segments, index, count - index);
+                while (index < count && !segments[index].hasRemaining()) index++;
+            }
+        } else {
+            for (int index = 0; index < count; index++) {
+                while (segments[index].hasRemaining()) channel.write(segments[index]);
+            }
+        }
+
+        for (int index = 0; index < count; index++) {
+            segments[index].clear();
+        }
+
+        segment = 0;
+    }
+
+    // Scopes
+
+    private void beforeValue() throws IOException {
+        int scope = scopes[depth - 1];
+
+        switch (scope) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                // The root values are written one per line, without indentation
+                if (format.isPretty()) indent(0);
+                else write((byte) '\n');
+
+                break;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                indent(depth - 1);
+
+                break;
+            case NONEMPTY_ARRAY:
+                write((byte) ',');
+                indent(depth - 1);
+
+                break;
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            default:
+                throw new IllegalStateException("a value inside an object must have a name");
+        }
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+
+        scopes[depth++] = scope;
+    }
+    private int pop(int empty, int nonempty, @NotNull String container) {
+        int scope = scopes[depth - 1];
+
+        if (scope == DANGLING_NAME) {
+            throw new IllegalStateException("the last name doesn't have a value");
+        } else if (scope != empty && scope != nonempty) {
+            throw new IllegalStateException("there isn't " + container + " to close");
+        }
+
+        depth--;
+        return scope;
+    }
+
+    // Flushable and Closeable
+
+    /**
+     * Writes the buffered bytes to the target, and flushes it.
+     *
+     * @throws IOException if an I/O error occurs while writing to the target
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+
+        if (stream != null) stream.flush();
+        else if (writer != null) writer.flush();
+        else if (channel != null) gather();
+    }
+
+    /**
+     * Writes the buffered bytes and closes the target this writer was created with.
+     *
+     * @throws IllegalStateException if there are objects or arrays still open
+     * @throws IOException if an I/O error occurs while writing to or closing the target
+     */
+    @Override
+    public void close() throws IOException {
+        if (released) {
+            return;
+        }
+
+        try {
+            if (depth > 1) {
+                throw new IllegalStateException("there are " + (depth - 1) + " objects or arrays still open");
+            }
+
+            drain();
+            if (channel != null) gather();
+        } finally {
+            release();
+
+            if (stream != null) stream.close();
+            else if (writer != null) writer.close();
+            else if (channel != null) channel.close();
+        }
+    }
+
+    /**
+     * Returns the buffer to the thread, so it's reused by the next writer. The buffered bytes
+     * that weren't drained are discarded, and any later write throws an
+     * {@link IllegalStateException}.
+     */
+    private void release() {
+        if (!released) {
+            released = true;
+
+            // The buffers grown by large tokens aren't kept
+            if (buffer.length == BUFFER_SIZE) BUFFERS.set(buffer);
+
+            buffer = RELEASED;
+            position = 0;
+
+            if (segments != null) {
+                if (segments[0] != null) segments[0].clear();
+                Arrays.fill(segments, 1, segments.length, null);
+
+                SEGMENTS.set(segments);
+                segments = null;
+            }
+        }
+    }
+
+}
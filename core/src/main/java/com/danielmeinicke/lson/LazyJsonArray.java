@@ -0,0 +1,337 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * A json array view over a {@link JsonTape}. The elements positions are only indexed at the
+ * first access, and each element is only materialized when it's read. Any operation other
+ * than {@link #size()} and {@link #get(int)} materializes the whole array into a regular
+ * {@link JsonArray}, which is used from then on.
+ */
+final class LazyJsonArray extends JsonContainer implements JsonArray {
+
+    // Object
+
+    private final @NotNull JsonTape tape;
+    private final int open;
+
+    private int @Nullable [] elements;
+    private @Nullable Json @Nullable [] cache;
+
+    private @Nullable JsonArray delegate;
+
+    LazyJsonArray(@NotNull JsonTape tape, int open) {
+        this.tape = tape;
+        this.open = open;
+    }
+
+    // Materialization
+
+    private int @NotNull [] elements() {
+        if (elements == null) {
+            elements = tape.elements(open);
+            cache = new Json[elements.length];
+        }
+
+        return elements;
+    }
+    private @NotNull JsonArray delegate() {
+        if (delegate == null) {
+            int size = elements().length;
+            @NotNull JsonArray array = JsonArray.create(size);
+
+            for (int index = 0; index < size; index++) {
+                array.add(get(index));
+            }
+
+            // Modifications of the delegate invalidate the caches above this view
+            attach(array);
+            delegate = array;
+            elements = null;
+            cache = null;
+        }
+
+        return delegate;
+    }
+
+    // Verifications
+
+    @Override
+    public boolean isObject() {
+        return false;
+    }
+    @Override
+    public boolean isArray() {
+        return true;
+    }
+
+    @Override
+    public boolean isPrimitive() {
+        return false;
+    }
+    @Override
+    public boolean isNumber() {
+        return false;
+    }
+    @Override
+    public boolean isString() {
+        return false;
+    }
+    @Override
+    public boolean isBoolean() {
+        return false;
+    }
+
+    // Casts
+
+    @Override
+    public @NotNull JsonObject getAsObject() {
+        throw new UnsupportedOperationException("cannot parse a json array into a json object");
+    }
+    @Override
+    public @NotNull JsonArray getAsArray() {
+        return this;
+    }
+    @Override
+    public @NotNull JsonPrimitive getAsPrimitive() {
+        throw new UnsupportedOperationException("cannot parse a json array into a json primitive");
+    }
+    @Override
+    public @NotNull JsonNumber getAsNumber() {
+        throw new UnsupportedOperationException("cannot parse a json array into a json number");
+    }
+    @Override
+    public @NotNull String getAsString() {
+        throw new UnsupportedOperationException("cannot parse a json array into a string");
+    }
+    @Override
+    public boolean getAsBoolean() {
+        throw new UnsupportedOperationException("cannot parse a json array into a boolean");
+    }
+    @Override
+    public int getAsInteger() {
+        throw new UnsupportedOperationException("cannot parse a json array into an integer");
+    }
+    @Override
+    public double getAsDouble() {
+        throw new UnsupportedOperationException("cannot parse a json array into a double");
+    }
+    @Override
+    public float getAsFloat() {
+        throw new UnsupportedOperationException("cannot parse a json array into a float");
+    }
+    @Override
+    public short getAsShort() {
+        throw new UnsupportedOperationException("cannot parse a json array into a short");
+    }
+    @Override
+    public long getAsLong() {
+        throw new UnsupportedOperationException("cannot parse a json array into a long");
+    }
+    @Override
+    public byte getAsByte() {
+        throw new UnsupportedOperationException("cannot parse a json array into a byte");
+    }
+
+    // Getters
+
+    @Override
+    long measure() {
+        return delegate().footprint();
+    }
+    @Override
+    void clean() {
+        // The writer reads the elements through this view, without visiting the delegate
+        @NotNull JsonArray delegate = delegate();
+        if (delegate instanceof JsonContainer) ((JsonContainer) delegate).clean();
+
+        super.clean();
+    }
+
+    // Writers
+
+    @Override
+    public void write(@NotNull Writer writer) throws IOException {
+        delegate().write(writer);
+    }
+    @Override
+    public void write(@NotNull OutputStream stream) throws IOException {
+        delegate().write(stream);
+    }
+
+    // Cloneable
+
+    @Override
+    public @NotNull Json clone() {
+        return delegate().clone();
+    }
+    @Override
+    public @NotNull JsonArray deepClone() {
+        return delegate().deepClone();
+    }
+
+    // Query
+
+    @Override
+    public @Nullable Json query(@NotNull JsonPath path) {
+        return delegate().query(path);
+    }
+    @Override
+    public void set(@NotNull JsonPath path, @Nullable Json json) {
+        delegate().set(path, json);
+    }
+    @Override
+    public void remove(@NotNull JsonPath path) {
+        delegate().remove(path);
+    }
+
+    // Collection
+
+    @Override
+    public int size() {
+        return delegate != null ? delegate.size() : elements().length;
+    }
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public @Nullable Json get(int index) {
+        if (delegate != null) {
+            return delegate.get(index);
+        }
+
+        int[] elements = elements();
+        if (index < 0 || index >= elements.length) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + elements.length);
+        }
+
+        // Materialize the element at the first read
+        @Nullable Json json = cache[index];
+        if (json == null) {
+            json = cache[index] = tape.materialize(elements[index]);
+        }
+
+        return json;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return delegate().contains(o);
+    }
+
+    @Override
+    public @NotNull Iterator<@Nullable Json> iterator() {
+        return delegate().iterator();
+    }
+
+    @Override
+    public @NotNull Object @NotNull [] toArray() {
+        return delegate().toArray();
+    }
+    @Override
+    public @NotNull <T> T @NotNull [] toArray(@NotNull T @NotNull [] a) {
+        return delegate().toArray(a);
+    }
+
+    @Override
+    public boolean add(@Nullable Json json) {
+        return delegate().add(json);
+    }
+    @Override
+    public boolean remove(@Nullable Object o) {
+        return delegate().remove(o);
+    }
+
+    @Override
+    public boolean containsAll(@NotNull Collection<?> c) {
+        return delegate().containsAll(c);
+    }
+    @Override
+    public boolean retainAll(@NotNull Collection<?> c) {
+        return delegate().retainAll(c);
+    }
+
+    @Override
+    public boolean addAll(@NotNull Collection<? extends @Nullable Json> c) {
+        return delegate().addAll(c);
+    }
+    @Override
+    public boolean addAll(int index, @NotNull Collection<? extends @Nullable Json> c) {
+        return delegate().addAll(index, c);
+    }
+
+    @Override
+    public boolean removeAll(@NotNull Collection<?> c) {
+        return delegate().removeAll(c);
+    }
+
+    @Override
+    public void clear() {
+        delegate().clear();
+    }
+
+    @Override
+    public @Nullable Json set(int index, @Nullable Json element) {
+        return delegate().set(index, element);
+    }
+    @Override
+    public void add(int index, @Nullable Json element) {
+        delegate().add(index, element);
+    }
+    @Override
+    public @Nullable Json remove(int index) {
+        return delegate().remove(index);
+    }
+
+    @Override
+    public int indexOf(@Nullable Object o) {
+        return delegate().indexOf(o);
+    }
+    @Override
+    public int lastIndexOf(@Nullable Object o) {
+        return delegate().lastIndexOf(o);
+    }
+
+    @Override
+    public @NotNull ListIterator<@Nullable Json> listIterator() {
+        return delegate().listIterator();
+    }
+    @Override
+    public @NotNull ListIterator<@Nullable Json> listIterator(int index) {
+        return delegate().listIterator(index);
+    }
+
+    @Override
+    public @NotNull List<@Nullable Json> subList(int fromIndex, int toIndex) {
+        return delegate().subList(fromIndex, toIndex);
+    }
+
+    // Implementations
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+        return this == object || delegate().equals(object);
+    }
+    @Override
+    public int hashCode() {
+        return delegate().hashCode();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return delegate().toString();
+    }
+
+}
@@ -0,0 +1,334 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A json object view over a {@link JsonTape}. The members positions are only indexed at the
+ * first access, and each value is only materialized when it's read. The keys are compared
+ * against the raw input bytes, so they're not decoded by {@link #get(Object)}. Any operation
+ * other than {@link #size()}, {@link #get(Object)} and {@link #containsKey(Object)}
+ * materializes the whole object into a regular {@link JsonObject}, which is used from then on.
+ */
+final class LazyJsonObject extends JsonContainer implements JsonObject {
+
+    // Object
+
+    private final @NotNull JsonTape tape;
+    private final int open;
+
+    private int @Nullable [] members;
+    private @Nullable Json @Nullable [] cache;
+
+    private @Nullable JsonObject delegate;
+
+    LazyJsonObject(@NotNull JsonTape tape, int open) {
+        this.tape = tape;
+        this.open = open;
+    }
+
+    // Materialization
+
+    private int @NotNull [] members() {
+        if (members == null) {
+            members = tape.members(open);
+            cache = new Json[members.length];
+        }
+
+        return members;
+    }
+    private int indexOf(@NotNull String key) {
+        int[] members = members();
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+
+        // The last duplicated key wins, as in the regular parsing
+        for (int index = members.length - 1; index >= 0; index--) {
+            if (tape.keyEquals(members[index], bytes)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+    private @Nullable Json value(int index) {
+        @Nullable Json json = cache[index];
+
+        if (json == null) {
+            json = cache[index] = tape.materialize(members[index] + 1);
+        }
+
+        return json;
+    }
+    private @NotNull JsonObject delegate() {
+        if (delegate == null) {
+            int[] members = members();
+            @NotNull JsonObject object = new JsonObjectImpl();
+
+            for (int index = 0; index < members.length; index++) {
+                object.put(tape.key(members[index]), value(index));
+            }
+
+            // Modifications of the delegate invalidate the caches above this view
+            attach(object);
+            delegate = object;
+            this.members = null;
+            cache = null;
+        }
+
+        return delegate;
+    }
+
+    // Verifications
+
+    @Override
+    public boolean isObject() {
+        return true;
+    }
+    @Override
+    public boolean isArray() {
+        return false;
+    }
+
+    @Override
+    public boolean isPrimitive() {
+        return false;
+    }
+    @Override
+    public boolean isNumber() {
+        return false;
+    }
+    @Override
+    public boolean isString() {
+        return false;
+    }
+    @Override
+    public boolean isBoolean() {
+        return false;
+    }
+
+    // Casts
+
+    @Override
+    public @NotNull JsonObject getAsObject() {
+        return this;
+    }
+    @Override
+    public @NotNull JsonArray getAsArray() {
+        throw new UnsupportedOperationException("cannot parse a json object into a json array");
+    }
+    @Override
+    public @NotNull JsonPrimitive getAsPrimitive() {
+        throw new UnsupportedOperationException("cannot parse a json object into a json primitive");
+    }
+    @Override
+    public @NotNull JsonNumber getAsNumber() {
+        throw new UnsupportedOperationException("cannot parse a json object into a json number");
+    }
+    @Override
+    public @NotNull String getAsString() {
+        throw new UnsupportedOperationException("cannot parse a json object into a string");
+    }
+    @Override
+    public boolean getAsBoolean() {
+        throw new UnsupportedOperationException("cannot parse a json object into a boolean");
+    }
+    @Override
+    public int getAsInteger() {
+        throw new UnsupportedOperationException("cannot parse a json object into an integer");
+    }
+    @Override
+    public double getAsDouble() {
+        throw new UnsupportedOperationException("cannot parse a json object into a double");
+    }
+    @Override
+    public float getAsFloat() {
+        throw new UnsupportedOperationException("cannot parse a json object into a float");
+    }
+    @Override
+    public short getAsShort() {
+        throw new UnsupportedOperationException("cannot parse a json object into a short");
+    }
+    @Override
+    public long getAsLong() {
+        throw new UnsupportedOperationException("cannot parse a json object into a long");
+    }
+    @Override
+    public byte getAsByte() {
+        throw new UnsupportedOperationException("cannot parse a json object into a byte");
+    }
+
+    // Getters
+
+    @Override
+    long measure() {
+        return delegate().footprint();
+    }
+    @Override
+    void clean() {
+        // The writer reads the elements through this view, without visiting the delegate
+        @NotNull JsonObject delegate = delegate();
+        if (delegate instanceof JsonContainer) ((JsonContainer) delegate).clean();
+
+        super.clean();
+    }
+
+    // Writers
+
+    @Override
+    public void write(@NotNull Writer writer) throws IOException {
+        delegate().write(writer);
+    }
+    @Override
+    public void write(@NotNull OutputStream stream) throws IOException {
+        delegate().write(stream);
+    }
+
+    // Modules
+
+    @Override
+    public void sort(@NotNull Comparator<Json> comparator) {
+        delegate().sort(comparator);
+    }
+
+    @Override
+    public @NotNull Json extract(@NotNull JsonPath path) {
+        return delegate().extract(path);
+    }
+
+    @Override
+    public @NotNull JsonObject flatten() {
+        return delegate().flatten();
+    }
+    @Override
+    public @NotNull JsonObject unflatten() {
+        return delegate().unflatten();
+    }
+
+    @Override
+    public void merge(@NotNull JsonObject object) {
+        delegate().merge(object);
+    }
+    @Override
+    public void merge(@NotNull JsonObject object, boolean override) {
+        delegate().merge(object, override);
+    }
+
+    // Cloneable
+
+    @Override
+    public @NotNull Json clone() {
+        return delegate().clone();
+    }
+    @Override
+    public @NotNull JsonObject deepClone() {
+        return delegate().deepClone();
+    }
+
+    // Query
+
+    @Override
+    public @Nullable Json query(@NotNull JsonPath path) {
+        return delegate().query(path);
+    }
+    @Override
+    public void set(@NotNull JsonPath path, @Nullable Json json) {
+        delegate().set(path, json);
+    }
+    @Override
+    public void remove(@NotNull JsonPath path) {
+        delegate().remove(path);
+    }
+
+    // Map
+
+    @Override
+    public int size() {
+        return delegate != null ? delegate.size() : members().length;
+    }
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        if (delegate != null) {
+            return delegate.containsKey(key);
+        }
+
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+    @Override
+    public boolean containsValue(@Nullable Object value) {
+        return delegate().containsValue(value);
+    }
+
+    @Override
+    public @Nullable Json get(@Nullable Object key) {
+        if (delegate != null) {
+            return delegate.get(key);
+        } else if (!(key instanceof String)) {
+            return null;
+        }
+
+        int index = indexOf((String) key);
+        return index >= 0 ? value(index) : null;
+    }
+    @Override
+    public @Nullable Json put(@NotNull String key, @Nullable Json value) {
+        return delegate().put(key, value);
+    }
+    @Override
+    public @Nullable Json remove(@Nullable Object key) {
+        return delegate().remove(key);
+    }
+
+    @Override
+    public void putAll(@NotNull Map<? extends @NotNull String, ? extends @Nullable Json> map) {
+        delegate().putAll(map);
+    }
+    @Override
+    public void clear() {
+        delegate().clear();
+    }
+
+    @Override
+    public @NotNull Set<@NotNull String> keySet() {
+        return delegate().keySet();
+    }
+    @Override
+    public @NotNull Collection<@Nullable Json> values() {
+        return delegate().values();
+    }
+    @Override
+    public @NotNull Set<Entry<@NotNull String, @Nullable Json>> entrySet() {
+        return delegate().entrySet();
+    }
+
+    // Implementations
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+        return this == object || delegate().equals(object);
+    }
+    @Override
+    public int hashCode() {
+        return delegate().hashCode();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return delegate().toString();
+    }
+
+}
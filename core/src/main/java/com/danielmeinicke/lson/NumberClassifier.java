@@ -0,0 +1,104 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Picks the narrowest json number type for numeric values, shared by the parser and by the
+ * numeric strings: integers become a {@link JsonByte}, {@link JsonShort}, {@link JsonInteger}
+ * or {@link JsonLong}, the first one that fits, and every other number a {@link JsonDouble}.
+ */
+final class NumberClassifier {
+
+    // Static initializers
+
+    /**
+     * Retrieves the narrowest json number that represents the integer.
+     */
+    static @NotNull JsonNumber narrowest(long value) {
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            return new JsonByteImpl((byte) value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            return new JsonShortImpl((short) value);
+        } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return new JsonIntegerImpl((int) value);
+        } else {
+            return new JsonLongImpl(value);
+        }
+    }
+
+    /**
+     * Classifies a string with a single scan of its characters. Integers in the plain
+     * notation are accumulated during the scan, the decimals are converted by the
+     * {@link FastDoubleParser}, and any other notation accepted by
+     * {@link Double#parseDouble(String)} is converted by it.
+     *
+     * @param string the string to classify
+     * @return the narrowest json number that represents the string, or {@code null} if it
+     *         isn't a number
+     */
+    static @Nullable JsonNumber classify(@NotNull String string) {
+        int end = string.length();
+        int index = 0;
+
+        boolean negative = false;
+        if (index < end && (string.charAt(index) == '-' || string.charAt(index) == '+')) {
+            negative = string.charAt(index++) == '-';
+        }
+
+        // Integer part, accumulated as a negative value to reach Long.MIN_VALUE
+        int first = index;
+        long value = 0;
+        boolean overflow = false;
+
+        for (; index < end; index++) {
+            int digit = string.charAt(index) - '0';
+            if (digit < 0 || digit > 9) break;
+
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                overflow = true;
+            } else {
+                value = value * 10 - digit;
+            }
+        }
+
+        if (index == end && index > first && !overflow && (negative || value != Long.MIN_VALUE)) {
+            return narrowest(negative ? value : -value);
+        }
+
+        // Decimals, and the other notations. Strings that can't be a number at all are
+        // rejected before, so they don't cost an exception
+        if (!isNumberStart(string)) {
+            return null;
+        }
+
+        try {
+            return new JsonDoubleImpl(FastDoubleParser.parseDouble(string));
+        } catch (@NotNull NumberFormatException ignore) {
+            return null;
+        }
+    }
+
+    /**
+     * Verifies if the first character after the whitespaces and the sign can start a number
+     * accepted by {@link Double#parseDouble(String)}: a digit, a dot, {@code Infinity} or
+     * {@code NaN}.
+     */
+    private static boolean isNumberStart(@NotNull String string) {
+        int index = 0;
+        while (index < string.length() && string.charAt(index) <= ' ') index++;
+
+        if (index < string.length() && (string.charAt(index) == '-' || string.charAt(index) == '+')) index++;
+        if (index == string.length()) return false;
+
+        char c = string.charAt(index);
+        return (c >= '0' && c <= '9') || c == '.' || c == 'I' || c == 'N';
+    }
+
+    // Object
+
+    private NumberClassifier() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
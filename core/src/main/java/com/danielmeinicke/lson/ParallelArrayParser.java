@@ -0,0 +1,259 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses a document whose root is a large array in parallel, speculating where its elements
+ * are separated.
+ * <p>
+ * The input is cut into segments at guessed element boundaries: commas that look like they
+ * separate two elements of the root array. Each segment is parsed concurrently as if its guess
+ * was right, until it reaches the boundary of the next one. The segments are then stitched in
+ * order: a segment is only used when the previous one ended exactly at its boundary, which
+ * proves its guess. When a guess was wrong, the parsing continues sequentially from where the
+ * previous segment really ended, until it meets a later boundary again.
+ * <p>
+ * Since only proven segments are used, the result and the errors are the same as a sequential
+ * parse; a wrong guess only costs the time of its wasted segment. The speculative segments
+ * check between their elements whether the stitching already went past them, and stop if so,
+ * since a wrong guess may be parsing the rest of the input out of phase.
+ */
+final class ParallelArrayParser {
+
+    // Static initializers
+
+    // Inputs smaller than that are parsed sequentially
+    private static final int MINIMUM_LENGTH = 1024 * 1024;
+
+    // How far the guess looks for an element separator before accepting any comma
+    private static final int GUESS_WINDOW = 64 * 1024;
+
+    static @Nullable Json parse(byte @NotNull [] bytes, int offset, int length, @NotNull ForkJoinPool pool) {
+        try {
+            @NotNull JsonParser parser = new JsonParser(bytes, offset, length);
+
+            if (length < MINIMUM_LENGTH || parser.skipWhitespaces() != '[') {
+                return parser.parse();
+            }
+
+            return new ParallelArrayParser(bytes, offset, length).parse(parser.getPosition(), pool);
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Object
+
+    private final byte @NotNull [] bytes;
+    private final int offset;
+    private final int length;
+
+    // The row of the next segment the stitching may use, the speculative segments of earlier
+    // rows were skipped and are abandoned
+    private volatile int stitched = 1;
+
+    private ParallelArrayParser(byte @NotNull [] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    private @NotNull JsonArray parse(int open, @NotNull ForkJoinPool pool) throws IOException {
+        int[] boundaries = guess(open, pool.getParallelism() * 4);
+
+        // Parse the speculative segments, the first one is surely right
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @NotNull ForkJoinTask<Segment>[] tasks = new ForkJoinTask[boundaries.length];
+
+        for (int row = 1; row < boundaries.length; row++) {
+            int begin = boundaries[row];
+            int limit = row + 1 < boundaries.length ? boundaries[row + 1] : Integer.MAX_VALUE;
+            int speculative = row;
+
+            tasks[row] = pool.submit(() -> segment(begin, limit, speculative));
+        }
+
+        @NotNull Segment segment = segment(open, boundaries.length > 1 ? boundaries[1] : Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        // Stitch the proven segments
+        @NotNull List<@Nullable Json> values = new ArrayList<>();
+
+        try {
+            while (true) {
+                if (segment.error != null) throw segment.error;
+                values.addAll(segment.values);
+
+                if (segment.closed) {
+                    break;
+                }
+
+                // The next boundary at or after the comma this segment really ended
+                int next = 1;
+                while (next < boundaries.length && boundaries[next] < segment.end) next++;
+
+                stitched = next;
+
+                if (next < boundaries.length && boundaries[next] == segment.end) {
+                    segment = tasks[next].join();
+                    tasks[next] = null;
+                } else {
+                    segment = segment(segment.end, next < boundaries.length ? boundaries[next] : Integer.MAX_VALUE, Integer.MAX_VALUE);
+                }
+            }
+        } finally {
+            stitched = Integer.MAX_VALUE;
+
+            for (@Nullable ForkJoinTask<Segment> task : tasks) {
+                if (task != null) task.cancel(false);
+            }
+        }
+
+        // Only whitespaces are allowed after the root
+        @NotNull JsonParser parser = new JsonParser(bytes, offset, length);
+        parser.seek(segment.end + 1);
+
+        int b = parser.skipWhitespaces();
+        if (b >= 0) throw parser.unexpected(b, "end of input");
+
+        @NotNull JsonArray array = JsonArray.create(values.size());
+        array.addAll(values);
+
+        return array;
+    }
+
+    /**
+     * Guesses the commas that split the root array into segments of similar sizes. A comma is
+     * a good guess when it's placed between a closing and an opening bracket, as usual at
+     * arrays of objects or arrays; otherwise the first comma after the cut is used.
+     *
+     * @return the opening bracket index followed by the guessed commas, in ascending order
+     */
+    private int @NotNull [] guess(int open, int count) {
+        int[] boundaries = new int[count];
+        boundaries[0] = open;
+
+        int size = 1;
+        int end = offset + length;
+        long step = (end - open) / count;
+
+        for (int row = 1; row < count; row++) {
+            int cut = Math.max((int) (open + step * row), boundaries[size - 1] + 1);
+            int window = (int) Math.min(end, (long) cut + GUESS_WINDOW);
+            int comma = -1;
+
+            for (int position = cut; position < window; position++) {
+                if (bytes[position] != ',') continue;
+                if (comma < 0) comma = position;
+
+                if (isBetweenContainers(position, end)) {
+                    comma = position;
+                    break;
+                }
+            }
+
+            if (comma > 0) {
+                boundaries[size++] = comma;
+            }
+        }
+
+        int[] result = new int[size];
+        System.arraycopy(boundaries, 0, result, 0, size);
+
+        return result;
+    }
+    private boolean isBetweenContainers(int comma, int end) {
+        int before = comma - 1;
+        while (before > offset && isWhitespace(bytes[before])) before--;
+
+        int after = comma + 1;
+        while (after < end && isWhitespace(bytes[after])) after++;
+
+        return after < end && (bytes[before] == '}' || bytes[before] == ']') && (bytes[after] == '{' || bytes[after] == '[');
+    }
+
+    /**
+     * Parses the elements after the given opening bracket or comma, until the element
+     * separator at or after the limit, or the end of the array.
+     *
+     * @param row the row of the speculative segment, which is abandoned once the stitching
+     *            goes past it, or {@link Integer#MAX_VALUE} if the segment is surely used
+     */
+    private @NotNull Segment segment(int begin, int limit, int row) {
+        @NotNull Segment segment = new Segment();
+        @NotNull JsonParser parser = new JsonParser(bytes, offset, length);
+
+        try {
+            parser.seek(begin + 1);
+
+            int b = parser.skipWhitespaces();
+            if (bytes[begin] == '[' && b == ']') {
+                segment.end = parser.getPosition();
+                segment.closed = true;
+
+                return segment;
+            }
+
+            while (true) {
+                if (row < stitched) {
+                    // Skipped by the stitching, the result won't be used
+                    return segment;
+                }
+
+                segment.values.add(parser.readValue(b));
+
+                b = parser.skipWhitespaces();
+                int position = parser.getPosition();
+
+                if (b == ',') {
+                    if (position >= limit) {
+                        segment.end = position;
+                        return segment;
+                    }
+
+                    parser.consume();
+                    b = parser.skipWhitespaces();
+                } else if (b == ']') {
+                    segment.end = position;
+                    segment.closed = true;
+
+                    return segment;
+                } else {
+                    throw parser.unexpected(b, "',' or ']'");
+                }
+            }
+        } catch (@NotNull JsonParseException e) {
+            segment.error = e;
+            return segment;
+        } catch (@NotNull IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    // Classes
+
+    private static final class Segment {
+
+        private final @NotNull List<@Nullable Json> values = new ArrayList<>();
+
+        // The index of the comma or the closing bracket where the segment ended
+        private int end;
+        private boolean closed;
+
+        private @Nullable JsonParseException error;
+
+    }
+
+}
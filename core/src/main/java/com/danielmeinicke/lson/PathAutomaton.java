@@ -0,0 +1,386 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.path.JsonPath;
+import com.danielmeinicke.lson.path.Node;
+import com.danielmeinicke.lson.path.Selector;
+import com.danielmeinicke.lson.path.Selector.Repeatable;
+import com.danielmeinicke.lson.path.Selector.Slicing;
+import com.danielmeinicke.lson.path.Selector.Wildcard;
+import com.danielmeinicke.lson.path.filter.Filter;
+import com.danielmeinicke.lson.path.filter.Parameter;
+import com.danielmeinicke.lson.path.segment.Segment;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The json paths compiled into a nondeterministic automaton over the keys and indexes of a
+ * document, so they can be evaluated while the document is being scanned.
+ * <p>
+ * Every node name and segment of a path becomes a step, and the steps of all the paths are
+ * flattened into a single array, each path followed by its accepting step. A value is
+ * described by the set of steps that are still expected to match below it: a child moves the
+ * steps its key or index matches to the following one, and the deep scan steps stay active at
+ * every depth. A value reached by an accepting step is selected by a path, and a value whose
+ * set is empty can't lead to any selection, so it can be skipped.
+ * <p>
+ * Selectors that depend on the values themselves, like filters and nested paths, can't be
+ * decided by keys and indexes. By default they match every child and jump straight to the
+ * accepting step of their path, so the automaton selects a superset of the path results. When
+ * compiled for an exact evaluation, a filter leaves its step pending at the child instead:
+ * the child must be materialized and {@link #select(Json, int[], List) selected}, which
+ * validates the filter before advancing.
+ * <p>
+ * When compiled to select from a tree, where the length of every array is known, the
+ * negative indexes and slice bounds are resolved against the lengths instead of rejected.
+ */
+final class PathAutomaton {
+
+    // Static initializers
+
+    static final int @NotNull [] NONE = new int[0];
+
+    // The bit that marks a step whose filter must still be validated against the value
+    private static final int PENDING = Integer.MIN_VALUE;
+
+    /**
+     * Compiles the paths to be evaluated while scanning.
+     *
+     * @param exact whether the filters are validated, otherwise they match every value
+     * @throws UnsupportedOperationException if the evaluation is exact and a path has
+     *         selectors that can't be evaluated while scanning
+     */
+    static @NotNull PathAutomaton compile(boolean exact, @NotNull JsonPath @NotNull ... paths) {
+        return compile(exact, false, paths);
+    }
+    /**
+     * Compiles the paths.
+     *
+     * @param exact whether the filters are validated, otherwise they match every value
+     * @param sized whether the array lengths are known when their indexes are matched, as
+     *              when {@link #select(Json, int[], List) selecting} from a tree
+     * @throws UnsupportedOperationException if the evaluation is exact and a path has
+     *         selectors that can't be evaluated
+     */
+    static @NotNull PathAutomaton compile(boolean exact, boolean sized, @NotNull JsonPath @NotNull ... paths) {
+        @NotNull List<@Nullable Step> steps = new ArrayList<>();
+        int[] initial = new int[paths.length];
+
+        for (int row = 0; row < paths.length; row++) {
+            int first = steps.size();
+            initial[row] = first;
+
+            for (@NotNull Node node : paths[row].getNodes()) {
+                boolean deep = node.isDeepScan();
+                @Nullable String name = node.getName();
+
+                if (name != null) {
+                    steps.add(name.equals("*") ? new Step(deep, exact, sized, true) : new Step(deep, exact, sized, name));
+                    deep = false;
+                }
+
+                for (@NotNull Segment segment : node.getSegments()) {
+                    @NotNull Step step = new Step(deep, exact, sized, false);
+                    deep = false;
+
+                    for (@NotNull Selector selector : segment) {
+                        step.add(selector);
+                    }
+
+                    steps.add(step);
+                }
+            }
+
+            // The accepting step
+            steps.add(null);
+
+            for (int index = first; index < steps.size() - 1; index++) {
+                //noinspection DataFlowIssue
+                steps.get(index).accept = steps.size() - 1;
+            }
+        }
+
+        return new PathAutomaton(steps.toArray(new Step[0]), initial);
+    }
+
+    // Object
+
+    private final @Nullable Step @NotNull [] steps;
+    private final int @NotNull [] initial;
+
+    // Scratch used to compute the child sets, they're only allocated when not empty
+    private final int @NotNull [] scratch;
+
+    private PathAutomaton(@Nullable Step @NotNull [] steps, int @NotNull [] initial) {
+        this.steps = steps;
+        this.initial = initial;
+        this.scratch = new int[steps.length];
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the set of steps expected below the root value.
+     */
+    int @NotNull [] getInitial() {
+        return initial;
+    }
+
+    /**
+     * Verifies if the value described by the set is selected by any path.
+     */
+    boolean isAccepting(int @NotNull [] states) {
+        for (int state : states) {
+            if (state >= 0 && steps[state] == null) return true;
+        }
+
+        return false;
+    }
+    /**
+     * Verifies if the value described by the set must be materialized to be evaluated: it's
+     * selected by a path, or a filter must be validated against it.
+     */
+    boolean isMaterialized(int @NotNull [] states) {
+        for (int state : states) {
+            if (state < 0 || steps[state] == null) return true;
+        }
+
+        return false;
+    }
+
+    // Transitions
+
+    /**
+     * Retrieves the set of steps expected below the value of an object key.
+     *
+     * @param states the set of the object
+     * @return the set of the value, {@link #NONE} if it can't lead to any selection
+     */
+    int @NotNull [] key(int @NotNull [] states, @NotNull String key) {
+        int size = 0;
+
+        for (int state : states) {
+            @Nullable Step step = state >= 0 ? steps[state] : null;
+            if (step == null) continue;
+
+            if (step.deep) size = add(size, state);
+            if (step.filter != null) size = add(size, state | PENDING);
+            if (step.matches(key)) size = add(size, step.opaque ? step.accept : state + 1);
+        }
+
+        return size == 0 ? NONE : Arrays.copyOf(scratch, size);
+    }
+    /**
+     * Retrieves the set of steps expected below an array element.
+     *
+     * @param states the set of the array
+     * @return the set of the element, {@link #NONE} if it can't lead to any selection
+     */
+    int @NotNull [] index(int @NotNull [] states, int index) {
+        return index(states, index, -1);
+    }
+    /**
+     * Retrieves the set of steps expected below an element of an array of a known length.
+     *
+     * @param states the set of the array
+     * @param length the array length, or -1 if it isn't known
+     * @return the set of the element, {@link #NONE} if it can't lead to any selection
+     */
+    int @NotNull [] index(int @NotNull [] states, int index, int length) {
+        int size = 0;
+
+        for (int state : states) {
+            @Nullable Step step = state >= 0 ? steps[state] : null;
+            if (step == null) continue;
+
+            if (step.deep) size = add(size, state);
+            if (step.filter != null) size = add(size, state | PENDING);
+            if (step.matches(index, length)) size = add(size, step.opaque ? step.accept : state + 1);
+        }
+
+        return size == 0 ? NONE : Arrays.copyOf(scratch, size);
+    }
+
+    /**
+     * Evaluates the set against a materialized value, adding the values selected by a path
+     * to the list in the document order: the value itself, and then its descendants.
+     */
+    void select(@Nullable Json value, int @NotNull [] states, @NotNull List<@Nullable Json> matches) {
+        // Validate the pending filters
+        int size = 0;
+        int[] resolved = new int[states.length];
+
+        for (int state : states) {
+            if (state >= 0) {
+                resolved[size++] = state;
+            } else {
+                //noinspection DataFlowIssue
+                @NotNull Filter filter = steps[state & ~PENDING].filter;
+                //noinspection DataFlowIssue
+                if (value != null && filter.validate(value)) resolved[size++] = (state & ~PENDING) + 1;
+            }
+        }
+
+        resolved = Arrays.copyOf(resolved, size);
+
+        if (isAccepting(resolved)) {
+            matches.add(value);
+        }
+
+        // Descendants
+        if (value instanceof JsonObject) {
+            for (@NotNull Map.Entry<String, Json> entry : ((JsonObject) value).entrySet()) {
+                int[] children = key(resolved, entry.getKey());
+                if (children != NONE) select(entry.getValue(), children, matches);
+            }
+        } else if (value instanceof JsonArray) {
+            int length = ((JsonArray) value).size();
+            int index = 0;
+
+            for (@Nullable Json element : (JsonArray) value) {
+                int[] children = index(resolved, index++, length);
+                if (children != NONE) select(element, children, matches);
+            }
+        }
+    }
+
+    private int add(int size, int state) {
+        for (int row = 0; row < size; row++) {
+            if (scratch[row] == state) return size;
+        }
+
+        scratch[size] = state;
+        return size + 1;
+    }
+
+    // Classes
+
+    private static final class Step {
+
+        private final boolean deep;
+        private final boolean exact;
+        private final boolean sized;
+        private boolean wildcard;
+
+        // Selectors that can't be decided without the value
+        private boolean opaque;
+        private @Nullable Filter filter;
+
+        private @NotNull String @NotNull [] names = new String[0];
+        private int @NotNull [] indexes = new int[0];
+        private @NotNull Slicing @NotNull [] slices = new Slicing[0];
+
+        private int accept;
+
+        private Step(boolean deep, boolean exact, boolean sized, boolean wildcard) {
+            this.deep = deep;
+            this.exact = exact;
+            this.sized = sized;
+            this.wildcard = wildcard;
+        }
+        private Step(boolean deep, boolean exact, boolean sized, @NotNull String name) {
+            this.deep = deep;
+            this.exact = exact;
+            this.sized = sized;
+            this.names = new String[] { name };
+        }
+
+        private void add(@NotNull Selector selector) {
+            if (selector instanceof Wildcard) {
+                wildcard = true;
+            } else if (selector instanceof Slicing) {
+                @NotNull Slicing slicing = (Slicing) selector;
+
+                // Negative bounds are relative to the array length, which may not be known yet
+                boolean relative = slicing.getStart() < 0 || (slicing.getEnd() != null && slicing.getEnd() < 0);
+
+                if (slicing.getStep() <= 0 || (relative && !sized)) {
+                    unknown(selector);
+                } else {
+                    slices = Arrays.copyOf(slices, slices.length + 1);
+                    slices[slices.length - 1] = slicing;
+                }
+            } else if (selector instanceof Repeatable && ((Repeatable) selector).iterator().hasNext()) {
+                for (@NotNull Parameter parameter : (Repeatable) selector) {
+                    if (parameter instanceof Selector && !(parameter instanceof Repeatable)) {
+                        add((Selector) parameter);
+                    } else {
+                        unknown(selector);
+                    }
+                }
+            } else if (selector instanceof JsonInteger) {
+                int index = ((JsonInteger) selector).getAsInteger();
+
+                if (index < 0 && !sized) {
+                    unknown(selector);
+                } else {
+                    indexes = Arrays.copyOf(indexes, indexes.length + 1);
+                    indexes[indexes.length - 1] = index;
+                }
+            } else if (selector instanceof JsonString) {
+                names = Arrays.copyOf(names, names.length + 1);
+                names[names.length - 1] = unquote(((JsonString) selector).getAsString());
+            } else if (selector instanceof Filter && exact && filter == null) {
+                filter = (Filter) selector;
+            } else {
+                unknown(selector);
+            }
+        }
+        /**
+         * Handles a selector that can't be decided by keys and indexes: it matches every child
+         * unless the evaluation is exact.
+         */
+        private void unknown(@NotNull Selector selector) {
+            if (exact) {
+                throw new UnsupportedOperationException("the selector '" + selector + "' can't be evaluated" + (sized ? "" : " while scanning"));
+            }
+
+            opaque = true;
+        }
+
+        private boolean matches(@NotNull String key) {
+            if (wildcard || opaque) return true;
+
+            for (@NotNull String name : names) {
+                if (name.equals(key)) return true;
+            }
+
+            return false;
+        }
+        /**
+         * Matches an element index, resolving the negative indexes and bounds against the
+         * length, which are only kept when it's known.
+         */
+        private boolean matches(int index, int length) {
+            if (wildcard || opaque) return true;
+
+            for (int value : indexes) {
+                if ((value < 0 ? value + length : value) == index) return true;
+            }
+            for (@NotNull Slicing slicing : slices) {
+                int start = slicing.getStart() < 0 ? Math.max(slicing.getStart() + length, 0) : slicing.getStart();
+                @Nullable Integer end = slicing.getEnd();
+
+                if (index >= start && (end == null || index < (end < 0 ? end + length : end)) && (index - start) % slicing.getStep() == 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static @NotNull String unquote(@NotNull String name) {
+            if (name.length() >= 2 && (name.charAt(0) == '\'' || name.charAt(0) == '"') && name.charAt(name.length() - 1) == name.charAt(0)) {
+                return name.substring(1, name.length() - 1);
+            }
+
+            return name;
+        }
+
+    }
+
+}
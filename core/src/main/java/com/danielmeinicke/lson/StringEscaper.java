@@ -0,0 +1,137 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Escapes json strings. Clean runs, the ASCII characters that are written as they are, are
+ * found with a lookup at the escape table per character, so they can be bulk copied, and only
+ * the remaining characters go through the escape sequences or the UTF-8 encoding.
+ * <p>
+ * Besides the quotation mark, the reverse solidus and the control characters, which json
+ * requires to be escaped, the line and paragraph separators U+2028 and U+2029 are escaped too,
+ * because they end lines in javascript, and the unpaired surrogates, which can't be encoded as
+ * UTF-8.
+ */
+final class StringEscaper {
+
+    // Static initializers
+
+    /**
+     * The largest amount of bytes a single character is written into: an unicode escape.
+     */
+    static final int CHARACTER_SIZE = 6;
+
+    // For each ASCII character, the one written after the reverse solidus, 'u' for the unicode
+    // escapes or zero if it's written as it is
+    private static final byte @NotNull [] ESCAPES = new byte[128];
+
+    private static final byte @NotNull [] HEX = "0123456789abcdef".getBytes();
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = 'u';
+        }
+
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+    }
+
+    /**
+     * Retrieves the index of the first character, from {@code start}, that isn't ASCII or, if
+     * {@code escape} is true, that must be escaped. The characters before it can be copied as
+     * bytes.
+     */
+    static int scan(@NotNull String string, int start, int end, boolean escape) {
+        int index = start;
+
+        if (escape) {
+            for (; index < end; index++) {
+                char c = string.charAt(index);
+                if (c >= 0x80 || ESCAPES[c] != 0) break;
+            }
+        } else {
+            for (; index < end; index++) {
+                if (string.charAt(index) >= 0x80) break;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Retrieves whether the character, which isn't a part of a clean run, must be escaped.
+     * The surrogates are only escaped when unpaired, which is up to the caller.
+     */
+    static boolean isEscaped(char c) {
+        return c < 0x80 ? ESCAPES[c] != 0 : c == 0x2028 || c == 0x2029;
+    }
+
+    /**
+     * Writes the escape sequence of the character, which must have room for
+     * {@link #CHARACTER_SIZE} bytes.
+     *
+     * @return the position after the last written byte
+     */
+    static int escape(byte @NotNull [] buffer, int position, char c) {
+        byte escape = c < 0x80 ? ESCAPES[c] : (byte) 'u';
+
+        buffer[position++] = '\\';
+        buffer[position++] = escape;
+
+        if (escape == 'u') {
+            buffer[position++] = HEX[(c >> 12) & 0xF];
+            buffer[position++] = HEX[(c >> 8) & 0xF];
+            buffer[position++] = HEX[(c >> 4) & 0xF];
+            buffer[position++] = HEX[c & 0xF];
+        }
+
+        return position;
+    }
+
+    /**
+     * Retrieves the amount of UTF-8 bytes the string is written into, escaped and including
+     * the quotes.
+     */
+    static long length(@NotNull String string) {
+        int end = string.length();
+        long length = 2;
+
+        for (int index = 0; index < end; index++) {
+            int clean = scan(string, index, end, true);
+            length += clean - index;
+
+            if ((index = clean) == end) {
+                break;
+            }
+
+            char c = string.charAt(index);
+
+            if (c < 0x80) {
+                length += ESCAPES[c] == 'u' ? 6 : 2;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && index + 1 < end && Character.isLowSurrogate(string.charAt(index + 1))) {
+                length += 4;
+                index++;
+            } else if (Character.isSurrogate(c) || c == 0x2028 || c == 0x2029) {
+                length += 6;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    // Object
+
+    private StringEscaper() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Classifies the bytes of a json input in blocks of 64 bytes, producing one bit per byte for
+ * each kind of character the structural index needs: quotes, backslashes and operators
+ * ({@code { } [ ] : ,}). The bit {@code n} of each mask represents the byte at
+ * {@code position + n}.
+ * <p>
+ * The scanner is created by {@link StructuralScanners#create()}, which picks the fastest
+ * implementation the running JVM supports.
+ */
+abstract class StructuralScanner {
+
+    // Object
+
+    long quotes;
+    long backslashes;
+    long operators;
+
+    /**
+     * Classifies the 64 bytes starting at the given position, storing the result at the
+     * {@link #quotes}, {@link #backslashes} and {@link #operators} masks.
+     *
+     * @param bytes the input bytes, with at least 64 bytes available from the position
+     * @param position the index of the first byte of the block
+     */
+    abstract void classify(byte @NotNull [] bytes, int position);
+
+}
@@ -0,0 +1,24 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates the {@link StructuralScanner} used by the structural index. This is the Java 8
+ * version, which always uses the {@link SwarStructuralScanner}; the multi-release jar replaces
+ * it on newer JVMs by a version able to use the vector API.
+ */
+final class StructuralScanners {
+
+    // Static initializers
+
+    static @NotNull StructuralScanner create() {
+        return new SwarStructuralScanner();
+    }
+
+    // Object
+
+    private StructuralScanners() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
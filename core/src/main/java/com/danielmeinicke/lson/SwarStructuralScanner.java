@@ -0,0 +1,67 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link StructuralScanner} that classifies eight bytes at a time using plain {@code long}
+ * arithmetic (SIMD within a register), available at every JVM.
+ */
+final class SwarStructuralScanner extends StructuralScanner {
+
+    // Static initializers
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Retrieves a word with the high bit set at every byte of the given word that is equal to
+     * the byte repeated at the pattern, and all the other bits cleared.
+     */
+    private static long equal(long word, long pattern) {
+        long x = word ^ pattern;
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+
+    /**
+     * Gathers the high bit of each byte of the word into the low eight bits of the result.
+     */
+    private static long gather(long word) {
+        return ((word >>> 7) * 0x0102040810204080L) >>> 56;
+    }
+
+    // Object
+
+    private @Nullable ByteBuffer buffer;
+
+    @Override
+    void classify(byte @NotNull [] bytes, int position) {
+        @Nullable ByteBuffer buffer = this.buffer;
+        if (buffer == null || buffer.array() != bytes) {
+            buffer = this.buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long quotes = 0;
+        long backslashes = 0;
+        long operators = 0;
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            long word = buffer.getLong(position + shift);
+
+            // The brackets only differ by the 0x20 bit: '[' | 0x20 == '{' and ']' | 0x20 == '}'
+            long lower = word | (0x20 * ONES);
+
+            quotes |= gather(equal(word, '"' * ONES)) << shift;
+            backslashes |= gather(equal(word, '\\' * ONES)) << shift;
+            operators |= gather(equal(lower, '{' * ONES) | equal(lower, '}' * ONES) | equal(word, ':' * ONES) | equal(word, ',' * ONES)) << shift;
+        }
+
+        this.quotes = quotes;
+        this.backslashes = backslashes;
+        this.operators = operators;
+    }
+
+}
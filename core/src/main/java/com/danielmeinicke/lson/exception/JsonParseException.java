@@ -5,15 +5,33 @@ import org.jetbrains.annotations.Nullable;
 
 public final class JsonParseException extends RuntimeException {
 
-    private final int index;
+    private final long index;
 
     public JsonParseException(int index, @NotNull String message) {
+        this((long) index, message);
+    }
+    public JsonParseException(int index, @NotNull String message, @Nullable Throwable cause) {
+        this((long) index, message, cause);
+    }
+    public JsonParseException(long index, @NotNull String message) {
         super(message);
         this.index = index;
     }
-    public JsonParseException(int index, @NotNull String message, @Nullable Throwable cause) {
+    public JsonParseException(long index, @NotNull String message, @Nullable Throwable cause) {
         super(message, cause);
         this.index = index;
     }
 
+    // Getters
+
+    /**
+     * Retrieves the byte index, relative to the beginning of the input, where the
+     * parser found the error.
+     *
+     * @return the index of the byte that caused this exception
+     */
+    public long getIndex() {
+        return index;
+    }
+
 }
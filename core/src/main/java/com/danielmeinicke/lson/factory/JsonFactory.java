@@ -1,12 +1,14 @@
 package com.danielmeinicke.lson.factory;
 
+import com.danielmeinicke.lson.JsonSymbolTable;
 import org.jetbrains.annotations.NotNull;
 
 public abstract class JsonFactory {
 
     // Static initializers
 
-    private static @NotNull JsonFactory factory;
+    private static @NotNull JsonFactory factory = new JsonFactory() {
+    };
 
     public static @NotNull JsonFactory getFactory() {
         return factory;
@@ -17,4 +19,25 @@ public abstract class JsonFactory {
 
     // Object
 
+    private final @NotNull JsonSymbolTable symbolTable;
+
+    protected JsonFactory() {
+        this(new JsonSymbolTable());
+    }
+    protected JsonFactory(@NotNull JsonSymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    // Getters
+
+    /**
+     * Retrieves the symbol table that the parsers use to intern the object keys. The same
+     * table is shared by every document parsed while this factory is the current one.
+     *
+     * @return the symbol table of this factory
+     */
+    public @NotNull JsonSymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
 }
@@ -1,6 +1,10 @@
 package com.danielmeinicke.lson.path;
 
 import com.danielmeinicke.lson.Json;
+import com.danielmeinicke.lson.JsonArray;
+import com.danielmeinicke.lson.JsonInteger;
+import com.danielmeinicke.lson.JsonObject;
+import com.danielmeinicke.lson.JsonString;
 import com.danielmeinicke.lson.path.filter.Filter;
 import com.danielmeinicke.lson.path.filter.Parameter;
 import com.danielmeinicke.lson.path.segment.Segment;
@@ -109,6 +113,9 @@ public final class Builder {
 
     static final class NodeImpl implements Node {
 
+        // The result of the nodes that don't exist at a json
+        private static final @NotNull Object MISSING = new Object();
+
         private final @Nullable String name;
         private final @NotNull String original;
 
@@ -143,12 +150,58 @@ public final class Builder {
 
         @Override
         public boolean contains(@NotNull Json json) {
-            return false;
+            return resolve(json) != MISSING;
         }
 
         @Override
         public @Nullable Json get(@NotNull Json json) {
-            return null;
+            @Nullable Object value = resolve(json);
+            return value == MISSING ? null : (Json) value;
+        }
+
+        /**
+         * Resolves the name and the segments of this node starting at the given json. Only
+         * names and indexes are resolved, since the other selectors may select more than a
+         * single value.
+         *
+         * @return the value, or {@link #MISSING} if it doesn't exist
+         */
+        private @Nullable Object resolve(@NotNull Json json) {
+            @Nullable Json current = json;
+
+            if (name != null) {
+                if (name.equals("*") || !(current instanceof JsonObject) || !((JsonObject) current).containsKey(name)) {
+                    return MISSING;
+                }
+
+                current = ((JsonObject) current).get(name);
+            }
+
+            for (@NotNull Segment segment : segments) {
+                @NotNull Iterator<Selector> iterator = segment.iterator();
+                @Nullable Selector selector = iterator.hasNext() ? iterator.next() : null;
+
+                if (iterator.hasNext()) {
+                    return MISSING;
+                } else if (selector instanceof JsonString && current instanceof JsonObject) {
+                    @NotNull String key = ((JsonString) selector).getAsString();
+                    if (key.length() >= 2 && (key.charAt(0) == '\'' || key.charAt(0) == '"')) key = key.substring(1, key.length() - 1);
+
+                    if (!((JsonObject) current).containsKey(key)) return MISSING;
+                    current = ((JsonObject) current).get(key);
+                } else if (selector instanceof JsonInteger && current instanceof JsonArray) {
+                    @NotNull JsonArray array = (JsonArray) current;
+                    int index = ((JsonInteger) selector).getAsInteger();
+                    if (index < 0) index += array.size();
+
+                    if (index < 0 || index >= array.size()) return MISSING;
+                    current = array.get(index);
+                } else {
+                    return MISSING;
+                }
+            }
+
+            return current;
         }
 
         // CharSequence
@@ -1,13 +1,18 @@
 package com.danielmeinicke.lson.path;
 
 import com.danielmeinicke.lson.Json;
+import com.danielmeinicke.lson.JsonBoolean;
 import com.danielmeinicke.lson.JsonInteger;
+import com.danielmeinicke.lson.JsonNumber;
 import com.danielmeinicke.lson.JsonString;
+import com.danielmeinicke.lson.exception.JsonParseException;
 import com.danielmeinicke.lson.exception.path.NodeParseException;
 import com.danielmeinicke.lson.path.Node.Type;
-import com.danielmeinicke.lson.path.filter.*;
-import com.danielmeinicke.lson.path.filter.ArithmeticOperatorFilter.ArithmeticOperator;
+import com.danielmeinicke.lson.path.filter.ComparisonOperatorFilter;
 import com.danielmeinicke.lson.path.filter.ComparisonOperatorFilter.ComparisonOperator;
+import com.danielmeinicke.lson.path.filter.ExistenceFilter;
+import com.danielmeinicke.lson.path.filter.Filter;
+import com.danielmeinicke.lson.path.filter.Parameter;
 import com.danielmeinicke.lson.path.segment.Segment;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -110,7 +115,7 @@ final class JsonPathImpl implements JsonPath {
         // Retrieve node name
         @Nullable String name = null;
 
-        if (!node.startsWith("[") && !node.startsWith(".")) {
+        if (!node.isEmpty() && !node.startsWith("[") && !node.startsWith(".")) {
             if (type != null && type != Type.DEEP_SCAN) {
                 throw new NodeParseException("the node with type '" + type + "' cannot have an explicit name: " + node);
             }
@@ -209,7 +214,7 @@ final class JsonPathImpl implements JsonPath {
         if (selector.equals("*")) { // Wildcard
             // Create selector
             instance = new Builder.WildcardImpl();
-        } else if (Integer.getInteger(selector) != null || selector.matches("^\\d+(?:\\s*,\\s*\\d+)*$")) { // Indexes
+        } else if (Integer.getInteger(selector) != null || selector.matches("^-?\\d+(?:\\s*,\\s*-?\\d+)*$")) { // Indexes
             // Retrieve parts
             @NotNull String[] parts = selector.split("\\s*,\\s*");
             @NotNull List<JsonInteger> indexes = new LinkedList<>();
@@ -242,78 +247,7 @@ final class JsonPathImpl implements JsonPath {
         } else if (selector.startsWith("@") || selector.startsWith("$") || selector.startsWith(".")) {
             instance = readNode(selector);
         } else if ((inside || selector.startsWith("?")) && (selector.length() > 3 && selector.charAt(inside ? 0 : 1) == '(' && selector.charAt(selector.length() - 1) == ')')) { // Filter
-            selector = selector.substring(inside ? 1 : 2, selector.length() - 1);
-            @Nullable String parameter = null;
-
-            boolean inverted = selector.charAt(0) == '!';
-
-            // ?(@.pages > 100 && @.edition == 'Second')
-            // ?(@.pages > 100 && @.edition == 'Second' && @.version == '1.0')
-            // ?(@.pages > 100 && (@.edition == 'Second' && @.version == '1.0'))
-            // ?(@.pages > 100 && (@.edition == 'Second' && @.version == '1.0') && @.pages < 400)
-
-            // Selectors
-            @NotNull List<Parameter> parameters = new LinkedList<>();
-
-            {
-                // Retrieve operators
-                @NotNull Map<Integer, Operator> operators = new TreeMap<>();
-
-                boolean quotes = false;
-                @NotNull Inside parenthesis = new Inside();
-
-                char[] chars = selector.toCharArray();
-                for (int row = 0; row < chars.length; row++) {
-                    // Variables
-                    char character = chars[row];
-                    @Nullable Character previous = row > 0 ? chars[row - 1] : null;
-                    @Nullable Character next = chars.length > row + 1 ? chars[row + 1] : null;
-
-                    // Check characters
-                    if (character == '\'' || character == '"') {
-                        quotes = !quotes;
-                    } else if (!quotes) {
-                        if (character == '(') {
-                            parenthesis.add(row);
-                        } else if (character == ')') {
-                            parenthesis.remove();
-                        }
-                    }
-
-                    if (parenthesis.size() > 0) {
-                        continue;
-                    }
-
-                    // Operator
-                    @Nullable Operator operator = null;
-
-                    if (next != null) {
-                        operator = Operator.getBySymbol(String.valueOf(character + next));
-                        row++;
-                    } if (operator == null) {
-                        operator = Operator.getBySymbol(String.valueOf(character));
-                    }
-
-                    // Finish
-                    if (operator != null) {
-                        operators.put(row, operator);
-                    }
-                }
-
-                //
-            }
-            char[] chars = selector.toCharArray();
-            for (int row = 0; row < chars.length; row++) {
-                char character = chars[row];
-                @Nullable Character previous = row > 0 ? chars[row - 1] : null;
-                @Nullable Character next = chars.length > row + 1 ? chars[row + 1] : null;
-
-
-            }
-
-            // Finish
-            //noinspection ConstantValue
-            instance = parameters.size() == 1 ? (Selector) parameters.get(0) : new Builder.RepeatableImpl(parameters.toArray(new Parameter[0]));
+            instance = readFilter(selector.substring(inside ? 1 : 2, selector.length() - 1));
         } else if (selector.contains(":")) { // Array Slicing
             // Split parts
             @NotNull String[] parts = selector.split(":", -1); // -1 para preservar partes vazias
@@ -366,6 +300,160 @@ final class JsonPathImpl implements JsonPath {
         return instance;
     }
 
+    /**
+     * Reads a filter expression, without the {@code ?(} and {@code )} around it. The supported
+     * expressions are comparisons between the current element nodes and literals, existence
+     * tests of the current element nodes, negated by {@code !}, and their combinations with
+     * {@code &&}, {@code ||} and parentheses.
+     */
+    static @NotNull Filter readFilter(@NotNull String expression) {
+        expression = expression.trim();
+
+        // Parentheses around the whole expression
+        while (expression.startsWith("(") && closing(expression, 0) == expression.length() - 1) {
+            expression = expression.substring(1, expression.length() - 1).trim();
+        }
+
+        // Logical operators, the one with the lowest precedence first
+        for (@NotNull ComparisonOperator operator : new ComparisonOperator[] { ComparisonOperator.OR, ComparisonOperator.AND }) {
+            int index = find(expression, operator.getSymbol());
+
+            if (index > 0) {
+                @NotNull Filter primary = readFilter(expression.substring(0, index));
+                @NotNull Filter secondary = readFilter(expression.substring(index + 2));
+
+                return new ComparisonOperatorFilter(primary, secondary, operator);
+            }
+        }
+
+        // Comparisons, the two characters symbols first
+        for (@NotNull String symbol : new String[] { "==", "!=", "<=", ">=", "<", ">" }) {
+            int index = find(expression, symbol);
+
+            if (index > 0) {
+                //noinspection DataFlowIssue
+                @NotNull ComparisonOperator operator = ComparisonOperator.getBySymbol(symbol);
+                return new ComparisonOperatorFilter(readOperand(expression.substring(0, index)), readOperand(expression.substring(index + symbol.length())), operator);
+            }
+        }
+
+        // Existence
+        if (expression.startsWith("!")) {
+            return new ExistenceFilter(readCurrent(expression.substring(1).trim()), true);
+        } else {
+            return new ExistenceFilter(readCurrent(expression));
+        }
+    }
+    private static @NotNull Parameter readOperand(@NotNull String operand) {
+        operand = operand.trim();
+
+        if (operand.startsWith("@")) {
+            return readCurrent(operand);
+        } else if (operand.length() >= 2 && (operand.startsWith("'") || operand.startsWith("\"")) && operand.charAt(operand.length() - 1) == operand.charAt(0)) {
+            return JsonString.create(operand.substring(1, operand.length() - 1));
+        } else if (operand.equals("true") || operand.equals("false")) {
+            return JsonBoolean.create(operand.equals("true"));
+        }
+
+        try {
+            @Nullable Json json = Json.parse(operand);
+
+            if (json instanceof JsonNumber) {
+                return (JsonNumber) json;
+            }
+        } catch (@NotNull JsonParseException ignore) {
+        }
+
+        throw new NodeParseException("unsupported filter operand: '" + operand + "'");
+    }
+    /**
+     * Reads a node of the current element, turning the names after dots into segments, so
+     * {@code @.a.b[0]} is read as {@code @['a']['b'][0]}.
+     */
+    private static @NotNull Node readCurrent(@NotNull String node) {
+        if (!node.startsWith("@")) {
+            throw new NodeParseException("filters only support nodes of the current element: '" + node + "'");
+        }
+
+        @NotNull StringBuilder builder = new StringBuilder("@");
+
+        for (int index = 1; index < node.length(); ) {
+            char character = node.charAt(index);
+
+            if (character == '.') {
+                int end = index + 1;
+                while (end < node.length() && node.charAt(end) != '.' && node.charAt(end) != '[') end++;
+
+                builder.append("['").append(node, index + 1, end).append("']");
+                index = end;
+            } else if (character == '[') {
+                int end = closing(node, index);
+                if (end < 0) throw new NodeParseException("bracket at index " + index + " not closed: " + node);
+
+                builder.append(node, index, end + 1);
+                index = end + 1;
+            } else {
+                throw new NodeParseException("unexpected character '" + character + "' at filter node: " + node);
+            }
+        }
+
+        return readNode(builder.toString());
+    }
+
+    /**
+     * Finds the first occurrence of the symbol that isn't inside quotes, parentheses or brackets.
+     */
+    private static int find(@NotNull String expression, @NotNull String symbol) {
+        int depth = 0;
+        char quote = 0;
+
+        for (int index = 0; index < expression.length(); index++) {
+            char character = expression.charAt(index);
+
+            if (quote != 0) {
+                if (character == quote) quote = 0;
+            } else if (character == '\'' || character == '"') {
+                quote = character;
+            } else if (character == '(' || character == '[') {
+                depth++;
+            } else if (character == ')' || character == ']') {
+                depth--;
+            } else if (depth == 0 && expression.startsWith(symbol, index)) {
+                // Don't split the '<=' and '>=' at '<' or '>', nor the '==' and '!=' at '='
+                if (symbol.length() == 1 && index + 1 < expression.length() && expression.charAt(index + 1) == '=') {
+                    continue;
+                }
+
+                return index;
+            }
+        }
+
+        return -1;
+    }
+    /**
+     * Retrieves the index of the parenthesis or bracket that closes the one at the given index.
+     */
+    private static int closing(@NotNull String expression, int open) {
+        int depth = 0;
+        char quote = 0;
+
+        for (int index = open; index < expression.length(); index++) {
+            char character = expression.charAt(index);
+
+            if (quote != 0) {
+                if (character == quote) quote = 0;
+            } else if (character == '\'' || character == '"') {
+                quote = character;
+            } else if (character == '(' || character == '[') {
+                depth++;
+            } else if ((character == ')' || character == ']') && --depth == 0) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
     // Object
 
     private final @NotNull Node @NotNull [] nodes;
@@ -431,34 +519,4 @@ final class JsonPathImpl implements JsonPath {
         return original;
     }
 
-    // Classes
-
-    private static final class Inside implements Iterable<Integer> {
-
-        private final @NotNull LinkedList<Integer> list = new LinkedList<>();
-
-        public void add(int index) {
-            if (list.contains(index)) {
-                return;
-            }
-
-            list.add(index);
-        }
-        public int remove() {
-            return list.removeLast();
-        }
-
-        public int size() {
-            return list.size();
-        }
-
-        // Implementations
-
-        @Override
-        public @NotNull Iterator<Integer> iterator() {
-            return list.iterator();
-        }
-
-    }
-
 }
@@ -1,6 +1,9 @@
 package com.danielmeinicke.lson.path.filter;
 
 import com.danielmeinicke.lson.Json;
+import com.danielmeinicke.lson.JsonNumber;
+import com.danielmeinicke.lson.JsonString;
+import com.danielmeinicke.lson.path.Node;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -8,6 +11,13 @@ import java.util.Objects;
 
 public final class ComparisonOperatorFilter implements Filter {
 
+    // Static initializers
+
+    // The value of the nodes that don't exist at a json
+    private static final @NotNull Object MISSING = new Object();
+
+    // Object
+
     private final @NotNull Parameter primary;
     private final @NotNull Parameter secondary;
 
@@ -37,7 +47,69 @@ public final class ComparisonOperatorFilter implements Filter {
 
     @Override
     public boolean validate(@NotNull Json json) {
-        return false;
+        if (getOperator() == ComparisonOperator.AND) {
+            return validate(getPrimary(), json) && validate(getSecondary(), json);
+        } else if (getOperator() == ComparisonOperator.OR) {
+            return validate(getPrimary(), json) || validate(getSecondary(), json);
+        }
+
+        // Nodes that don't exist are only different from the other values
+        @Nullable Object primary = value(getPrimary(), json);
+        @Nullable Object secondary = value(getSecondary(), json);
+
+        if (primary == MISSING || secondary == MISSING) {
+            return getOperator() == ComparisonOperator.DIFFERENT;
+        }
+
+        switch (getOperator()) {
+            case EQUAL:
+                return isEqual(primary, secondary);
+            case DIFFERENT:
+                return !isEqual(primary, secondary);
+            default:
+                @Nullable Integer comparison = compare(primary, secondary);
+                if (comparison == null) return false;
+
+                if (getOperator() == ComparisonOperator.LESS_THAN) return comparison < 0;
+                else if (getOperator() == ComparisonOperator.LESS_THAN_OR_EQUAL) return comparison <= 0;
+                else if (getOperator() == ComparisonOperator.MORE_THAN) return comparison > 0;
+                else return comparison >= 0;
+        }
+    }
+
+    private static boolean validate(@NotNull Parameter parameter, @NotNull Json json) {
+        if (!(parameter instanceof Filter)) {
+            throw new UnsupportedOperationException("the logical operators only support filters: " + parameter);
+        }
+
+        return ((Filter) parameter).validate(json);
+    }
+    private static @Nullable Object value(@NotNull Parameter parameter, @NotNull Json json) {
+        if (parameter instanceof Node) {
+            @NotNull Node node = (Node) parameter;
+            return node.contains(json) ? node.get(json) : MISSING;
+        } else if (parameter instanceof Json) {
+            return parameter;
+        }
+
+        throw new UnsupportedOperationException("unsupported comparison parameter: " + parameter);
+    }
+
+    private static boolean isEqual(@Nullable Object primary, @Nullable Object secondary) {
+        if (primary instanceof JsonNumber && secondary instanceof JsonNumber) {
+            return ((JsonNumber) primary).getAsDouble() == ((JsonNumber) secondary).getAsDouble();
+        }
+
+        return Objects.equals(primary, secondary);
+    }
+    private static @Nullable Integer compare(@Nullable Object primary, @Nullable Object secondary) {
+        if (primary instanceof JsonNumber && secondary instanceof JsonNumber) {
+            return Double.compare(((JsonNumber) primary).getAsDouble(), ((JsonNumber) secondary).getAsDouble());
+        } else if (primary instanceof JsonString && secondary instanceof JsonString) {
+            return ((JsonString) primary).getAsString().compareTo(((JsonString) secondary).getAsString());
+        }
+
+        return null;
     }
 
     // Implementations
@@ -35,7 +35,7 @@ public final class ExistenceFilter implements Filter {
 
     @Override
     public boolean validate(@NotNull Json json) {
-        return false;
+        return getPrimary().contains(json) != isInverted();
     }
 
     // Implementations
@@ -0,0 +1,27 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates the {@link StructuralScanner} used by the structural index. This is the Java 17
+ * version of the multi-release jar: it uses the {@link VectorStructuralScanner} when the
+ * {@code jdk.incubator.vector} module was added to the JVM (with
+ * {@code --add-modules jdk.incubator.vector}), and the {@link SwarStructuralScanner} otherwise.
+ */
+final class StructuralScanners {
+
+    // Static initializers
+
+    private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    static @NotNull StructuralScanner create() {
+        return VECTOR ? new VectorStructuralScanner() : new SwarStructuralScanner();
+    }
+
+    // Object
+
+    private StructuralScanners() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
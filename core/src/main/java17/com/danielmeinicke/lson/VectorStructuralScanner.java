@@ -0,0 +1,42 @@
+package com.danielmeinicke.lson;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link StructuralScanner} that classifies the bytes using the widest SIMD registers the
+ * CPU supports, through the incubating vector API.
+ */
+final class VectorStructuralScanner extends StructuralScanner {
+
+    // Static initializers
+
+    // The widest species that still fits a block, since some CPUs have registers wider than 64 bytes
+    private static final @NotNull VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= 64 ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+    // Object
+
+    @Override
+    void classify(byte @NotNull [] bytes, int position) {
+        long quotes = 0;
+        long backslashes = 0;
+        long operators = 0;
+
+        for (int shift = 0; shift < 64; shift += SPECIES.length()) {
+            @NotNull ByteVector vector = ByteVector.fromArray(SPECIES, bytes, position + shift);
+
+            // The brackets only differ by the 0x20 bit: '[' | 0x20 == '{' and ']' | 0x20 == '}'
+            @NotNull ByteVector lower = vector.or((byte) 0x20);
+
+            quotes |= vector.eq((byte) '"').toLong() << shift;
+            backslashes |= vector.eq((byte) '\\').toLong() << shift;
+            operators |= lower.eq((byte) '{').or(lower.eq((byte) '}')).or(vector.eq((byte) ':')).or(vector.eq((byte) ',')).toLong() << shift;
+        }
+
+        this.quotes = quotes;
+        this.backslashes = backslashes;
+        this.operators = operators;
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class DoubleFormatTest {
+
+    private static @NotNull String format(double value) {
+        byte[] buffer = new byte[DoubleFormat.MAXIMUM_LENGTH + 2];
+        int end = DoubleFormat.write(buffer, 1, value);
+
+        @NotNull String string = new String(buffer, 1, end - 1, StandardCharsets.US_ASCII);
+        assertEquals(string.length(), DoubleFormat.length(value), string);
+
+        return string;
+    }
+    private static @NotNull String format(float value) {
+        byte[] buffer = new byte[DoubleFormat.MAXIMUM_LENGTH + 2];
+        int end = DoubleFormat.write(buffer, 1, value);
+
+        @NotNull String string = new String(buffer, 1, end - 1, StandardCharsets.US_ASCII);
+        assertEquals(string.length(), DoubleFormat.length(value), string);
+
+        return string;
+    }
+
+    private static int digits(@NotNull String string) {
+        return new BigDecimal(string).stripTrailingZeros().precision();
+    }
+
+    private static void verify(double value) {
+        @NotNull String string = format(value);
+        assertEquals(value, Double.parseDouble(string), string);
+
+        // No decimal with one digit less parses back to the same value, but two digits are
+        // always kept
+        int digits = digits(string);
+        if (digits > 2) {
+            @NotNull BigDecimal exact = new BigDecimal(value);
+
+            for (@NotNull RoundingMode mode : new RoundingMode[] { RoundingMode.FLOOR, RoundingMode.CEILING }) {
+                double shorter = exact.round(new MathContext(digits - 1, mode)).doubleValue();
+                assertNotEquals(value, shorter, string);
+            }
+        }
+
+        // Never longer than the platform representation
+        assertTrue(digits <= Math.max(2, digits(Double.toString(value))), string);
+    }
+    private static void verify(float value) {
+        @NotNull String string = format(value);
+        assertEquals(value, Float.parseFloat(string), string);
+
+        int digits = digits(string);
+        if (digits > 2) {
+            @NotNull BigDecimal exact = new BigDecimal(value);
+
+            for (@NotNull RoundingMode mode : new RoundingMode[] { RoundingMode.FLOOR, RoundingMode.CEILING }) {
+                float shorter = exact.round(new MathContext(digits - 1, mode)).floatValue();
+                assertNotEquals(value, shorter, string);
+            }
+        }
+
+        assertTrue(digits <= Math.max(2, digits(Float.toString(value))), string);
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Format doubles with the platform notation")
+    void notation() {
+        assertEquals("0.0", format(0D));
+        assertEquals("-0.0", format(-0D));
+        assertEquals("1.0", format(1D));
+        assertEquals("-1.5", format(-1.5));
+        assertEquals("0.1", format(0.1));
+        assertEquals("0.001", format(0.001));
+        assertEquals("1.0E-4", format(0.0001));
+        assertEquals("1234567.0", format(1234567D));
+        assertEquals("1.0E7", format(1e7));
+        assertEquals("1.0E23", format(1e23));
+        assertEquals("0.002", format(2e-3));
+        assertEquals("-23.456789", format(-23.456789));
+        assertEquals("1.7976931348623157E308", format(Double.MAX_VALUE));
+        assertEquals("4.9E-324", format(Double.MIN_VALUE));
+        assertEquals("2.2250738585072014E-308", format(Double.MIN_NORMAL));
+        assertEquals("NaN", format(Double.NaN));
+        assertEquals("Infinity", format(Double.POSITIVE_INFINITY));
+        assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+
+        assertEquals("0.3", format(0.3F));
+        assertEquals("1.0E10", format(1e10F));
+        assertEquals("3.4028235E38", format(Float.MAX_VALUE));
+        assertEquals("1.4E-45", format(Float.MIN_VALUE));
+        assertEquals("NaN", format(Float.NaN));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Format the shortest doubles that round trip")
+    void doubles() {
+        @NotNull SplittableRandom random = new SplittableRandom(16);
+
+        for (int row = 0; row < 50_000; row++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+
+            verify(value);
+        }
+
+        // Coordinates and the like
+        for (int row = 0; row < 50_000; row++) {
+            verify(Math.round(random.nextDouble(-180, 180) * 1e6) / 1e6);
+        }
+
+        // Subnormals and the powers of two
+        for (long bits = 1; bits < 1_000; bits++) {
+            verify(Double.longBitsToDouble(bits));
+        }
+        for (int exponent = -1074; exponent <= 1023; exponent++) {
+            verify(Math.scalb(1D, exponent));
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Format the shortest floats that round trip")
+    void floats() {
+        @NotNull SplittableRandom random = new SplittableRandom(16);
+
+        for (int row = 0; row < 50_000; row++) {
+            float value = Float.intBitsToFloat(random.nextInt());
+            if (Float.isNaN(value) || Float.isInfinite(value)) continue;
+
+            verify(value);
+        }
+
+        for (int bits = 1; bits < 1_000; bits++) {
+            verify(Float.intBitsToFloat(bits));
+        }
+        for (int exponent = -149; exponent <= 127; exponent++) {
+            verify(Math.scalb(1F, exponent));
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Write and measure the json numbers")
+    void json() {
+        assertEquals("[0.1,-2.5E-8,3.0]", Json.parse("[0.1,-2.5e-8,3.0]").toString());
+        assertEquals(4, JsonDouble.create(-1.5).footprint());
+        assertEquals(3, JsonFloat.create(0.3F).footprint());
+        assertEquals("1.0E-5", JsonFloat.create(1e-5F).toString());
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class FastDoubleParserTest {
+
+    private static final @NotNull String @NotNull [] EDGES = {
+            "0", "-0", "0.0", "1", "-1", "0.1", "0.3", "1e23", "9007199254740993", "123456789012345678",
+            "1.7976931348623157e308", "1.7976931348623159e308", "1e309", "2.2250738585072014e-308",
+            "2.2250738585072011e-308", "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324",
+            "1e-400", "3.4028235e38", "3.4028236e38", "1.4e-45", "7.0e-46", "1.17549435e-38",
+            "0.000000000000000000000000000000000000000000001", "12345678901234567890123", "9.999999999999999e22",
+            "8.98846567431158e307", "9223372036854775808", "-9999999999999999999e-3", "1.00000000000000011102230246251565404236316680908203125", "0.1e-5", "-2.5E+10"
+    };
+
+    private static void check(@NotNull String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Double.doubleToLongBits(Double.parseDouble(text)), Double.doubleToLongBits(FastDoubleParser.parseDouble(bytes, 0, bytes.length)), text);
+        assertEquals(Float.floatToIntBits(Float.parseFloat(text)), Float.floatToIntBits(FastDoubleParser.parseFloat(bytes, 0, bytes.length)), text);
+        assertEquals(Double.doubleToLongBits(Double.parseDouble(text)), Double.doubleToLongBits(FastDoubleParser.parseDouble(text)), text);
+        assertEquals(Float.floatToIntBits(Float.parseFloat(text)), Float.floatToIntBits(FastDoubleParser.parseFloat(text)), text);
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Parse the edge cases as the exact algorithm")
+    void edges() {
+        for (@NotNull String text : EDGES) {
+            check(text);
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Parse random numbers as the exact algorithm")
+    void random() {
+        @NotNull SplittableRandom random = new SplittableRandom(42);
+
+        for (int row = 0; row < 100_000; row++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+
+            check(Double.toString(value).replace("E", "e"));
+            check(random.nextLong(1_000_000_000_000L) + "e" + (random.nextInt(700) - 350));
+            check(random.nextInt(1_000_000) + "." + random.nextInt(1_000_000));
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Keep the notations accepted only by the exact algorithm")
+    void strings() {
+        assertEquals(0.5D, FastDoubleParser.parseDouble(".5"));
+        assertEquals(1D, FastDoubleParser.parseDouble("+1."));
+        assertEquals(2D, FastDoubleParser.parseDouble(" 2d "));
+        assertTrue(Double.isNaN(FastDoubleParser.parseDouble("NaN")));
+        assertThrows(NumberFormatException.class, () -> FastDoubleParser.parseDouble("1e"));
+        assertThrows(NumberFormatException.class, () -> FastDoubleParser.parseDouble("abc"));
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class FootprintTest {
+
+    private static final @NotNull String DOCUMENT = "{\"name\":\"Léo \\\"Laivy\\\" \\\\ \\n \\u0001 😀\",\"age\":27,\"ratio\":-1.5,\"tags\":[true,false,null,[],{}],\"nested\":{\"list\":[1,[2,[3]],\"três\"]}}";
+
+    private static void verify(@NotNull Json json) throws IOException {
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        json.write(stream);
+
+        assertEquals(stream.size(), json.footprint(), json.toString());
+        assertEquals(stream.size(), json.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Measure the exact amount of bytes")
+    void exact() throws IOException {
+        verify(Json.parse(DOCUMENT));
+        //noinspection DataFlowIssue
+        verify(Json.parseLazily(DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+        verify(JsonArray.create());
+        verify(JsonObject.create());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Invalidate the cached footprint on modifications")
+    void modifications() throws IOException {
+        @NotNull JsonObject root = Json.parse(DOCUMENT).getAsObject();
+        @NotNull JsonArray list = root.get("nested").getAsObject().get("list").getAsArray();
+        @NotNull JsonArray deep = list.get(1).getAsArray().get(1).getAsArray();
+
+        verify(root);
+
+        deep.add(JsonString.create("four"));
+        verify(root);
+
+        list.set(0, JsonInteger.create(12345));
+        verify(root);
+
+        @NotNull Iterator<Json> iterator = list.iterator();
+        iterator.next();
+        iterator.remove();
+        verify(root);
+
+        @NotNull ListIterator<Json> elements = list.listIterator();
+        elements.next();
+        elements.set(JsonBoolean.create(true));
+        verify(root);
+
+        @NotNull List<Json> section = root.get("tags").getAsArray().subList(1, 3);
+        section.clear();
+        verify(root);
+
+        for (@NotNull Map.Entry<String, Json> entry : root.entrySet()) {
+            if (entry.getKey().equals("age")) entry.setValue(JsonLong.create(Long.MIN_VALUE));
+        }
+        verify(root);
+
+        root.keySet().remove("ratio");
+        verify(root);
+
+        root.values().removeIf(json -> json instanceof JsonString);
+        verify(root);
+
+        // The removed containers don't invalidate their former owners
+        @NotNull JsonObject nested = root.remove("nested").getAsObject();
+        verify(root);
+        nested.put("detached", null);
+        verify(root);
+        verify(nested);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Invalidate every owner of a shared container")
+    void shared() throws IOException {
+        @NotNull JsonArray shared = JsonArray.create();
+        @NotNull JsonObject first = JsonObject.create();
+        @NotNull JsonArray second = JsonArray.create();
+
+        first.put("a", shared);
+        first.put("b", shared);
+        second.add(shared);
+
+        verify(first);
+        verify(second);
+
+        first.remove("a");
+        shared.add(JsonInteger.create(1));
+        verify(first);
+        verify(second);
+
+        // Lazy views are invalidated through their delegates
+        //noinspection DataFlowIssue
+        @NotNull JsonArray lazy = Json.parseLazily("[[1],[2]]".getBytes(StandardCharsets.UTF_8)).getAsArray();
+        @NotNull JsonObject holder = JsonObject.create();
+        holder.put("lazy", lazy);
+
+        verify(holder);
+        lazy.get(0).getAsArray().add(JsonInteger.create(100));
+        verify(holder);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Don't keep the owners of a shared container alive")
+    void collected() throws IOException, InterruptedException {
+        @NotNull JsonArray shared = JsonArray.create();
+        @NotNull WeakReference<JsonArray> first = new WeakReference<>(null);
+
+        for (int row = 0; row < 100_000; row++) {
+            @NotNull JsonArray parent = JsonArray.create();
+            parent.add(shared);
+            parent.footprint();
+
+            if (row == 0) first = new WeakReference<>(parent);
+        }
+
+        for (int attempt = 0; attempt < 50 && first.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(first.get());
+
+        // The owners still alive keep being invalidated
+        @NotNull JsonObject owner = JsonObject.create();
+        owner.put("shared", shared);
+        verify(owner);
+
+        shared.add(JsonString.create("changed"));
+        verify(owner);
+        assertEquals("{\"shared\":[\"changed\"]}", owner.toString());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Track the owners of clones and deserialized containers")
+    void copies() throws IOException, ClassNotFoundException {
+        @NotNull JsonObject root = Json.parse(DOCUMENT).getAsObject();
+        verify(root);
+
+        @NotNull JsonObject clone = (JsonObject) root.clone();
+        clone.get("tags").getAsArray().add(JsonInteger.create(7));
+        verify(root);
+        verify(clone);
+
+        @NotNull ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (@NotNull ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(root);
+        }
+
+        @NotNull JsonObject copy;
+        try (@NotNull ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (JsonObject) stream.readObject();
+        }
+
+        verify(copy);
+        copy.get("nested").getAsObject().put("x", JsonInteger.create(1));
+        verify(copy);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class IntegerFormatTest {
+
+    private static void verify(long value) {
+        byte[] buffer = new byte[IntegerFormat.MAXIMUM_LENGTH + 2];
+        int end = IntegerFormat.write(buffer, 1, value);
+
+        @NotNull String expected = Long.toString(value);
+        assertEquals(expected, new String(buffer, 1, end - 1, StandardCharsets.US_ASCII));
+        assertEquals(expected.length(), IntegerFormat.length(value), expected);
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Format the powers of ten and the limits")
+    void limits() {
+        long power = 1;
+
+        for (int row = 0; row < 19; row++) {
+            for (long value : new long[] { power - 1, power, power + 1, -power + 1, -power, -power - 1 }) {
+                verify(value);
+            }
+
+            power *= 10;
+        }
+
+        verify(Long.MAX_VALUE);
+        verify(Long.MIN_VALUE);
+        verify(Integer.MAX_VALUE);
+        verify(Integer.MIN_VALUE);
+        verify((long) Integer.MAX_VALUE + 1);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Format random integers")
+    void random() {
+        @NotNull SplittableRandom random = new SplittableRandom(15);
+
+        for (int row = 0; row < 100_000; row++) {
+            verify(random.nextLong() >> random.nextInt(64));
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Measure the json numbers footprint")
+    void footprint() {
+        assertEquals(4, JsonByte.create((byte) -128).footprint());
+        assertEquals(5, JsonShort.create((short) 12345).footprint());
+        assertEquals(1, JsonInteger.create(0).footprint());
+        assertEquals(20, JsonLong.create(Long.MIN_VALUE).footprint());
+    }
+
+}
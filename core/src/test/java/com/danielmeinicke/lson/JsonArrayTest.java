@@ -0,0 +1,153 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonArrayTest {
+
+    private static void verify(@NotNull List<Json> expected, @NotNull JsonArray array) {
+        assertEquals(expected.size(), array.size());
+        assertEquals(expected, new ArrayList<>(array));
+        assertArrayEquals(expected.toArray(), array.toArray());
+
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.get(index), array.get(index));
+        }
+
+        assertEquals(array.toString(), Json.parse(array.toString()).toString());
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Match a list through random modifications")
+    void random() {
+        @NotNull SplittableRandom random = new SplittableRandom(3);
+        @NotNull List<Json> expected = new ArrayList<>();
+        @NotNull JsonArray array = JsonArray.create(4);
+
+        for (int row = 0; row < 10_000; row++) {
+            @Nullable Json value = row % 7 == 0 ? null : JsonInteger.create(row);
+            int size = expected.size();
+
+            switch (random.nextInt(8)) {
+                case 0:
+                case 1:
+                    expected.add(value);
+                    array.add(value);
+                    break;
+                case 2:
+                    int index = random.nextInt(size + 1);
+                    expected.add(index, value);
+                    array.add(index, value);
+                    break;
+                case 3:
+                    if (size > 0) {
+                        index = random.nextInt(size);
+                        assertEquals(expected.remove(index), array.remove(index));
+                    }
+                    break;
+                case 4:
+                    if (size > 0) {
+                        index = random.nextInt(size);
+                        assertEquals(expected.set(index, value), array.set(index, value));
+                    }
+                    break;
+                case 5:
+                    @NotNull List<Json> added = Arrays.asList(JsonString.create("a" + row), null);
+                    index = random.nextInt(size + 1);
+                    expected.addAll(index, added);
+                    array.addAll(index, added);
+                    break;
+                case 6:
+                    if (size > 4) {
+                        int from = random.nextInt(size - 4);
+                        expected.subList(from, from + 3).clear();
+                        array.subList(from, from + 3).clear();
+                    }
+                    break;
+                default:
+                    @Nullable Json json = size > 0 ? expected.get(random.nextInt(size)) : null;
+                    assertEquals(expected.indexOf(json), array.indexOf(json));
+                    assertEquals(expected.lastIndexOf(json), array.lastIndexOf(json));
+                    assertEquals(expected.remove(json), array.remove(json));
+            }
+
+            if (row % 500 == 0) verify(expected, array);
+        }
+
+        verify(expected, array);
+
+        expected.removeIf(Objects::isNull);
+        array.removeIf(Objects::isNull);
+        verify(expected, array);
+
+        array.clear();
+        expected.clear();
+        verify(expected, array);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Modify through iterators and sections")
+    void views() {
+        @NotNull JsonArray array = Json.parse("[1,2,3,4,5,6]").getAsArray();
+
+        @NotNull ListIterator<Json> iterator = array.listIterator(1);
+        assertEquals(2, iterator.next().getAsInteger());
+        iterator.remove();
+        iterator.add(JsonString.create("x"));
+        assertEquals(3, iterator.next().getAsInteger());
+        iterator.set(JsonBoolean.create(false));
+        assertEquals(JsonBoolean.create(false), iterator.previous());
+        assertEquals("[1,\"x\",false,4,5,6]", array.toString());
+
+        @NotNull List<Json> section = array.subList(2, 5);
+        section.remove(0);
+        section.add(JsonString.create("y"));
+        assertEquals(Arrays.asList(4, 5), Arrays.asList(section.get(0).getAsInteger(), section.get(1).getAsInteger()));
+        assertEquals("[1,\"x\",4,5,\"y\",6]", array.toString());
+
+        array.add(null);
+        assertThrows(ConcurrentModificationException.class, section::size);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            for (@Nullable Json ignored : array) array.add(null);
+        });
+
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(array.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.add(-1, null));
+        assertThrows(IllegalArgumentException.class, () -> JsonArray.create(-1));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Copy elements in bulk")
+    void bulk() {
+        @NotNull JsonArray array = Json.parse("[1,2,3]").getAsArray();
+
+        array.addAll(array);
+        array.addAll(1, array);
+        assertEquals("[1,1,2,3,1,2,3,2,3,1,2,3]", array.toString());
+
+        @NotNull List<Json> source = new ArrayList<>(Arrays.asList(JsonInteger.create(1), null));
+        @NotNull JsonArray copy = JsonArray.create(source);
+        source.clear();
+        assertEquals("[1,null]", copy.toString());
+
+        copy.sort(Comparator.nullsFirst(Comparator.comparingInt(Json::getAsInteger)));
+        assertEquals("[null,1]", copy.toString());
+
+        @NotNull JsonArray deep = Json.parse("[[1],{\"a\":[2]}]").getAsArray();
+        @NotNull JsonArray clone = deep.deepClone();
+        clone.get(0).getAsArray().add(null);
+        assertEquals("[[1],{\"a\":[2]}]", deep.toString());
+        assertEquals("[[1,null],{\"a\":[2]}]", clone.toString());
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonContainerTest {
+
+    private static @NotNull JsonObject document() {
+        @NotNull StringBuilder builder = new StringBuilder("{");
+
+        for (int row = 0; row < 200; row++) {
+            if (row > 0) builder.append(',');
+            builder.append("\"section").append(row).append("\":{\"id\":").append(row).append(",\"name\":\"ação ").append(row).append("\",\"values\":[1.5,true,null,\"text\"],\"description\":\"a section of the document\"}");
+        }
+
+        //noinspection DataFlowIssue
+        return Json.parse(builder.append('}').toString()).getAsObject();
+    }
+
+    private static @NotNull String write(@NotNull Json json) throws IOException {
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        json.write(stream, JsonFormat.RETAINING);
+
+        @NotNull StringWriter writer = new StringWriter();
+        json.write(writer);
+
+        @NotNull String string = new String(stream.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(string, writer.toString());
+        assertEquals(string, json.toString());
+
+        return string;
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Keep the written bytes of unchanged containers")
+    void kept() throws IOException {
+        @NotNull JsonObject root = document();
+        @NotNull JsonObject section = root.get("section7").getAsObject();
+
+        // Only the retaining format keeps the bytes
+        @NotNull String compact = root.toString();
+        assertNull(((JsonContainer) section).cached());
+        assertEquals(compact, root.toString(JsonFormat.RETAINING));
+        assertNotNull(((JsonContainer) section).cached());
+
+        @NotNull String written = write(root);
+        assertNotNull(((JsonContainer) section).cached());
+        assertEquals(written, write(root));
+
+        // Too small to be kept
+        assertNull(((JsonContainer) section.get("values")).cached());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Drop the written bytes up to the root on modifications")
+    void modified() throws IOException {
+        @NotNull JsonObject root = document();
+        @NotNull JsonObject section = root.get("section7").getAsObject();
+        @NotNull JsonObject sibling = root.get("section8").getAsObject();
+
+        write(root);
+
+        section.get("values").getAsArray().set(0, JsonString.create("changed"));
+        assertNull(((JsonContainer) section).cached());
+        assertNotNull(((JsonContainer) sibling).cached());
+
+        @NotNull String expected = ((JsonObject) Json.parse(root.toString())).deepClone().toString();
+        assertEquals(expected, write(root));
+        assertTrue(write(root).contains("\"section7\":{\"id\":7,\"name\":\"ação 7\",\"values\":[\"changed\",true,null,\"text\"],"));
+
+        // Modifications through views
+        for (@NotNull java.util.Map.Entry<String, Json> entry : sibling.entrySet()) {
+            if (entry.getKey().equals("id")) entry.setValue(JsonInteger.create(-8));
+        }
+        assertTrue(write(root).contains("\"section8\":{\"id\":-8,"));
+
+        root.remove("section9");
+        assertFalse(write(root).contains("section9\""));
+        assertEquals(root.footprint(), write(root).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Drop the written bytes of lazy views")
+    void lazy() throws IOException {
+        //noinspection DataFlowIssue
+        @NotNull JsonObject root = Json.parseLazily(document().toString().getBytes(StandardCharsets.UTF_8)).getAsObject();
+        write(root);
+
+        root.get("section3").getAsObject().put("extra", JsonBoolean.create(false));
+        assertTrue(write(root).contains("\"section3\":{\"id\":3,\"name\":\"ação 3\",\"values\":[1.5,true,null,\"text\"],\"description\":\"a section of the document\",\"extra\":false}"));
+    }
+
+}
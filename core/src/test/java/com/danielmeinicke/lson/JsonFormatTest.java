@@ -0,0 +1,113 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonFormatTest {
+
+    private static final @NotNull String DOCUMENT = "{\"name\":\"lson\",\"tags\":[1,[],{},[true,null]],\"nested\":{\"list\":[\"a\"]}}";
+
+    @Test
+    @Order(0)
+    @DisplayName("Write a tree with the pretty format")
+    void pretty() throws IOException {
+        @NotNull Json json = Json.parse(DOCUMENT);
+        @NotNull String expected = "{\n" +
+                "  \"name\": \"lson\",\n" +
+                "  \"tags\": [\n" +
+                "    1,\n" +
+                "    [],\n" +
+                "    {},\n" +
+                "    [\n" +
+                "      true,\n" +
+                "      null\n" +
+                "    ]\n" +
+                "  ],\n" +
+                "  \"nested\": {\n" +
+                "    \"list\": [\n" +
+                "      \"a\"\n" +
+                "    ]\n" +
+                "  }\n" +
+                "}";
+
+        assertEquals(expected, json.toString(JsonFormat.PRETTY));
+        assertEquals(json, Json.parse(expected));
+
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        json.write(stream, JsonFormat.PRETTY);
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        // The compact bytes kept by the containers aren't spliced into the pretty output
+        assertEquals(DOCUMENT, json.toString(JsonFormat.RETAINING));
+        assertEquals(expected, json.toString(JsonFormat.PRETTY));
+        assertEquals(DOCUMENT, json.toString(JsonFormat.COMPACT));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Write tokens with tabs and carriage returns")
+    void tokens() throws IOException {
+        @NotNull JsonFormat format = JsonFormat.builder().indent(1, '\t').lineSeparator("\r\n").spaceAfterColon(false).build();
+        @NotNull StringWriter target = new StringWriter();
+
+        try (@NotNull JsonWriter writer = new JsonWriter(target, format)) {
+            writer.beginObject();
+            writer.name("id").value(1);
+            writer.name("empty").beginArray().endArray();
+            writer.name("list").beginArray().value("x").beginObject().endObject().endArray();
+            writer.endObject();
+            writer.value(2);
+        }
+
+        assertEquals("{\r\n\t\"id\":1,\r\n\t\"empty\":[],\r\n\t\"list\":[\r\n\t\t\"x\",\r\n\t\t{}\r\n\t]\r\n}\r\n2", target.toString());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Indent levels deeper than the encoded ones")
+    void deep() {
+        @NotNull StringBuilder builder = new StringBuilder();
+        for (int level = 0; level < 40; level++) builder.append('[');
+        builder.append('0');
+        for (int level = 0; level < 40; level++) builder.append(']');
+
+        @NotNull Json json = Json.parse(builder.toString());
+        @NotNull String text = json.toString(JsonFormat.builder().indent(3).build());
+        @NotNull String[] lines = text.split("\n");
+
+        assertEquals(81, lines.length);
+        for (int level = 0; level <= 40; level++) {
+            assertEquals(level * 3, lines[level].length() - lines[level].trim().length());
+            assertEquals(level * 3, lines[80 - level].length() - 1);
+        }
+
+        assertEquals(json, Json.parse(text));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Validate the format settings")
+    void settings() {
+        assertThrows(IllegalArgumentException.class, () -> JsonFormat.builder().indent(-1));
+        assertThrows(IllegalArgumentException.class, () -> JsonFormat.builder().indent(2, 'x'));
+        assertThrows(IllegalArgumentException.class, () -> JsonFormat.builder().lineSeparator(" "));
+
+        assertEquals(JsonFormat.PRETTY, JsonFormat.builder().build());
+        assertEquals("{\"a\": [1]}", Json.parse("{\"a\":[1]}").toString(JsonFormat.builder().indent(0).spaceAfterColon(true).build()).replace("\n", ""));
+        assertTrue(JsonFormat.PRETTY.isPretty());
+        assertFalse(JsonFormat.COMPACT.isPretty());
+        assertTrue(JsonFormat.RETAINING.isRetainingBytes());
+        assertFalse(JsonFormat.COMPACT.isRetainingBytes());
+        assertNotEquals(JsonFormat.COMPACT, JsonFormat.RETAINING);
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonLinesTest {
+
+    private static byte @NotNull [] lines(int count) {
+        @NotNull StringBuilder builder = new StringBuilder();
+
+        for (int row = 0; row < count; row++) {
+            builder.append("{\"id\": ").append(row).append(", \"name\": \"line ").append(row).append("\"}\n");
+            if (row % 100 == 0) builder.append("\r\n");
+        }
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Stream the lines in parallel keeping their order")
+    void ordered() {
+        @NotNull List<Json> values = JsonLines.parse(lines(20000)).collect(Collectors.toList());
+
+        assertEquals(20000, values.size());
+        for (int row = 0; row < values.size(); row++) {
+            assertEquals(row, values.get(row).getAsObject().get("id").getAsInteger());
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Deliver the lines of a file to a consumer")
+    void unordered() throws IOException {
+        @NotNull Path path = Files.createTempFile("lson", ".ndjson");
+
+        try {
+            Files.write(path, lines(20000));
+
+            @NotNull AtomicLong sum = new AtomicLong();
+            JsonLines.parse(path, ForkJoinPool.commonPool(), json -> sum.addAndGet(json.getAsObject().get("id").getAsInteger()));
+
+            assertEquals(19999L * 20000 / 2, sum.get());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Report errors relative to the whole input")
+    void invalid() {
+        byte[] bytes = "[1]\n{\"a\": x}\n".getBytes(StandardCharsets.UTF_8);
+
+        @NotNull JsonParseException exception = assertThrows(JsonParseException.class, () -> JsonLines.parse(bytes).count());
+        assertEquals(10, exception.getIndex());
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonObjectTest {
+
+    private static void verify(@NotNull Map<String, Json> expected, @NotNull JsonObject object) {
+        assertEquals(expected.size(), object.size());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(object.keySet()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(object.values()));
+        assertEquals(expected.entrySet(), object.entrySet());
+        assertEquals(expected.hashCode(), object.hashCode());
+        assertEquals(object.toString(), Json.parse(object.toString()).toString());
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Keep the insertion order through random modifications")
+    void random() {
+        // Small objects, objects around the small capacity and large objects
+        for (int keys : new int[] { 6, 12, 300 }) {
+            random(keys);
+        }
+    }
+    private static void random(int keys) {
+        @NotNull SplittableRandom random = new SplittableRandom(keys);
+        @NotNull Map<String, Json> expected = new LinkedHashMap<>();
+        @NotNull JsonObject object = JsonObject.create();
+
+        for (int row = 0; row < 20_000; row++) {
+            @NotNull String key = "k" + random.nextInt(keys);
+            int operation = random.nextInt(10);
+
+            if (operation < 6) {
+                @NotNull Json value = JsonInteger.create(row);
+                assertEquals(expected.put(key, value), object.put(key, value));
+            } else if (operation < 9) {
+                assertEquals(expected.remove(key), object.remove(key));
+            } else {
+                assertEquals(expected.get(key), object.get(key));
+                assertEquals(expected.containsKey(key), object.containsKey(key));
+            }
+
+            if (row % 500 == 0) verify(expected, object);
+        }
+
+        verify(expected, object);
+
+        object.clear();
+        expected.clear();
+        verify(expected, object);
+
+        object.put("again", null);
+        expected.put("again", null);
+        verify(expected, object);
+        assertTrue(object.containsKey("again"));
+        assertFalse(object.containsKey(null));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Modify through the views and iterators")
+    void views() {
+        @NotNull JsonObject object = Json.parse("{\"a\":1,\"b\":2,\"c\":3,\"d\":4}").getAsObject();
+
+        @NotNull Iterator<Map.Entry<String, Json>> iterator = object.entrySet().iterator();
+        @NotNull Map.Entry<String, Json> first = iterator.next();
+        iterator.remove();
+        assertEquals("a", first.getKey());
+        assertThrows(IllegalStateException.class, iterator::remove);
+
+        @NotNull Map.Entry<String, Json> second = iterator.next();
+        second.setValue(JsonString.create("two"));
+        assertEquals("{\"b\":\"two\",\"c\":3,\"d\":4}", object.toString());
+
+        // The entries follow their members when the arrays are compacted
+        for (int row = 0; row < 20; row++) object.put("x" + row, null);
+        assertEquals(JsonString.create("two"), second.getValue());
+        second.setValue(JsonBoolean.create(true));
+        assertEquals(JsonBoolean.create(true), object.get("b"));
+
+        assertThrows(ConcurrentModificationException.class, () -> {
+            for (@NotNull String key : object.keySet()) object.put(key + "!", null);
+        });
+
+        object.keySet().removeIf(key -> key.startsWith("x") || key.endsWith("!"));
+        object.values().remove(object.get("c"));
+        assertEquals("{\"b\":true,\"d\":4}", object.toString());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Sort, merge and clone")
+    void modules() throws IOException, ClassNotFoundException {
+        @NotNull JsonObject object = Json.parse("{\"a\":3,\"b\":1,\"c\":2,\"d\":1}").getAsObject();
+        object.remove("c");
+        object.sort(Comparator.comparingInt(Json::getAsInteger));
+        assertEquals("{\"b\":1,\"d\":1,\"a\":3}", object.toString());
+
+        // Sorting objects past the small capacity rebuilds their tables
+        @NotNull JsonObject large = JsonObject.create();
+        for (int row = 0; row < 20; row++) large.put("k" + row, JsonInteger.create(20 - row));
+        large.sort(Comparator.comparingInt(Json::getAsInteger));
+        assertEquals("k19", large.keySet().iterator().next());
+        assertEquals(7, large.get("k13").getAsInteger());
+        assertEquals(3, object.get("a").getAsInteger());
+
+        @NotNull JsonObject target = Json.parse("{\"x\":{\"y\":1},\"z\":0}").getAsObject();
+        target.merge(Json.parse("{\"x\":{\"w\":2},\"z\":1,\"n\":null}").getAsObject(), false);
+        assertEquals("{\"x\":{\"y\":1,\"w\":2},\"z\":0,\"n\":null}", target.toString());
+        target.merge(Json.parse("{\"z\":1}").getAsObject());
+        assertEquals(1, target.get("z").getAsInteger());
+
+        @NotNull JsonObject deep = target.deepClone();
+        deep.get("x").getAsObject().put("v", null);
+        assertFalse(target.get("x").getAsObject().containsKey("v"));
+        assertEquals(target.toString(), target.clone().toString());
+
+        @NotNull ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (@NotNull ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(target);
+        }
+        try (@NotNull ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @NotNull JsonObject copy = (JsonObject) stream.readObject();
+
+            assertEquals(target, copy);
+            copy.put("after", null);
+            assertTrue(copy.containsKey("after"));
+            assertNull(copy.get("after"));
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonParserTest {
+
+    private static final @NotNull String DOCUMENT = "{\"name\": \"L\\u00e9o \\\"Laivy\\\" \uD83D\uDE00\", \"age\": 27, \"big\": 9876543210, \"ratio\": -1.5e3, \"tags\": [true, false, null, [], {}]}";
+
+    @Test
+    @Order(0)
+    @DisplayName("Parse a document from bytes")
+    void bytes() {
+        @NotNull JsonObject object = Json.parse(DOCUMENT).getAsObject();
+
+        assertEquals("Léo \"Laivy\" \uD83D\uDE00", object.get("name").getAsString());
+        assertInstanceOf(JsonByte.class, object.get("age"));
+        assertEquals(27, object.get("age").getAsInteger());
+        assertInstanceOf(JsonLong.class, object.get("big"));
+        assertEquals(9876543210L, object.get("big").getAsLong());
+        assertEquals(-1500D, object.get("ratio").getAsDouble());
+
+        @NotNull JsonArray tags = object.get("tags").getAsArray();
+        assertEquals(5, tags.size());
+        assertTrue(tags.get(0).getAsBoolean());
+        assertFalse(tags.get(1).getAsBoolean());
+        assertNull(tags.get(2));
+        assertTrue(tags.get(3).getAsArray().isEmpty());
+        assertTrue(tags.get(4).getAsObject().isEmpty());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Parse a document from a stream refilling a byte at a time")
+    void stream() throws IOException {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        @NotNull InputStream stream = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte @NotNull [] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+
+        assertEquals(Json.parse(bytes), Json.parse(stream));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Reject invalid documents")
+    void invalid() {
+        assertThrows(JsonParseException.class, () -> Json.parse("{\"a\" 1}"));
+        assertThrows(JsonParseException.class, () -> Json.parse("[1, 2"));
+        assertThrows(JsonParseException.class, () -> Json.parse("[01]"));
+        assertThrows(JsonParseException.class, () -> Json.parse("\"\\x\""));
+        assertThrows(JsonParseException.class, () -> Json.parse("true false"));
+
+        @NotNull JsonParseException exception = assertThrows(JsonParseException.class, () -> Json.parse("[1, x]"));
+        assertEquals(4, exception.getIndex());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Parse a document lazily through its structural index")
+    void lazily() {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        @NotNull JsonObject object = Json.parseLazily(bytes).getAsObject();
+
+        assertEquals(5, object.size());
+        assertEquals(27, object.get("age").getAsInteger());
+        assertNull(object.get("missing"));
+
+        @NotNull JsonArray tags = object.get("tags").getAsArray();
+        assertSame(tags, object.get("tags"));
+        assertEquals(5, tags.size());
+        assertNull(tags.get(2));
+        assertTrue(tags.get(4).getAsObject().isEmpty());
+
+        assertEquals(Json.parse(bytes), object);
+
+        // Structure errors are found by the first stage, scalars only when touched
+        assertThrows(JsonParseException.class, () -> Json.parseLazily("{\"a\": [1, 2}".getBytes(StandardCharsets.UTF_8)));
+        @NotNull JsonArray invalid = Json.parseLazily("[1, tru]".getBytes(StandardCharsets.UTF_8)).getAsArray();
+        assertEquals(1, invalid.get(0).getAsInteger());
+        assertThrows(JsonParseException.class, () -> invalid.get(1));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Index strings and escapes crossing the 64 bytes blocks")
+    void blocks() {
+        @NotNull StringBuilder builder = new StringBuilder("[");
+
+        for (int row = 0; row < 200; row++) {
+            if (row > 0) builder.append(", ");
+
+            @NotNull StringBuilder backslashes = new StringBuilder();
+            for (int count = 0; count < row % 5; count++) backslashes.append("\\\\");
+
+            builder.append("{\"k").append(row).append("\": \"").append(backslashes).append("\\\"{[,:]}\\\"").append(backslashes).append("\"}");
+        }
+
+        byte[] bytes = builder.append("]").toString().getBytes(StandardCharsets.UTF_8);
+        @NotNull JsonArray array = Json.parseLazily(bytes).getAsArray();
+
+        assertEquals(200, array.size());
+        assertEquals("\\\\\\\\\"{[,:]}\"\\\\\\\\", array.get(199).getAsObject().get("k199").getAsString());
+        assertEquals(Json.parse(bytes), array);
+
+        assertThrows(JsonParseException.class, () -> Json.parseLazily(builder.deleteCharAt(builder.length() - 1).append("\"]").toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Parse root scalars ending the input of a stream")
+    void scalars() throws IOException {
+        for (@NotNull String scalar : new String[] { " 123", "   -4.5e3", "\n0", "  true", " 9223372036854775807" }) {
+            @NotNull InputStream stream = new ByteArrayInputStream(scalar.getBytes(StandardCharsets.UTF_8));
+            assertEquals(Json.parse(scalar), Json.parse(stream), scalar);
+
+            // Refilling a byte at a time
+            @NotNull InputStream slow = new ByteArrayInputStream(scalar.getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public synchronized int read(byte @NotNull [] b, int off, int len) {
+                    return super.read(b, off, Math.min(len, 1));
+                }
+            };
+            assertEquals(Json.parse(scalar), Json.parse(slow), scalar);
+        }
+
+        assertEquals(123, Json.parse(new ByteArrayInputStream(" 123".getBytes(StandardCharsets.UTF_8))).getAsInteger());
+    }
+
+}
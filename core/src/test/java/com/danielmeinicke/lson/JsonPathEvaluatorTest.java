@@ -0,0 +1,133 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonPathEvaluatorTest {
+
+    private static final byte @NotNull [] DOCUMENT = ("{\"events\": [" +
+            "{\"level\": \"INFO\", \"message\": \"started\", \"size\": 3}, " +
+            "{\"level\": \"ERROR\", \"message\": \"failed\", \"size\": 12, \"error\": {\"code\": 1, \"error\": null}}, " +
+            "{\"level\": \"WARN\", \"message\": \"slow\", \"size\": 40}, " +
+            "{\"level\": \"ERROR\", \"message\": \"aborted\", \"size\": 7, \"error\": {\"code\": 2}}" +
+            "], \"error\": false}").getBytes(StandardCharsets.UTF_8);
+
+    private static @NotNull List<@Nullable Json> evaluate(@NotNull String path) {
+        return JsonPathEvaluator.stream(DOCUMENT, JsonPath.parse(path)).collect(Collectors.toList());
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Evaluate names, wildcards and slices")
+    void selectors() {
+        assertEquals(Json.parse(DOCUMENT), evaluate("$").get(0));
+        assertEquals(4, evaluate("$.events.*").size());
+        assertEquals("failed", evaluate("$.events[1].message").get(0).getAsString());
+        assertEquals(Arrays.asList(JsonString.create("started"), JsonString.create("slow")), evaluate("$.events[0:4:2].message"));
+        assertEquals(Arrays.asList(JsonString.create("failed"), JsonString.create("aborted")), evaluate("$.events[1,3]['message']"));
+        assertTrue(evaluate("$.missing.*").isEmpty());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Evaluate deep scans in the document order")
+    void deep() {
+        @NotNull List<@Nullable Json> errors = evaluate("$..error");
+
+        assertEquals(4, errors.size());
+        assertEquals(1, errors.get(0).getAsObject().get("code").getAsInteger());
+        assertNull(errors.get(1));
+        assertEquals(2, errors.get(2).getAsObject().get("code").getAsInteger());
+        assertFalse(errors.get(3).getAsBoolean());
+
+        assertEquals(2, evaluate("$..code").size());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Evaluate filters on the current element")
+    void filters() {
+        assertEquals(Arrays.asList(JsonString.create("failed"), JsonString.create("aborted")), evaluate("$.events[?(@.level == 'ERROR')].message"));
+        assertEquals(Arrays.asList(JsonString.create("failed"), JsonString.create("slow")), evaluate("$.events[?(@.size > 10)].message"));
+        assertEquals(Arrays.asList(JsonString.create("aborted")), evaluate("$.events[?(@.level == 'ERROR' && (@.size < 10 || @.size > 100))].message"));
+        assertEquals(2, evaluate("$.events[?(@.error.code)]").size());
+        assertEquals(2, evaluate("$.events[?(!@.error)]").size());
+
+        assertThrows(UnsupportedOperationException.class, () -> evaluate("$.events[-2:]"));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Evaluate streams and files")
+    void inputs() throws IOException {
+        @NotNull InputStream stream = new ByteArrayInputStream(DOCUMENT) {
+            @Override
+            public synchronized int read(byte @NotNull [] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+
+        @NotNull List<@Nullable Json> values = new ArrayList<>();
+        JsonPathEvaluator.evaluate(stream, JsonPath.parse("$.events[*].level"), values::add);
+        assertEquals(evaluate("$.events[*].level"), values);
+
+        @NotNull Path file = Files.createTempFile("lson", ".json");
+        try {
+            Files.write(file, DOCUMENT);
+
+            values.clear();
+            JsonPathEvaluator.evaluate(file, JsonPath.parse("$..size"), values::add);
+            assertEquals(4, values.size());
+        } finally {
+            Files.delete(file);
+        }
+
+        assertThrows(JsonParseException.class, () -> JsonPathEvaluator.stream("{\"a\": [1, 2} ".getBytes(StandardCharsets.UTF_8), JsonPath.parse("$.a[*]")).count());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Extract the values selected at an object")
+    void extract() {
+        @NotNull JsonObject object = Json.parse(DOCUMENT).getAsObject();
+
+        assertEquals(Json.parse("[\"failed\",\"aborted\"]"), object.extract(JsonPath.parse("$.events[?(@.level == 'ERROR')].message")));
+        assertEquals(JsonArray.create(evaluate("$..error")), object.extract(JsonPath.parse("$..error")));
+        assertTrue(object.extract(JsonPath.parse("$.missing")).getAsArray().isEmpty());
+
+        // Negative indexes and slice bounds are relative to the array length
+        assertEquals(Json.parse("[\"aborted\"]"), object.extract(JsonPath.parse("$.events[-1].message")));
+        assertEquals(Json.parse("[40,7]"), object.extract(JsonPath.parse("$.events[-2:].size")));
+        assertEquals(Json.parse("[3,40]"), object.extract(JsonPath.parse("$.events[-9:-1:2].size")));
+
+        // The selected values are the nodes of the object, with their own types
+        assertSame(object.get("events"), object.extract(JsonPath.parse("$.events")).getAsArray().get(0));
+
+        @NotNull JsonObject numbers = JsonObject.create();
+        numbers.put("ratio", JsonFloat.create(0.5f));
+        assertInstanceOf(JsonFloat.class, numbers.extract(JsonPath.parse("$.ratio")).getAsArray().get(0));
+
+        // Lazy views delegate to the parsed object
+        //noinspection DataFlowIssue
+        assertEquals(object.extract(JsonPath.parse("$..size")), Json.parseLazily(DOCUMENT).getAsObject().extract(JsonPath.parse("$..size")));
+    }
+
+}
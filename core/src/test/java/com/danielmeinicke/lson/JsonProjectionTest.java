@@ -0,0 +1,67 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import com.danielmeinicke.lson.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonProjectionTest {
+
+    private static final byte @NotNull [] DOCUMENT = ("{\"header\": {\"id\": 7, \"tags\": [\"a\", \"b\"]}, \"body\": {\"text\": \"skip \\\"me\\\" ]}\"}, " +
+            "\"items\": [{\"sku\": \"x1\", \"price\": 10}, {\"price\": 20}, {\"sku\": \"x3\", \"price\": 30, \"meta\": {\"sku\": \"deep\"}}]}").getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @Order(0)
+    @DisplayName("Project names and wildcards")
+    void names() {
+        @NotNull JsonObject object = Json.parse(DOCUMENT, JsonPath.parse("$.header.*"), JsonPath.parse("$.items[*].sku")).getAsObject();
+
+        assertEquals(2, object.size());
+        assertEquals(Json.parse("{\"id\": 7, \"tags\": [\"a\", \"b\"]}"), object.get("header"));
+
+        @NotNull JsonArray items = object.get("items").getAsArray();
+        assertEquals(3, items.size());
+        assertEquals("x1", items.get(0).getAsObject().get("sku").getAsString());
+        assertNull(items.get(1));
+        assertEquals(1, items.get(2).getAsObject().size());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Project indexes, slices and deep scans")
+    void indexes() {
+        @NotNull JsonArray items = Json.parse(DOCUMENT, JsonPath.parse("$.items[1]")).getAsObject().get("items").getAsArray();
+        assertEquals(2, items.size());
+        assertNull(items.get(0));
+        assertEquals(20, items.get(1).getAsObject().get("price").getAsInteger());
+
+        items = Json.parse(DOCUMENT, JsonPath.parse("$.items[0:3:2]")).getAsObject().get("items").getAsArray();
+        assertEquals(3, items.size());
+        assertNull(items.get(1));
+        assertEquals(3, items.get(2).getAsObject().size());
+
+        @NotNull JsonObject deep = Json.parse(DOCUMENT, JsonPath.parse("$..sku")).getAsObject();
+        assertFalse(deep.containsKey("header"));
+        assertEquals("deep", deep.get("items").getAsArray().get(2).getAsObject().get("meta").getAsObject().get("sku").getAsString());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Project the root and streams")
+    void root() throws IOException {
+        assertEquals(Json.parse(DOCUMENT), Json.parse(DOCUMENT, JsonPath.parse("$")));
+        assertEquals(Json.parse(DOCUMENT, JsonPath.parse("$.body")), Json.parse(new ByteArrayInputStream(DOCUMENT), JsonPath.parse("$.body")));
+        assertNull(Json.parse("42".getBytes(StandardCharsets.UTF_8), JsonPath.parse("$.a")));
+
+        assertThrows(JsonParseException.class, () -> Json.parse("{\"a\": 1} x".getBytes(StandardCharsets.UTF_8), JsonPath.parse("$.a")));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonPushParserTest {
+
+    private static final @NotNull String DOCUMENT = "{\"name\": \"L\\u00e9o \\\"Laivy\\\" 😀\", \"age\": 27, \"big\": 9876543210, \"ratio\": -1.5e3, \"tags\": [true, false, null, [], {}]}";
+
+    @Test
+    @Order(0)
+    @DisplayName("Feed a document a byte at a time")
+    void bytes() {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        @NotNull List<Json> values = new ArrayList<>();
+        @NotNull JsonPushParser parser = new JsonPushParser(values::add);
+
+        for (byte b : bytes) {
+            parser.feed(ByteBuffer.wrap(new byte[] { b }));
+        }
+
+        assertEquals(1, values.size());
+        parser.endOfInput();
+
+        assertEquals(Json.parse(bytes), values.get(0));
+        assertEquals(bytes.length, parser.getIndex());
+        assertThrows(IllegalStateException.class, () -> parser.feed(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Feed a sequence of values through direct buffers")
+    void sequence() {
+        byte[] bytes = "[1, 2] {\"a\": []}\n\"x\" null 3".getBytes(StandardCharsets.UTF_8);
+        @NotNull List<Json> values = new ArrayList<>();
+        @NotNull JsonPushParser parser = new JsonPushParser(values::add);
+
+        for (int offset = 0; offset < bytes.length; offset += 5) {
+            @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(5);
+            buffer.put(bytes, offset, Math.min(5, bytes.length - offset)).flip();
+
+            parser.feed(buffer);
+            assertFalse(buffer.hasRemaining());
+        }
+
+        // The last number could still continue
+        assertEquals(4, values.size());
+        parser.endOfInput();
+
+        assertEquals(Json.parse("[1, 2]"), values.get(0));
+        assertEquals(Json.parse("{\"a\": []}"), values.get(1));
+        assertEquals("x", values.get(2).getAsString());
+        assertNull(values.get(3));
+        assertEquals(3, values.get(4).getAsInteger());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Reject invalid inputs")
+    void invalid() {
+        @NotNull JsonPushParser parser = new JsonPushParser(json -> { });
+        parser.feed(ByteBuffer.wrap("[1, ".getBytes(StandardCharsets.UTF_8)));
+
+        @NotNull JsonParseException exception = assertThrows(JsonParseException.class, () -> parser.feed(ByteBuffer.wrap("x]".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(4, exception.getIndex());
+        assertThrows(IllegalStateException.class, parser::endOfInput);
+
+        @NotNull JsonPushParser unterminated = new JsonPushParser(json -> { });
+        unterminated.feed(ByteBuffer.wrap("{\"a\": \"\\".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonParseException.class, unterminated::endOfInput);
+
+        // Empty inputs are rejected as by the pull parser
+        @NotNull JsonParseException expected = assertThrows(JsonParseException.class, () -> Json.parse("  "));
+        @NotNull JsonPushParser empty = new JsonPushParser(json -> { });
+        empty.feed(ByteBuffer.wrap("  ".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected.getIndex(), assertThrows(JsonParseException.class, empty::endOfInput).getIndex());
+        assertThrows(JsonParseException.class, new JsonPushParser(json -> { })::endOfInput);
+
+        @NotNull JsonPushParser number = new JsonPushParser(json -> { });
+        number.feed(ByteBuffer.wrap("[01".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonParseException.class, () -> number.feed(ByteBuffer.wrap("]".getBytes(StandardCharsets.UTF_8))));
+    }
+
+}
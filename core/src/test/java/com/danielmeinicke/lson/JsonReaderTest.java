@@ -0,0 +1,63 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonReaderTest {
+
+    @Test
+    @Order(0)
+    @DisplayName("Read selected fields skipping the others")
+    void fields() throws IOException {
+        byte[] bytes = "{\"skip\": {\"a\": [1, \"]}\\\"\", {}]}, \"id\": 9876543210, \"ratio\": 0.25, \"count\": 1e2, \"ok\": true, \"none\": null, \"name\": \"lson\"}".getBytes(StandardCharsets.UTF_8);
+
+        try (@NotNull JsonReader reader = new JsonReader(bytes)) {
+            assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+
+            assertEquals(JsonToken.NAME, reader.peek());
+            reader.skipValue();
+
+            assertEquals("id", reader.nextName());
+            assertEquals(9876543210L, reader.nextLong());
+            assertEquals("ratio", reader.nextName());
+            assertEquals(0.25D, reader.nextDouble());
+            assertEquals("count", reader.nextName());
+            assertEquals(100, reader.nextInt());
+            assertEquals("ok", reader.nextName());
+            assertTrue(reader.nextBoolean());
+            assertEquals("none", reader.nextName());
+            reader.nextNull();
+            assertEquals("name", reader.nextName());
+            assertEquals("lson", reader.nextString());
+
+            assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+            assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Read a sequence of values")
+    void sequence() throws IOException {
+        try (@NotNull JsonReader reader = new JsonReader("[1, 2] {\"a\": []}\n3".getBytes(StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            assertEquals(1, reader.nextInt());
+            assertTrue(reader.hasNext());
+            assertEquals(2, reader.nextInt());
+            assertFalse(reader.hasNext());
+            reader.endArray();
+
+            assertEquals(Json.parse("{\"a\": []}"), reader.nextValue());
+            assertEquals(3, reader.nextInt());
+            assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+        }
+    }
+
+}
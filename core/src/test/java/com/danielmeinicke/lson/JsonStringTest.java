@@ -0,0 +1,33 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonNumberException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonStringTest {
+
+    @Test
+    @Order(0)
+    @DisplayName("Classify numeric strings into the narrowest number")
+    void numbers() {
+        assertEquals(JsonByte.create((byte) -128), new JsonStringImpl("-128").getAsNumber());
+        assertEquals(JsonShort.create((short) 300), new JsonStringImpl("+300").getAsNumber());
+        assertEquals(JsonInteger.create(70000), new JsonStringImpl("70000").getAsNumber());
+        assertEquals(JsonLong.create(Long.MIN_VALUE), new JsonStringImpl("-9223372036854775808").getAsNumber());
+        assertEquals(JsonDouble.create(9223372036854775808D), new JsonStringImpl("9223372036854775808").getAsNumber());
+        assertEquals(JsonDouble.create(3.5D), new JsonStringImpl("3.5").getAsNumber());
+        assertEquals(JsonDouble.create(0.5D), new JsonStringImpl(".5").getAsNumber());
+
+        @NotNull JsonString string = new JsonStringImpl("1e3");
+        assertSame(string.getAsNumber(), string.getAsNumber());
+
+        assertThrows(JsonNumberException.class, () -> new JsonStringImpl("abc").getAsNumber());
+        assertThrows(JsonNumberException.class, () -> new JsonStringImpl("").getAsNumber());
+        assertThrows(JsonNumberException.class, () -> new JsonStringImpl("1.2.3").getAsNumber());
+    }
+
+}
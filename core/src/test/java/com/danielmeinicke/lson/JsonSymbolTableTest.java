@@ -0,0 +1,60 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.factory.JsonFactory;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonSymbolTableTest {
+
+    @Test
+    @Order(0)
+    @DisplayName("Share the key instances between documents")
+    void shared() {
+        @NotNull JsonObject first = Json.parse("{\"name\": 1, \"café\": 2, \"a\\\"b\": 3}").getAsObject();
+        @NotNull JsonObject second = Json.parse("{\"name\": 4, \"café\": 5, \"a\\\"b\": 6}").getAsObject();
+
+        @NotNull String[] firstKeys = first.keySet().toArray(new String[0]);
+        @NotNull String[] secondKeys = second.keySet().toArray(new String[0]);
+
+        assertArrayEquals(new String[] { "name", "café", "a\"b" }, secondKeys);
+        assertSame(firstKeys[0], secondKeys[0]);
+        assertSame(firstKeys[1], secondKeys[1]);
+
+        // Keys with escapes aren't stored
+        assertNotSame(firstKeys[2], secondKeys[2]);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Use the symbol table of the current factory")
+    void factory() {
+        @NotNull JsonFactory previous = JsonFactory.getFactory();
+        @NotNull JsonSymbolTable table = new JsonSymbolTable(1);
+
+        try {
+            JsonFactory.setFactory(new JsonFactory(table) {
+            });
+            assertEquals(1, table.getCapacity());
+
+            byte[] key = "identifier".getBytes(StandardCharsets.UTF_8);
+            int hash = 0;
+            for (byte b : key) hash = JsonSymbolTable.hash(hash, b);
+
+            assertNull(table.get(key, 0, key.length, hash));
+            @NotNull String parsed = Json.parse("{\"identifier\": true}").getAsObject().keySet().iterator().next();
+            assertSame(parsed, table.get(key, 0, key.length, hash));
+
+            table.clear();
+            assertNull(table.get(key, 0, key.length, hash));
+        } finally {
+            JsonFactory.setFactory(previous);
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class JsonWriterTest {
+
+    private static final @NotNull String DOCUMENT = "{\"name\":\"L\\u00e9o \\\"Laivy\\\" \\\\ \\n 😀\",\"age\":27,\"big\":9876543210,\"ratio\":-1.5,\"tags\":[true,false,null,[],{}]}";
+
+    @Test
+    @Order(0)
+    @DisplayName("Write a tree to streams and writers")
+    void tree() throws IOException {
+        @NotNull Json json = Json.parse(DOCUMENT);
+        @NotNull String expected = "{\"name\":\"Léo \\\"Laivy\\\" \\\\ \\n 😀\",\"age\":27,\"big\":9876543210,\"ratio\":-1.5,\"tags\":[true,false,null,[],{}]}";
+
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        json.write(stream);
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        @NotNull StringWriter writer = new StringWriter();
+        json.write(writer);
+        assertEquals(expected, writer.toString());
+
+        assertEquals(expected, json.toString());
+        assertEquals(json, Json.parse(json.toString()));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Write documents larger than the buffer")
+    void large() throws IOException {
+        @NotNull StringBuilder builder = new StringBuilder("[");
+        for (int row = 0; row < 5000; row++) {
+            if (row > 0) builder.append(',');
+            builder.append("{\"id\":").append(row).append(",\"text\":\"ação 😀 ").append(row).append("\"}");
+        }
+        builder.append(']');
+
+        @NotNull Json json = Json.parse(builder.toString());
+
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        json.write(stream);
+        assertEquals(builder.toString(), new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        @NotNull StringWriter writer = new StringWriter();
+        json.write(writer);
+        assertEquals(builder.toString(), writer.toString());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Write tokens")
+    void tokens() throws IOException {
+        @NotNull StringWriter target = new StringWriter();
+
+        try (@NotNull JsonWriter writer = new JsonWriter(target)) {
+            writer.beginObject();
+            writer.name("id").value(7);
+            writer.name("ratio").value(0.5);
+            writer.name("tags").beginArray().value("a").value(true).nullValue().value(JsonArray.create()).endArray();
+            writer.endObject();
+
+            writer.beginArray().endArray();
+
+            assertThrows(IllegalStateException.class, writer::endObject);
+            assertThrows(IllegalStateException.class, () -> writer.name("x"));
+        }
+
+        assertEquals("{\"id\":7,\"ratio\":0.5,\"tags\":[\"a\",true,null,[]]}\n[]", target.toString());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Reject writes after closing")
+    void closed() throws IOException {
+        @NotNull ByteArrayOutputStream first = new ByteArrayOutputStream();
+        @NotNull JsonWriter writer = new JsonWriter(first);
+        writer.value("first");
+        writer.close();
+        writer.close();
+
+        // The next writer of the thread reuses the buffer of the closed one
+        @NotNull ByteArrayOutputStream second = new ByteArrayOutputStream();
+        try (@NotNull JsonWriter next = new JsonWriter(second)) {
+            next.beginArray().value(1);
+
+            assertThrows(IllegalStateException.class, () -> writer.value(12345));
+            assertThrows(IllegalStateException.class, () -> writer.value("text"));
+            assertThrows(IllegalStateException.class, () -> writer.value(Json.parse("[true]")));
+            assertThrows(IllegalStateException.class, writer::beginObject);
+            assertThrows(IllegalStateException.class, writer::flush);
+
+            next.value(2).endArray();
+        }
+
+        assertEquals("\"first\"", new String(first.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("[1,2]", new String(second.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Write to channels through direct buffers")
+    void channels() throws IOException {
+        // Larger than all the segments together, so they're gathered while writing
+        @NotNull StringBuilder builder = new StringBuilder("[");
+        for (int row = 0; row < 40_000; row++) {
+            if (row > 0) builder.append(',');
+            builder.append("{\"id\":").append(row).append(",\"text\":\"ação 😀 ").append(row).append("\"}");
+        }
+        builder.append(']');
+
+        @NotNull Json json = Json.parse(builder.toString());
+        @NotNull Path path = Files.createTempFile("lson", ".json");
+
+        try {
+            try (@NotNull FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                json.write(channel);
+                json.write(channel, JsonFormat.PRETTY);
+            }
+
+            @NotNull String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            assertEquals(builder + json.toString(JsonFormat.PRETTY), text);
+        } finally {
+            Files.delete(path);
+        }
+
+        // Channels without gathering writes
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (@NotNull JsonWriter writer = new JsonWriter(Channels.newChannel(stream))) {
+            writer.value(json);
+            writer.value(1);
+        }
+        assertEquals(builder + "\n1", new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        @NotNull Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            assertThrows(IllegalArgumentException.class, () -> json.write(pipe.sink()));
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.danielmeinicke.lson;
+
+import com.danielmeinicke.lson.exception.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ParallelArrayParserTest {
+
+    private static @NotNull String array(int count) {
+        @NotNull StringBuilder builder = new StringBuilder("[");
+
+        for (int row = 0; row < count; row++) {
+            if (row > 0) builder.append(row % 7 == 0 ? ",\n" : ",");
+
+            // Strings that look like element separators mislead some of the guesses
+            builder.append("{\"id\":").append(row).append(",\"fake\":\"},{\\\"x\\\":[1],[2]\",\"tags\":[").append(row % 3).append(",[]]}");
+        }
+
+        return builder.append("]  ").toString();
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Parse a large array in parallel")
+    void parallel() {
+        byte[] bytes = array(40000).getBytes(StandardCharsets.UTF_8);
+        @NotNull ForkJoinPool pool = new ForkJoinPool(8);
+
+        try {
+            @NotNull JsonArray array = Json.parseParallel(bytes, pool).getAsArray();
+
+            assertEquals(40000, array.size());
+            assertEquals(Json.parse(bytes), array);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Report the same errors as a sequential parse")
+    void invalid() {
+        @NotNull String valid = array(40000);
+        int index = valid.indexOf(",{\"id\"", valid.length() / 2) + 1;
+        @NotNull String invalid = valid.substring(0, index) + "#" + valid.substring(index + 1);
+        byte[] bytes = invalid.getBytes(StandardCharsets.UTF_8);
+
+        @NotNull JsonParseException expected = assertThrows(JsonParseException.class, () -> Json.parse(bytes));
+        @NotNull JsonParseException exception = assertThrows(JsonParseException.class, () -> Json.parseParallel(bytes));
+        assertEquals(expected.getIndex(), exception.getIndex());
+
+        assertThrows(JsonParseException.class, () -> Json.parseParallel((valid + "1").getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class PrimitiveArrayTest {
+
+    private static @NotNull JsonArray parse(@NotNull String string) {
+        return Json.parse(string).getAsArray();
+    }
+    private static @NotNull Object primitives(@NotNull JsonArray array) {
+        return ((JsonArrayImpl) array).primitives();
+    }
+
+    private static void verify(@NotNull String expected, @NotNull JsonArray array) throws IOException {
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        array.write(stream);
+
+        assertEquals(expected, array.toString());
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(stream.size(), array.footprint());
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Keep the parsed numbers and booleans as primitives")
+    void parsed() throws IOException {
+        @NotNull JsonArray integers = parse("[1, -200, 70000, 0]");
+        assertInstanceOf(int[].class, primitives(integers));
+        assertArrayEquals(new int[] { 1, -200, 70000, 0 }, integers.toIntArray());
+        assertArrayEquals(new double[] { 1, -200, 70000, 0 }, integers.toDoubleArray());
+        assertInstanceOf(JsonByte.class, integers.get(0));
+        assertInstanceOf(JsonShort.class, integers.get(1));
+        assertInstanceOf(JsonInteger.class, integers.get(2));
+        verify("[1,-200,70000,0]", integers);
+
+        @NotNull JsonArray longs = parse("[1,9876543210,-5]");
+        assertInstanceOf(long[].class, primitives(longs));
+        assertArrayEquals(new long[] { 1, 9876543210L, -5 }, longs.toLongArray());
+        assertArrayEquals(new double[] { 1, 9876543210L, -5 }, longs.toDoubleArray());
+        assertInstanceOf(JsonByte.class, longs.get(0));
+        assertInstanceOf(JsonLong.class, longs.get(1));
+        verify("[1,9876543210,-5]", longs);
+
+        @NotNull JsonArray doubles = parse("[0.5,-1.25,1.0E-7,3.0]");
+        assertInstanceOf(double[].class, primitives(doubles));
+        assertArrayEquals(new double[] { 0.5, -1.25, 1e-7, 3 }, doubles.toDoubleArray());
+        verify("[0.5,-1.25,1.0E-7,3.0]", doubles);
+
+        @NotNull JsonArray booleans = parse("[true,false,true]");
+        assertInstanceOf(boolean[].class, primitives(booleans));
+        assertArrayEquals(new boolean[] { true, false, true }, booleans.toBooleanArray());
+        verify("[true,false,true]", booleans);
+
+        assertEquals("[\n  1,\n  2\n]", parse("[1,2]").toString(JsonFormat.PRETTY));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Move to references when another kind is added")
+    void mixed() throws IOException {
+        @NotNull JsonArray array = parse("[1,2,3]");
+
+        array.add(JsonLong.create(12345678901L));
+        assertInstanceOf(long[].class, primitives(array));
+
+        array.add(1, JsonDouble.create(0.5));
+        assertNull(((JsonArrayImpl) array).primitives());
+        assertInstanceOf(JsonByte.class, array.get(0));
+        verify("[1,0.5,2,3,12345678901]", array);
+
+        // The integers that aren't of their narrowest type keep their type
+        @NotNull JsonArray typed = JsonArray.create();
+        typed.add(JsonInteger.create(5));
+        assertNull(((JsonArrayImpl) typed).primitives());
+        assertInstanceOf(JsonInteger.class, typed.get(0));
+
+        @NotNull JsonArray nulls = parse("[1.5,null]");
+        assertNull(((JsonArrayImpl) nulls).primitives());
+        assertThrows(NullPointerException.class, nulls::toDoubleArray);
+        assertArrayEquals(new int[] { 1, 2 }, parse("[1,2.5]").toIntArray());
+
+        // Emptied arrays take the next kind added
+        array.clear();
+        array.add(JsonBoolean.create(true));
+        assertInstanceOf(boolean[].class, primitives(array));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Modify the primitive elements")
+    void modifications() throws IOException, ClassNotFoundException {
+        @NotNull JsonObject root = Json.parse("{\"series\":[1.5,2.5,3.5,4.5,5.5]}").getAsObject();
+        @NotNull JsonArray series = root.get("series").getAsArray();
+        assertEquals("{\"series\":[1.5,2.5,3.5,4.5,5.5]}", root.toString());
+
+        series.set(0, JsonDouble.create(-1));
+        series.remove(1);
+        series.add(2, JsonDouble.create(9));
+
+        @NotNull ListIterator<Json> iterator = series.listIterator();
+        iterator.next();
+        iterator.remove();
+
+        @NotNull List<Json> section = series.subList(1, 3);
+        section.clear();
+        series.removeIf(json -> json.getAsDouble() > 5);
+        series.addAll(Arrays.asList(JsonDouble.create(7), JsonDouble.create(0.25)));
+        series.sort((first, second) -> Double.compare(first.getAsDouble(), second.getAsDouble()));
+
+        assertInstanceOf(double[].class, primitives(series));
+        assertEquals("{\"series\":[0.25,3.5,7.0]}", root.toString());
+        assertEquals(root.toString().length(), root.footprint());
+        assertTrue(series.contains(JsonDouble.create(3.5)));
+        assertEquals(2, series.indexOf(JsonDouble.create(7)));
+
+        @NotNull JsonArray clone = series.deepClone();
+        clone.add(JsonDouble.create(1));
+        assertEquals(3, series.size());
+        assertEquals(series, series.clone());
+
+        @NotNull ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (@NotNull ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(root);
+        }
+        try (@NotNull ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @NotNull JsonObject copy = (JsonObject) stream.readObject();
+            assertArrayEquals(new double[] { 0.25, 3.5, 7 }, copy.get("series").getAsArray().toDoubleArray());
+        }
+    }
+
+}
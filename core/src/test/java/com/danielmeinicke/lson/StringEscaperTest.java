@@ -0,0 +1,103 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class StringEscaperTest {
+
+    private static @NotNull String expected(@NotNull String string) {
+        @NotNull StringBuilder builder = new StringBuilder("\"");
+
+        for (int index = 0; index < string.length(); index++) {
+            char c = string.charAt(index);
+
+            if (c == '"') builder.append("\\\"");
+            else if (c == '\\') builder.append("\\\\");
+            else if (c == '\n') builder.append("\\n");
+            else if (c == '\r') builder.append("\\r");
+            else if (c == '\t') builder.append("\\t");
+            else if (c == '\b') builder.append("\\b");
+            else if (c == '\f') builder.append("\\f");
+            else if (c < 0x20 || c == 0x2028 || c == 0x2029) builder.append(String.format("\\u%04x", (int) c));
+            else if (Character.isHighSurrogate(c) && index + 1 < string.length() && Character.isLowSurrogate(string.charAt(index + 1))) builder.append(c).append(string.charAt(++index));
+            else if (Character.isSurrogate(c)) builder.append(String.format("\\u%04x", (int) c));
+            else builder.append(c);
+        }
+
+        return builder.append('"').toString();
+    }
+
+    private static void verify(@NotNull String string) throws IOException {
+        @NotNull JsonString json = JsonString.create(string);
+        @NotNull String expected = expected(string);
+
+        @NotNull ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        json.write(stream);
+
+        assertEquals(expected, json.toString());
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(stream.size(), json.footprint(), expected);
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Escape every ASCII character at every offset")
+    void ascii() throws IOException {
+        for (char c = 0; c < 0x80; c++) {
+            for (int offset = 0; offset < 17; offset++) {
+                @NotNull StringBuilder builder = new StringBuilder();
+                for (int row = 0; row < 17; row++) builder.append(row == offset ? c : 'a');
+
+                verify(builder.toString());
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Escape separators and unpaired surrogates")
+    void unicode() throws IOException {
+        verify("");
+        verify("say \"hi\"");
+        verify("line\u2028paragraph\u2029end");
+        verify("ação 😀 日本語");
+        verify("high \ud83d alone, low \ude00 alone, swapped \ude00\ud83d");
+        verify("\ud83d");
+
+        assertEquals("\"a\\\"b\\\\c\"", JsonString.create("a\"b\\c").toString());
+        assertEquals("a\"b\\c\u2028", Json.parse(JsonString.create("a\"b\\c\u2028").toString()).getAsString());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Escape random strings")
+    void random() throws IOException {
+        @NotNull SplittableRandom random = new SplittableRandom(17);
+
+        for (int row = 0; row < 2_000; row++) {
+            @NotNull StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(200);
+
+            for (int index = 0; index < length; index++) {
+                int kind = random.nextInt(10);
+
+                if (kind < 7) builder.append((char) random.nextInt(0x20, 0x7F));
+                else if (kind == 7) builder.append((char) random.nextInt(0x20));
+                else if (kind == 8) builder.append((char) random.nextInt(0x80, 0x10000));
+                else builder.appendCodePoint(random.nextInt(0x10000, 0x110000));
+            }
+
+            verify(builder.toString());
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.danielmeinicke.lson;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class VectorStructuralScannerTest {
+
+    // The structural characters, letters and whitespaces, and non-ASCII bytes, some of which
+    // only differ from a bracket or a quote by their high or 0x20 bits
+    private static final byte @NotNull [] ALPHABET = {
+            '"', '\\', '{', '}', '[', ']', ':', ',', ' ', '\n', 'a', 'z', '0', ';', '\u007F', '\u0002',
+            (byte) 0xC3, (byte) 0xA9, (byte) 0xF0, (byte) 0x9F, (byte) 0xDB, (byte) 0xDD, (byte) 0xFB,
+            (byte) 0xFD, (byte) 0xA2, (byte) 0xDC, (byte) 0xBA, (byte) 0xAC, (byte) 0x80, (byte) 0xFF
+    };
+
+    private static byte @NotNull [] blocks(@NotNull SplittableRandom random, int count) {
+        byte[] bytes = new byte[count * 64 + 64];
+
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+
+        // Runs of backslashes crossing the block edges, followed by a quote
+        for (int edge = 64; edge < bytes.length - 8; edge += 64) {
+            int start = edge - random.nextInt(1, 6);
+            int end = edge + random.nextInt(0, 5);
+
+            for (int index = start; index < end; index++) bytes[index] = '\\';
+            bytes[end] = '"';
+        }
+
+        return bytes;
+    }
+
+    @Test
+    @Order(0)
+    @DisplayName("Produce the same masks as the SWAR scanner")
+    void masks() {
+        @NotNull SplittableRandom random = new SplittableRandom(17);
+        @NotNull StructuralScanner swar = new SwarStructuralScanner();
+        @NotNull StructuralScanner vector = new VectorStructuralScanner();
+
+        for (int round = 0; round < 200; round++) {
+            byte[] bytes = blocks(random, 16);
+
+            // The aligned blocks and blocks starting anywhere
+            for (int block = 0; block < 32; block++) {
+                int position = block < 16 ? block * 64 : random.nextInt(bytes.length - 63);
+
+                swar.classify(bytes, position);
+                vector.classify(bytes, position);
+
+                assertEquals(swar.quotes, vector.quotes, "quotes at " + position);
+                assertEquals(swar.backslashes, vector.backslashes, "backslashes at " + position);
+                assertEquals(swar.operators, vector.operators, "operators at " + position);
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Mark each kind of character")
+    void kinds() {
+        byte[] bytes = new byte[64];
+        bytes[0] = '"';
+        bytes[1] = '\\';
+        bytes[2] = '[';
+        bytes[3] = '}';
+        bytes[62] = ':';
+        bytes[63] = ',';
+
+        @NotNull StructuralScanner vector = new VectorStructuralScanner();
+        vector.classify(bytes, 0);
+
+        assertEquals(1L, vector.quotes);
+        assertEquals(1L << 1, vector.backslashes);
+        assertEquals((1L << 2) | (1L << 3) | (1L << 62) | (1L << 63), vector.operators);
+    }
+
+}